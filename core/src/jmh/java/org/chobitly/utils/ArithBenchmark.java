@@ -0,0 +1,83 @@
+package org.chobitly.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较{@link Arith}的快速计算与原来每次都经过BigDecimal的实现。输入是三位小数的金额。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ArithBenchmark {
+
+    private final double[] values = new double[1024];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(1000000) / 1000.0;
+        }
+    }
+
+    private double next() {
+        index = (index + 1) & (values.length - 1);
+        return values[index];
+    }
+
+    @Benchmark
+    public double round() {
+        return Arith.round(next(), 2);
+    }
+
+    @Benchmark
+    public double roundBigDecimal() {
+        return new BigDecimal(Double.toString(next()))
+                .divide(new BigDecimal("1"), 2, BigDecimal.ROUND_HALF_UP).doubleValue();
+    }
+
+    @Benchmark
+    public double div() {
+        return Arith.div(next(), 3.0);
+    }
+
+    @Benchmark
+    public double divBigDecimal() {
+        return new BigDecimal(Double.toString(next()))
+                .divide(new BigDecimal(Double.toString(3.0)), 2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    @Benchmark
+    public double add() {
+        return Arith.add(next(), next(), next());
+    }
+
+    @Benchmark
+    public double addBigDecimal() {
+        return new BigDecimal(Double.toString(next()))
+                .add(new BigDecimal(Double.toString(next())))
+                .add(new BigDecimal(Double.toString(next()))).doubleValue();
+    }
+
+    @Benchmark
+    public int compareTo() {
+        return Arith.compareTo(next(), next());
+    }
+
+    @Benchmark
+    public int compareToBigDecimal() {
+        return new BigDecimal(Double.toString(next())).compareTo(new BigDecimal(Double.toString(next())));
+    }
+}
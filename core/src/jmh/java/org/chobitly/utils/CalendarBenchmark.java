@@ -0,0 +1,49 @@
+package org.chobitly.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 农历和节气查表的耗时，以及每分钟刷新时直接使用缓存文字的耗时。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CalendarBenchmark {
+
+    private static final long MINUTE = 60 * 1000L;
+
+    private int day;
+    private long time;
+    private LunarDateCache lunarDate;
+
+    @Setup
+    public void setUp() {
+        time = 1420433580000L;
+        lunarDate = new LunarDateCache();
+    }
+
+    @Benchmark
+    public int toLunar() {
+        // 2015年内逐日转换
+        day = (day + 1) % 365;
+        return LunarCalendar.toLunar(2015, 1 + day / 31 % 12, 1 + day % 28);
+    }
+
+    @Benchmark
+    public int termIndex() {
+        return SolarTerms.getTermIndex(time += MINUTE);
+    }
+
+    @Benchmark
+    public String cachedLabel() {
+        return lunarDate.getLabel(time += MINUTE);
+    }
+}
@@ -0,0 +1,83 @@
+package org.chobitly.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较各种月相模型计算一次月亮角度的耗时。每次调用时间前进一分钟，与小部件每分钟刷新一次的情况相同。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class MoonPhaseBenchmark {
+
+    private static final long MINUTE = 60 * 1000L;
+
+    private long time;
+    private MoonPhaseCache cache;
+    private LunationEngine engine;
+    private LunationTable table;
+
+    @Setup
+    public void setUp() throws IOException {
+        time = 1420433580000L;// 2015-01-05 04:53（世界时）
+        cache = new MoonPhaseCache();
+        engine = new LunationEngine();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // 1900~2100年
+        LunationTable.write(out, -4 * 1237, 4 * 2487);
+        table = new LunationTable(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    private long nextTime() {
+        return time += MINUTE;
+    }
+
+    /**
+     * 最初的实现：每次解析基准日期，用BigDecimal做除法和取整
+     */
+    @Benchmark
+    public float legacy() throws ParseException {
+        Date base = new SimpleDateFormat("yyyy-MM-dd hh:mm", Locale.UK).parse("2015-01-05 04:53");
+        BigDecimal quotient = new BigDecimal(Double.toString(nextTime() - base.getTime()))
+                .divide(new BigDecimal(Double.toString(42524050)), 2, BigDecimal.ROUND_HALF_UP);
+        double count = new BigDecimal(Double.toString(quotient.doubleValue()))
+                .divide(new BigDecimal("1"), 0, BigDecimal.ROUND_HALF_UP).doubleValue();
+        return 3 * (((int) count) % 60);
+    }
+
+    @Benchmark
+    public int simple() {
+        return MoonPhase.getDegree(nextTime());
+    }
+
+    @Benchmark
+    public int cached() {
+        return cache.getDegree(nextTime());
+    }
+
+    @Benchmark
+    public int engine() {
+        return engine.getDegree(nextTime());
+    }
+
+    @Benchmark
+    public int table() {
+        return table.getDegree(nextTime());
+    }
+}
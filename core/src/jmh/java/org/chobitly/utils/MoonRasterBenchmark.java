@@ -0,0 +1,68 @@
+package org.chobitly.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 旋转并裁剪一张与xxhdpi月亮图片同样大小的图片，比较单线程与按行分段并行的耗时。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class MoonRasterBenchmark {
+
+    @Param({"300", "900"})
+    public int size;
+
+    private int[] src;
+    private int[] dst;
+    private float degree;
+    private int threads;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        // 不透明的圆盘，圆外透明，与月亮图片的透明度分布相同
+        src = new int[size * size];
+        double radius = size * 0.3;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                double dx = x + 0.5 - size / 2.0;
+                double dy = y + 0.5 - size / 2.0;
+                src[y * size + x] = dx * dx + dy * dy < radius * radius
+                        ? 0xff000000 | (x * 255 / size) << 16 | y * 255 / size : 0;
+            }
+        }
+        dst = new int[size * size];
+        threads = Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int[] sequential() {
+        MoonRaster.rotateRound(src, size, size, degree += 3, dst, size);
+        return dst;
+    }
+
+    @Benchmark
+    public int[] parallel() throws InterruptedException {
+        MoonRaster.rotateRound(src, size, size, degree += 3, dst, size, executor, threads);
+        return dst;
+    }
+}
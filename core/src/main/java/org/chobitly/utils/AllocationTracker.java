@@ -0,0 +1,266 @@
+package org.chobitly.utils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 记录需要手动释放的对象（如Android上的Bitmap）的分配、放回池中和释放，用于发现内存泄漏。
+ * <p/>
+ * 每个对象记录大小、分配它的调用位置和当前状态：使用中、已放回池中。释放后不再记录。
+ * 对象只被弱引用，使用中的对象没有释放就被GC回收时记为泄漏。
+ * 默认不记录，{@link #setEnabled(boolean)}之后才开始，记录调用位置需要获取调用栈，只适合在调试时打开。
+ *
+ * @param <T> 对象的类型
+ */
+public class AllocationTracker<T> {
+
+    /**
+     * 最多保留多少条泄漏的详情，次数和字节数不受限制
+     */
+    public static final int MAX_LEAK_DETAILS = 32;
+
+    private static final int STATE_LIVE = 0;
+    private static final int STATE_POOLED = 1;
+
+    private final HashSet<String> skippedClasses;
+    private final ReferenceQueue<T> queue = new ReferenceQueue<T>();
+    private final ArrayList<Record<T>> records = new ArrayList<Record<T>>();
+    private final ArrayList<String> leaks = new ArrayList<String>();
+    private int leakCount;
+    private long leakedBytes;
+    private volatile boolean enabled;
+
+    /**
+     * @param skippedClasses 记录调用位置时跳过的类名，如对象池本身，记录的是调用对象池的地方
+     */
+    public AllocationTracker(String... skippedClasses) {
+        this.skippedClasses = new HashSet<String>(Arrays.asList(skippedClasses));
+        this.skippedClasses.add(AllocationTracker.class.getName());
+    }
+
+    /**
+     * @param enabled 是否记录，关闭时清空所有记录
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            reset();
+        }
+    }
+
+    /**
+     * @return 是否正在记录
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 对象被分配出去使用，包括新建的对象和从池中取出的对象
+     *
+     * @param object      对象
+     * @param bytes       占用的字节数
+     * @param description 描述，如尺寸和格式
+     */
+    public synchronized void allocated(T object, long bytes, String description) {
+        if (!enabled) {
+            return;
+        }
+        expunge();
+        Record<T> record = find(object);
+        if (record == null) {
+            record = new Record<T>(object, queue);
+            records.add(record);
+        }
+        record.bytes = bytes;
+        record.description = description;
+        record.site = getCallSite();
+        record.state = STATE_LIVE;
+    }
+
+    /**
+     * 对象被放回池中，不再算作使用中
+     *
+     * @param object 对象
+     */
+    public synchronized void released(T object) {
+        if (!enabled) {
+            return;
+        }
+        Record<T> record = find(object);
+        if (record != null) {
+            record.state = STATE_POOLED;
+        }
+    }
+
+    /**
+     * 对象已经释放，不再记录
+     *
+     * @param object 对象
+     */
+    public synchronized void freed(T object) {
+        if (!enabled) {
+            return;
+        }
+        Record<T> record = find(object);
+        if (record != null) {
+            records.remove(record);
+            record.clear();
+        }
+    }
+
+    /**
+     * @return 使用中的对象的字节数
+     */
+    public synchronized long getLiveBytes() {
+        return sum(STATE_LIVE, true);
+    }
+
+    /**
+     * @return 使用中的对象个数
+     */
+    public synchronized int getLiveCount() {
+        return (int) sum(STATE_LIVE, false);
+    }
+
+    /**
+     * @return 池中的对象的字节数
+     */
+    public synchronized long getPooledBytes() {
+        return sum(STATE_POOLED, true);
+    }
+
+    /**
+     * @return 没有释放也没有放回池中就被GC回收的对象个数
+     */
+    public synchronized int getLeakCount() {
+        expunge();
+        return leakCount;
+    }
+
+    /**
+     * @return 泄漏的对象的总字节数
+     */
+    public synchronized long getLeakedBytes() {
+        expunge();
+        return leakedBytes;
+    }
+
+    /**
+     * 生成报告：统计信息、按调用位置汇总的使用中的对象、最近的泄漏。
+     * 调用前先System.gc()可以发现更多已经不可达的对象。
+     *
+     * @return 多行文字
+     */
+    public synchronized String getReport() {
+        expunge();
+        StringBuilder report = new StringBuilder();
+        report.append("live=").append(getLiveCount()).append(" (").append(getLiveBytes()).append(" bytes)")
+                .append(", pooled=").append(getPooledBytes()).append(" bytes")
+                .append(", leaked=").append(leakCount).append(" (").append(leakedBytes).append(" bytes)");
+        // 同一个位置分配的同样的对象合并为一行
+        Map<String, long[]> live = new LinkedHashMap<String, long[]>();
+        for (Record<T> record : records) {
+            if (record.state != STATE_LIVE) {
+                continue;
+            }
+            String key = record.description + " at " + record.site;
+            long[] total = live.get(key);
+            if (total == null) {
+                total = new long[2];
+                live.put(key, total);
+            }
+            total[0]++;
+            total[1] += record.bytes;
+        }
+        for (Map.Entry<String, long[]> entry : live.entrySet()) {
+            report.append("\n  live ").append(entry.getValue()[0]).append(" x ").append(entry.getKey())
+                    .append(", ").append(entry.getValue()[1]).append(" bytes");
+        }
+        for (String leak : leaks) {
+            report.append("\n  leaked ").append(leak);
+        }
+        return report.toString();
+    }
+
+    /**
+     * 清空所有记录和泄漏统计
+     */
+    public synchronized void reset() {
+        for (Record<T> record : records) {
+            record.clear();
+        }
+        records.clear();
+        leaks.clear();
+        leakCount = 0;
+        leakedBytes = 0;
+        while (queue.poll() != null) {
+            // 丢弃
+        }
+    }
+
+    // 处理已经被GC回收的对象，使用中的记为泄漏
+    private void expunge() {
+        Reference<? extends T> reference;
+        while ((reference = queue.poll()) != null) {
+            Record<?> record = (Record<?>) reference;
+            if (!records.remove(record) || record.state != STATE_LIVE) {
+                continue;
+            }
+            leakCount++;
+            leakedBytes += record.bytes;
+            if (leaks.size() >= MAX_LEAK_DETAILS) {
+                leaks.remove(0);
+            }
+            leaks.add(record.description + " at " + record.site + ", " + record.bytes + " bytes");
+        }
+    }
+
+    private Record<T> find(T object) {
+        for (Record<T> record : records) {
+            if (record.get() == object) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    private long sum(int state, boolean bytes) {
+        // 已经被GC回收的对象不再计入
+        expunge();
+        long sum = 0;
+        for (Record<T> record : records) {
+            if (record.state == state) {
+                sum += bytes ? record.bytes : 1;
+            }
+        }
+        return sum;
+    }
+
+    // 调用栈中第一个不属于跳过的类的位置
+    private String getCallSite() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (!skippedClasses.contains(element.getClassName())) {
+                return element.toString();
+            }
+        }
+        return "unknown";
+    }
+
+    private static final class Record<T> extends WeakReference<T> {
+        long bytes;
+        String description;
+        String site;
+        int state;
+
+        Record(T referent, ReferenceQueue<? super T> queue) {
+            super(referent, queue);
+        }
+    }
+}
@@ -0,0 +1,668 @@
+package org.chobitly.utils;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * <pre>
+ *   由于Java的简单类型不能够精确的对浮点数进行运算，这个工具类提供精   
+ *   确的浮点数运算，包括加减乘除和四舍五入。
+ * </pre>
+ * 
+ * @see http://704378737-qq-com.iteye.com/blog/1070562
+ */
+public class Arith {
+	// 默认除法和取整等运算的精度
+	public static final int DEF_SCALE = 2;// 金额计算，2位精度即可
+
+	// 10的0~22次方，都能用double精确表示
+	private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+			1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	// 10的0~18次方
+	private static final long[] LONG_POW10 = {1L, 10L, 100L, 1000L, 10000L, 100000L,
+			1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L, 100000000000L,
+			1000000000000L, 10000000000000L, 100000000000000L, 1000000000000000L,
+			10000000000000000L, 100000000000000000L, 1000000000000000000L};
+	// 绝对值小于2^52的整数除以10的幂时，double的除法与BigDecimal.doubleValue()的结果完全相同
+	private static final double TWO_52 = 4503599627370496.0;
+	private static final long LONG_TWO_52 = 1L << 52;
+	// 快速计算中间结果的上限，保证两个这样的数相加不会溢出
+	private static final long LONG_TWO_62 = 1L << 62;
+
+	// 这个类不能实例化
+	private Arith() {
+	}
+
+	/**
+	 * 提供精确的比较运算。
+	 * 
+	 * @param v1
+	 * @param v2
+	 * 
+	 * @return 两个参数是否相等
+	 */
+	public static boolean equals(double v1, double v2) {
+		if (isFinite(v1) && isFinite(v2)) {
+			// 相等的double转成的十进制数也相等（0.0与-0.0转成的BigDecimal也相等）
+			return v1 == v2;
+		}
+		BigDecimal b1 = new BigDecimal(Double.toString(v1));
+		BigDecimal b2 = new BigDecimal(Double.toString(v2));
+		return b1.equals(b2);
+	}
+
+	/**
+	 * 提供精确的比较运算。
+	 * 
+	 * @param v1
+	 * @param v2
+	 * @param scale
+	 *            指定精度
+	 * 
+	 * @return 两个参数是否在指定精度下可认为相等
+	 */
+	public static boolean equals(double v1, double v2, int scale) {
+		// 取整的结果一定是有限的数，且不会是-0.0
+		return round(v1, scale) == round(v2, scale);
+	}
+
+	/**
+	 * 提供精确的比较运算。
+	 * 
+	 * @param v1
+	 * @param v2
+	 * 
+	 * @return 两个参数的比较结果
+	 */
+	public static int compareTo(double v1, double v2) {
+		if (isFinite(v1) && isFinite(v2)) {
+			// 转成十进制数不改变大小关系
+			return v1 < v2 ? -1 : (v1 > v2 ? 1 : 0);
+		}
+		BigDecimal b1 = new BigDecimal(Double.toString(v1));
+		BigDecimal b2 = new BigDecimal(Double.toString(v2));
+		return b1.compareTo(b2);
+	}
+
+	/**
+	 * 提供精确的加法运算。
+	 * 
+	 * @param v1
+	 *            被加数
+	 * @param v2
+	 *            加数
+	 * 
+	 * @return 两个参数的和
+	 */
+	public static double add(double v1, double v2) {
+		double sum = fastAdd(v1, v2);
+		if (!Double.isNaN(sum)) {
+			return sum;
+		}
+		BigDecimal b1 = new BigDecimal(Double.toString(v1));
+		BigDecimal b2 = new BigDecimal(Double.toString(v2));
+		return b1.add(b2).doubleValue();
+	}
+
+	/**
+	 * 提供精确的加法运算。
+	 * 
+	 * @param v1
+	 *            被加数
+	 * @param v2
+	 *            加数
+	 * 
+	 * @return 两个参数的和
+	 */
+	public static double add(double... values) {
+		if (values.length < 2) {
+			throw new IllegalArgumentException(
+					"The add operation need at least two argments");
+		}
+		double sum = fastAdd(values);
+		if (!Double.isNaN(sum)) {
+			return sum;
+		}
+		BigDecimal returnValue = new BigDecimal(Double.toString(values[0]));
+		for (int i = 1; i < values.length; ++i) {
+			returnValue = returnValue.add(new BigDecimal(Double
+					.toString(values[i])));
+		}
+		return returnValue.doubleValue();
+	}
+
+	/**
+	 * 提供精确的减法运算。
+	 * 
+	 * @param v1
+	 *            被减数
+	 * 
+	 * @param v2
+	 *            减数
+	 * @return 两个参数的差
+	 */
+	public static double sub(double v1, double v2) {
+		// 取负数不改变十进制表示的位数
+		double difference = fastAdd(v1, -v2);
+		if (!Double.isNaN(difference)) {
+			return difference;
+		}
+		BigDecimal b1 = new BigDecimal(Double.toString(v1));
+		BigDecimal b2 = new BigDecimal(Double.toString(v2));
+		return b1.subtract(b2).doubleValue();
+	}
+
+	/**
+	 * 提供精确的乘法运算。
+	 * 
+	 * @param v1
+	 *            被乘数
+	 * @param v2
+	 *            乘数
+	 * 
+	 * @return 两个参数的积
+	 */
+	public static double mul(double v1, double v2) {
+		double product = fastMul(v1, v2);
+		if (!Double.isNaN(product)) {
+			return product;
+		}
+		BigDecimal b1 = new BigDecimal(Double.toString(v1));
+		BigDecimal b2 = new BigDecimal(Double.toString(v2));
+		return b1.multiply(b2).doubleValue();
+	}
+
+	/**
+	 * 提供（相对）精确的除法运算，当发生除不尽的情况时，精确到小数点以后10位，以后的数字四舍五入。
+	 * 
+	 * @param v1
+	 *            被除数
+	 * @param v2
+	 *            除数
+	 * @return 两个参数的商
+	 */
+	public static double div(double v1, double v2) {
+		return div(v1, v2, DEF_SCALE);
+	}
+
+	/**
+	 * 提供（相对）精确的除法运算。当发生除不尽的情况时，由scale参数指定精度，以后的数字四舍五入。
+	 * 
+	 * @param v1
+	 *            被除数
+	 * @param v2
+	 *            除数
+	 * @param scale
+	 *            表示表示需要精确到小数点以后几位。
+	 * @return 两个参数的商
+	 */
+	public static double div(double v1, double v2, int scale) {
+		return div(v1, v2, scale, RoundingMode.HALF_UP);
+	}
+
+	/**
+	 * 提供（相对）精确的除法运算。当发生除不尽的情况时，由scale参数指定精度，默认精确到小数点后两位，由roundingMode指定取整模式。
+	 * 
+	 * @param v1
+	 *            被除数
+	 * @param v2
+	 *            除数
+	 * @param roundingMode
+	 *            取整模式，参见{@link java.math.RoundingMode}
+	 * @return 两个参数的商
+	 */
+	public static double div(double v1, double v2, RoundingMode roundingMode) {
+		return div(v1, v2, DEF_SCALE, roundingMode);
+	}
+
+	/**
+	 * 提供（相对）精确的除法运算。当发生除不尽的情况时，由scale参数指定精度，由roundingMode指定取整模式。
+	 * 
+	 * @param v1
+	 *            被除数
+	 * @param v2
+	 *            除数
+	 * @param scale
+	 *            表示表示需要精确到小数点以后几位。
+	 * @param roundingMode
+	 *            取整模式，参见{@link java.math.RoundingMode}
+	 * @return 两个参数的商
+	 */
+	public static double div(double v1, double v2, int scale,
+			RoundingMode roundingMode) {
+		if (scale < 0) {
+			throw new IllegalArgumentException(
+					"The scale must be a positive integer or zero");
+		}
+		double quotient = fastDiv(v1, v2, scale, roundingMode);
+		if (!Double.isNaN(quotient)) {
+			return quotient;
+		}
+		BigDecimal b1 = new BigDecimal(Double.toString(v1));
+		BigDecimal b2 = new BigDecimal(Double.toString(v2));
+		return b1.divide(b2, scale, roundingMode.ordinal()).doubleValue();
+	}
+
+	/**
+	 * 提供按有效数字计算的除法运算，由mc指定有效数字的位数和取整模式。
+	 * 
+	 * @param v1
+	 *            被除数
+	 * @param v2
+	 *            除数
+	 * @param mc
+	 *            有效数字的位数和取整模式，参见{@link java.math.MathContext}
+	 * @return 两个参数的商
+	 */
+	public static double div(double v1, double v2, MathContext mc) {
+		BigDecimal b1 = new BigDecimal(Double.toString(v1));
+		BigDecimal b2 = new BigDecimal(Double.toString(v2));
+		return b1.divide(b2, mc).doubleValue();
+	}
+
+	/**
+	 * <pre>
+	 * 
+	 * 提供精确的小数位四舍五入处理，默认保留小数点后两位。       
+	 *  
+	 * @param v 需要四舍五入的数字       
+	 * @return 四舍五入后的结果
+	 * </pre>
+	 */
+	public static double round(double v) {
+		return round(v, DEF_SCALE);
+	}
+
+	/**
+	 * <pre>
+	 * 
+	 * 提供精确的小数位四舍五入处理。       
+	 *  
+	 * @param v 需要四舍五入的数字       
+	 * @param scale 小数点后保留几位       
+	 * @return 四舍五入后的结果
+	 * </pre>
+	 */
+	public static double round(double v, int scale) {
+		if (scale < 0) {
+			throw new IllegalArgumentException(
+					"The scale must be a positive integer or zero");
+		}
+		double result = fastScale(v, scale, RoundingMode.HALF_UP);
+		if (!Double.isNaN(result)) {
+			return result;
+		}
+		BigDecimal b = new BigDecimal(Double.toString(v));
+		return b.divide(BigDecimal.ONE, scale, BigDecimal.ROUND_HALF_UP).doubleValue();
+	}
+
+	/**
+	 * <pre>
+	 * 
+	 * 提供按有效数字的取整处理。
+	 *  
+	 * @param v 需要取整的数字
+	 * @param mc 有效数字的位数和取整模式，参见{@link java.math.MathContext}
+	 * @return 取整后的结果
+	 * </pre>
+	 */
+	public static double round(double v, MathContext mc) {
+		double result = fastRound(v, mc);
+		if (!Double.isNaN(result)) {
+			return result;
+		}
+		BigDecimal b = new BigDecimal(Double.toString(v));
+		return b.round(mc).doubleValue();
+	}
+
+	/**
+	 * <pre>
+	 * 
+	 * 提供精确的小数位向上取整处理，默认保留小数点后两位。       
+	 *  
+	 * @param v 需要向上取整的数字       
+	 * @return 向上取整后的结果
+	 * </pre>
+	 */
+	public static double ceil(double v) {
+		return ceil(v, DEF_SCALE);
+	}
+
+	/**
+	 * <pre>
+	 * 
+	 * 提供精确的小数位向上取整处理。       
+	 *  
+	 * @param v 需要向上取整的数字       
+	 * @param scale 小数点后保留几位       
+	 * @return 向上取整后的结果
+	 * </pre>
+	 */
+	public static double ceil(double v, int scale) {
+		if (scale < 0) {
+			throw new IllegalArgumentException(
+					"The scale must be a positive integer or zero");
+		}
+		double result = fastScale(v, scale, RoundingMode.CEILING);
+		if (!Double.isNaN(result)) {
+			return result;
+		}
+		BigDecimal b = new BigDecimal(Double.toString(v));
+		return b.divide(BigDecimal.ONE, scale, BigDecimal.ROUND_CEILING).doubleValue();
+	}
+
+	/**
+	 * <pre>
+	 * 
+	 * 提供精确的小数位向下取整处理，默认保留小数点后两位。       
+	 *  
+	 * @param v 需要向下取整的数字       
+	 * @return 向下取整后的结果
+	 * </pre>
+	 */
+	public static double floor(double v) {
+		return floor(v, DEF_SCALE);
+	}
+
+	/**
+	 * <pre>
+	 * 
+	 * 提供精确的小数位向下取整处理。       
+	 *  
+	 * @param v 需要向下取整的数字       
+	 * @param scale 小数点后保留几位       
+	 * @return 向下取整后的结果
+	 * </pre>
+	 */
+	public static double floor(double v, int scale) {
+		if (scale < 0) {
+			throw new IllegalArgumentException(
+					"The scale must be a positive integer or zero");
+		}
+		double result = fastScale(v, scale, RoundingMode.FLOOR);
+		if (!Double.isNaN(result)) {
+			return result;
+		}
+		BigDecimal b = new BigDecimal(Double.toString(v));
+		return b.divide(BigDecimal.ONE, scale, BigDecimal.ROUND_FLOOR).doubleValue();
+	}
+
+	/**
+	 * <pre>
+	 * 
+	 * 提供精确的小数位向绝对值大的方向取整的处理，默认保留小数点后两位。       
+	 *  
+	 * @param v 需要向绝对值大的方向取整的数字       
+	 * @return 向绝对值大的方向取整后的结果
+	 * </pre>
+	 */
+	public static double roundUp(double v) {
+		return roundUp(v, DEF_SCALE);
+	}
+
+	/**
+	 * <pre>
+	 * 
+	 * 提供精确的小数位向绝对值大的方向取整的处理。       
+	 *  
+	 * @param v 需要向绝对值大的方向取整的数字       
+	 * @param scale 小数点后保留几位       
+	 * @return 向绝对值大的方向取整后的结果
+	 * </pre>
+	 */
+	public static double roundUp(double v, int scale) {
+		if (scale < 0) {
+			throw new IllegalArgumentException(
+					"The scale must be a positive integer or zero");
+		}
+		double result = fastScale(v, scale, RoundingMode.UP);
+		if (!Double.isNaN(result)) {
+			return result;
+		}
+		BigDecimal b = new BigDecimal(Double.toString(v));
+		return b.divide(BigDecimal.ONE, scale, BigDecimal.ROUND_UP).doubleValue();
+	}
+
+	/**
+	 * <pre>
+	 * 
+	 * 提供精确的小数位向0的方向取整处理，默认保留小数点后两位。       
+	 *  
+	 * @param v 需要向0的方向取整的数字       
+	 * @return 向0的方向取整后的结果
+	 * </pre>
+	 */
+	public static double roundDown(double v) {
+		return roundDown(v, DEF_SCALE);
+	}
+
+	/**
+	 * <pre>
+	 * 
+	 * 提供精确的小数位向0的方向取整处理。       
+	 *  
+	 * @param v 需要向0的方向取整的数字       
+	 * @param scale 小数点后保留几位       
+	 * @return 向0的方向取整后的结果
+	 * </pre>
+	 */
+	public static double roundDown(double v, int scale) {
+		if (scale < 0) {
+			throw new IllegalArgumentException(
+					"The scale must be a positive integer or zero");
+		}
+		double result = fastScale(v, scale, RoundingMode.DOWN);
+		if (!Double.isNaN(result)) {
+			return result;
+		}
+		BigDecimal b = new BigDecimal(Double.toString(v));
+		return b.divide(BigDecimal.ONE, scale, BigDecimal.ROUND_DOWN).doubleValue();
+	}
+
+	// 以下为不经过BigDecimal的快速计算，只处理能用long精确计算的情况，不能处理时返回NaN
+
+	private static boolean isFinite(double v) {
+		return Math.abs(v) <= Double.MAX_VALUE;
+	}
+
+	/**
+	 * 求Double.toString(v)的小数位数。v的十进制表示可以写成unscaled / 10^k时，
+	 * unscaled / 10^k正好是舍入到v的十进制数中最短的一个，因此与Double.toString(v)的值相同。
+	 * 
+	 * @return 小数位数k，|v * 10^k|不小于2^52（或v不是有限的数）时返回-1
+	 */
+	private static int decimalScale(double v) {
+		for (int k = 0; k < POW10.length; k++) {
+			double x = v * POW10[k];
+			if (!(Math.abs(x) < TWO_52)) {
+				return -1;
+			}
+			if (Math.rint(x) / POW10[k] == v) {
+				return k;
+			}
+		}
+		return -1;
+	}
+
+	private static long unscaled(double v, int scale) {
+		return (long) Math.rint(v * POW10[scale]);
+	}
+
+	// value * 10^n是否不超过2^62
+	private static boolean canScale(long value, int n) {
+		return n < LONG_POW10.length && Math.abs(value) <= LONG_TWO_62 / LONG_POW10[n];
+	}
+
+	// 与new BigDecimal(BigInteger.valueOf(unscaled), scale).doubleValue()相同
+	private static double toDouble(long unscaled, int scale) {
+		if (scale >= POW10.length || Math.abs(unscaled) >= LONG_TWO_52) {
+			return Double.NaN;
+		}
+		// 加0.0把-0.0变成0.0，与BigDecimal一致
+		return unscaled / POW10[scale] + 0.0;
+	}
+
+	private static double fastAdd(double v1, double v2) {
+		int k1 = decimalScale(v1);
+		int k2 = decimalScale(v2);
+		if (k1 < 0 || k2 < 0) {
+			return Double.NaN;
+		}
+		int scale = Math.max(k1, k2);
+		long a1 = unscaled(v1, k1);
+		long a2 = unscaled(v2, k2);
+		if (!canScale(a1, scale - k1) || !canScale(a2, scale - k2)) {
+			return Double.NaN;
+		}
+		return toDouble(a1 * LONG_POW10[scale - k1] + a2 * LONG_POW10[scale - k2], scale);
+	}
+
+	private static double fastAdd(double... values) {
+		long sum = 0;
+		int scale = 0;
+		for (double v : values) {
+			int k = decimalScale(v);
+			if (k < 0) {
+				return Double.NaN;
+			}
+			long a = unscaled(v, k);
+			if (k > scale) {
+				// 小数位数变多，之前的和也要扩大
+				if (!canScale(sum, k - scale)) {
+					return Double.NaN;
+				}
+				sum *= LONG_POW10[k - scale];
+				scale = k;
+			}
+			if (!canScale(a, scale - k)) {
+				return Double.NaN;
+			}
+			sum += a * LONG_POW10[scale - k];
+			if (Math.abs(sum) > LONG_TWO_62) {
+				return Double.NaN;
+			}
+		}
+		return toDouble(sum, scale);
+	}
+
+	private static double fastMul(double v1, double v2) {
+		int k1 = decimalScale(v1);
+		int k2 = decimalScale(v2);
+		if (k1 < 0 || k2 < 0) {
+			return Double.NaN;
+		}
+		long a1 = unscaled(v1, k1);
+		long a2 = unscaled(v2, k2);
+		if (a2 != 0 && Math.abs(a1) > LONG_TWO_62 / Math.abs(a2)) {
+			return Double.NaN;
+		}
+		return toDouble(a1 * a2, k1 + k2);
+	}
+
+	private static double fastDiv(double v1, double v2, int scale, RoundingMode roundingMode) {
+		if (roundingMode == RoundingMode.UNNECESSARY) {
+			return Double.NaN;
+		}
+		int k1 = decimalScale(v1);
+		int k2 = decimalScale(v2);
+		if (k1 < 0 || k2 < 0) {
+			return Double.NaN;
+		}
+		long a1 = unscaled(v1, k1);
+		long a2 = unscaled(v2, k2);
+		// v1 / v2 = (a1 * 10^(k2 + scale)) / (a2 * 10^k1) / 10^scale
+		if (a2 == 0 || !canScale(a1, k2 + scale) || !canScale(a2, k1)) {
+			return Double.NaN;
+		}
+		return toDouble(divideAndRound(a1 * LONG_POW10[k2 + scale], a2 * LONG_POW10[k1], roundingMode), scale);
+	}
+
+	private static double fastScale(double v, int scale, RoundingMode roundingMode) {
+		int k = decimalScale(v);
+		if (k < 0) {
+			return Double.NaN;
+		}
+		if (k <= scale) {
+			// 小数位数没有超过scale，取整不改变数值
+			return v + 0.0;
+		}
+		if (k - scale >= LONG_POW10.length) {
+			return Double.NaN;
+		}
+		return toDouble(divideAndRound(unscaled(v, k), LONG_POW10[k - scale], roundingMode), scale);
+	}
+
+	// 按有效数字取整，去掉unscaled末尾多出的位数
+	private static double fastRound(double v, MathContext mc) {
+		if (mc.getRoundingMode() == RoundingMode.UNNECESSARY) {
+			return Double.NaN;
+		}
+		int k = decimalScale(v);
+		if (k < 0) {
+			return Double.NaN;
+		}
+		long a = unscaled(v, k);
+		int digits = 1;
+		while (digits < LONG_POW10.length && Math.abs(a) >= LONG_POW10[digits]) {
+			digits++;
+		}
+		int drop = digits - mc.getPrecision();
+		if (mc.getPrecision() == 0 || drop <= 0) {
+			// 有效数字没有超过精度，取整不改变数值
+			return v + 0.0;
+		}
+		long rounded = divideAndRound(a, LONG_POW10[drop], mc.getRoundingMode());
+		if (drop <= k) {
+			return toDouble(rounded, k - drop);
+		}
+		// 取整到个位以上，如1234按两位有效数字取整为1200
+		if (!canScale(rounded, drop - k)) {
+			return Double.NaN;
+		}
+		return toDouble(rounded * LONG_POW10[drop - k], 0);
+	}
+
+	// 整数除法，按roundingMode取整，不支持RoundingMode.UNNECESSARY
+	private static long divideAndRound(long dividend, long divisor, RoundingMode roundingMode) {
+		if (divisor < 0) {
+			dividend = -dividend;
+			divisor = -divisor;
+		}
+		long quotient = dividend / divisor;
+		long remainder = Math.abs(dividend % divisor);
+		if (remainder == 0) {
+			return quotient;
+		}
+		int sign = dividend < 0 ? -1 : 1;
+		boolean increment;
+		switch (roundingMode) {
+			case UP:
+				increment = true;
+				break;
+			case DOWN:
+				increment = false;
+				break;
+			case CEILING:
+				increment = sign > 0;
+				break;
+			case FLOOR:
+				increment = sign < 0;
+				break;
+			default:
+				// 余数与除数的一半比较，写成减法避免溢出
+				long half = remainder - (divisor - remainder);
+				if (half != 0) {
+					increment = half > 0;
+				} else if (roundingMode == RoundingMode.HALF_UP) {
+					increment = true;
+				} else if (roundingMode == RoundingMode.HALF_DOWN) {
+					increment = false;
+				} else {
+					increment = (quotient & 1) != 0;
+				}
+				break;
+		}
+		return increment ? quotient + sign : quotient;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+package org.chobitly.utils;
+
+/**
+ * 公历日期与农历日期的转换，支持1900-01-31（农历1900年正月初一）至2100-12-31。
+ * <p/>
+ * 每个农历年用一个int表示：
+ * <pre>
+ *   第0~12位   该年第1~13个月（含闰月，按先后顺序）是否为大月（30天）
+ *   第13~16位  闰几月，0表示没有闰月，闰月紧跟在同名的月份之后
+ *   第17~22位  正月初一距公历1月1日的天数
+ * </pre>
+ * 转换不需要创建任何对象，结果也打包成一个int，见{@link #toLunar(int, int, int)}。
+ * 表格由{@link LunarCalendarGenerator}统一按东八区推算生成，与香港天文台的农历一致；
+ * 1929年以前的部分月份与按北京地方时编制的旧历表可能相差一天。
+ */
+public class LunarCalendar {
+
+    public static final int MIN_YEAR = 1900;
+    public static final int MAX_YEAR = 2100;
+
+    private static final String[] MONTH_NAMES = {
+            "正", "二", "三", "四", "五", "六", "七", "八", "九", "十", "冬", "腊"};
+    private static final String[] DAY_PREFIXES = {"初", "十", "廿", "三"};
+    private static final String[] DIGITS = {"十", "一", "二", "三", "四", "五", "六", "七", "八", "九"};
+
+    private static final int[] YEAR_INFO = {
+            0x3d16d2, 0x620752, 0x4c0ea5, 0x38b64a, 0x5c064b, 0x440a9b, 0x309556, 0x56056a, // 1900
+            0x400b59, 0x2a5752, 0x500752, 0x3adb25, 0x600b25, 0x480a4b, 0x32b2ab, 0x580aad, // 1908
+            0x44056a, 0x2c4b69, 0x520da9, 0x3efd92, 0x640d92, 0x4c0d25, 0x36ba4d, 0x5c0a56, // 1916
+            0x4602b6, 0x2e95b5, 0x5606d4, 0x400ea9, 0x2c5e92, 0x500e92, 0x3acd26, 0x5e052b, // 1924
+            0x480a57, 0x32b2b6, 0x580b5a, 0x4406d4, 0x2e6ec9, 0x520749, 0x3cf693, 0x620a93, // 1932
+            0x4c052b, 0x34ca5b, 0x5a0aad, 0x46056a, 0x309b55, 0x560ba4, 0x400b49, 0x2a5a93, // 1940
+            0x500a95, 0x38f52d, 0x5e0536, 0x480aad, 0x34b5aa, 0x5805b2, 0x420da5, 0x2e7d4a, // 1948
+            0x540d4a, 0x3d0a95, 0x600a97, 0x4c0556, 0x36cab5, 0x5a0ad5, 0x4606d2, 0x308ea5, // 1956
+            0x560ea5, 0x40064a, 0x286c97, 0x4e0a9b, 0x3af55a, 0x5e056a, 0x480b69, 0x34b752, // 1964
+            0x5a0b52, 0x420b25, 0x2c964b, 0x520a4b, 0x3d14ab, 0x6002ad, 0x4a056d, 0x36cb69, // 1972
+            0x5c0da9, 0x460d92, 0x309d25, 0x560d25, 0x415a4d, 0x640a56, 0x4e02b6, 0x38c5b5, // 1980
+            0x5e06d5, 0x480ea9, 0x34be92, 0x5a0e92, 0x440d26, 0x2c6a56, 0x500a57, 0x3d14d6, // 1988
+            0x62035a, 0x4a06d5, 0x36b6c9, 0x5c0749, 0x460693, 0x2e952b, 0x54052b, 0x3e0a5b, // 1996
+            0x2a555a, 0x4e056a, 0x38fb55, 0x600ba4, 0x4a0b49, 0x32ba93, 0x580a95, 0x42052d, // 2004
+            0x2c8aad, 0x500ab5, 0x3d35aa, 0x6205d2, 0x4c0da5, 0x36dd4a, 0x5c0d4a, 0x460c95, // 2012
+            0x30952e, 0x540556, 0x3e0ab5, 0x2a55b2, 0x5006d2, 0x38cea5, 0x5e0725, 0x48064b, // 2020
+            0x32ac97, 0x560cab, 0x42055a, 0x2c6ad6, 0x520b69, 0x3d7752, 0x620b52, 0x4c0b25, // 2028
+            0x36da4b, 0x5a0a4b, 0x4404ab, 0x2ea55b, 0x5405ad, 0x3e0b6a, 0x2a5b52, 0x500d92, // 2036
+            0x3afd25, 0x5e0d25, 0x480a55, 0x32b4ad, 0x5804b6, 0x4005b5, 0x2c6daa, 0x520ec9, // 2044
+            0x3f1e92, 0x620e92, 0x4c0d26, 0x36ca56, 0x5a0a57, 0x440556, 0x2e86d5, 0x540755, // 2052
+            0x400749, 0x286e93, 0x4e0693, 0x38f52b, 0x5e052b, 0x460a5b, 0x32b55a, 0x58056a, // 2060
+            0x420b65, 0x2c974a, 0x520b4a, 0x3d1a95, 0x620a95, 0x4a052d, 0x34caad, 0x5a0ab5, // 2068
+            0x4605aa, 0x2e8ba5, 0x540da5, 0x400d4a, 0x2a7c95, 0x4e0c96, 0x38f94e, 0x5e0556, // 2076
+            0x480ab5, 0x32b5b2, 0x5806d2, 0x420ea5, 0x2e8e4a, 0x50068b, 0x3b0c97, 0x6004ab, // 2084
+            0x4a055b, 0x34cad6, 0x5a0b6a, 0x460752, 0x309725, 0x540b45, 0x3e0a8b, 0x28549b, // 2092
+            0x4e04ab // 2100
+    };
+
+    // 这个类不能实例化
+    private LunarCalendar() {
+    }
+
+    /**
+     * 公历日期转换为农历日期
+     *
+     * @param year  公历年
+     * @param month 公历月，1~12
+     * @param day   公历日，1~31
+     * @return 打包的农历日期，用{@link #getYear(int)}、{@link #getMonth(int)}、{@link #isLeapMonth(int)}、
+     * {@link #getDay(int)}读取
+     * @throws IllegalArgumentException 超出支持的范围
+     */
+    public static int toLunar(int year, int month, int day) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new IllegalArgumentException("The year must be between " + MIN_YEAR + " and " + MAX_YEAR);
+        }
+        int lunarYear = year;
+        int days = (int) (toEpochDay(year, month, day) - toEpochDay(year, 1, 1)) - getNewYearOffset(year);
+        if (days < 0) {
+            // 还在上一个农历年
+            if (--lunarYear < MIN_YEAR) {
+                throw new IllegalArgumentException("The date is before the first supported lunar year");
+            }
+            days += getYearDays(lunarYear);
+        }
+        int info = YEAR_INFO[lunarYear - MIN_YEAR];
+        int leapMonth = (info >> 13) & 0xf;
+        int monthCount = leapMonth == 0 ? 12 : 13;
+        for (int i = 0; i < monthCount; i++) {
+            int monthDays = (info & (1 << i)) != 0 ? 30 : 29;
+            if (days < monthDays) {
+                boolean leap = leapMonth != 0 && i == leapMonth;
+                int lunarMonth = leapMonth != 0 && i >= leapMonth ? i : i + 1;
+                return lunarYear << 16 | (leap ? 1 << 15 : 0) | lunarMonth << 8 | (days + 1);
+            }
+            days -= monthDays;
+        }
+        throw new IllegalStateException("The lunar table is inconsistent at year " + lunarYear);
+    }
+
+    /**
+     * @param lunarDate {@link #toLunar(int, int, int)}的结果
+     * @return 农历年
+     */
+    public static int getYear(int lunarDate) {
+        return lunarDate >>> 16;
+    }
+
+    /**
+     * @param lunarDate {@link #toLunar(int, int, int)}的结果
+     * @return 农历月，1~12
+     */
+    public static int getMonth(int lunarDate) {
+        return (lunarDate >> 8) & 0x7f;
+    }
+
+    /**
+     * @param lunarDate {@link #toLunar(int, int, int)}的结果
+     * @return 是否为闰月
+     */
+    public static boolean isLeapMonth(int lunarDate) {
+        return (lunarDate & (1 << 15)) != 0;
+    }
+
+    /**
+     * @param lunarDate {@link #toLunar(int, int, int)}的结果
+     * @return 农历日，1~30
+     */
+    public static int getDay(int lunarDate) {
+        return lunarDate & 0xff;
+    }
+
+    /**
+     * @param lunarDate {@link #toLunar(int, int, int)}的结果
+     * @return 如“闰四月十五”、“腊月初八”
+     */
+    public static String format(int lunarDate) {
+        int day = getDay(lunarDate);
+        String dayName = day == 10 ? "初十" : day == 20 ? "二十" : day == 30 ? "三十"
+                : DAY_PREFIXES[day / 10] + DIGITS[day % 10];
+        return (isLeapMonth(lunarDate) ? "闰" : "") + MONTH_NAMES[getMonth(lunarDate) - 1] + "月" + dayName;
+    }
+
+    /**
+     * @param year 农历年
+     * @return 闰几月，没有闰月时为0
+     */
+    public static int getLeapMonth(int year) {
+        return (YEAR_INFO[year - MIN_YEAR] >> 13) & 0xf;
+    }
+
+    /**
+     * @param year 农历年
+     * @return 正月初一距公历1月1日的天数
+     */
+    public static int getNewYearOffset(int year) {
+        return (YEAR_INFO[year - MIN_YEAR] >> 17) & 0x3f;
+    }
+
+    /**
+     * @param year 农历年
+     * @return 这一年的总天数
+     */
+    public static int getYearDays(int year) {
+        int info = YEAR_INFO[year - MIN_YEAR];
+        int monthCount = ((info >> 13) & 0xf) == 0 ? 12 : 13;
+        return 29 * monthCount + Integer.bitCount(info & 0x1fff);
+    }
+
+    /**
+     * 公历日期距1970-01-01的天数
+     *
+     * @param year  公历年
+     * @param month 公历月，1~12
+     * @param day   公历日
+     * @return 天数
+     */
+    public static long toEpochDay(int year, int month, int day) {
+        // 把1、2月算作上一年的13、14月，闰日就落在一年的最后
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+}
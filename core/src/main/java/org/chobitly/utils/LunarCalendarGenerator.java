@@ -0,0 +1,127 @@
+package org.chobitly.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 命令行工具：按天文算法推算农历，输出{@link LunarCalendar}中的年份表。
+ * <p/>
+ * 以东八区（北京时间）的日期为准：含冬至的月为十一月，两个十一月之间有13个月时，
+ * 其中第一个不含中气的月为闰月。新月由{@link LunationEngine}计算，中气由{@link SolarLongitude}计算。
+ * <pre>
+ * 用法：LunarCalendarGenerator [起始年份 结束年份]，默认为1900~2100
+ * </pre>
+ */
+public class LunarCalendarGenerator {
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+    private static final long CHINA_OFFSET_MILLIS = 8 * 60 * 60 * 1000L;
+
+    public static void main(String[] args) {
+        int startYear = args.length > 1 ? Integer.parseInt(args[0]) : LunarCalendar.MIN_YEAR;
+        int endYear = args.length > 1 ? Integer.parseInt(args[1]) : LunarCalendar.MAX_YEAR;
+        int[] table = generate(startYear, endYear);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < table.length; i++) {
+            sb.append(i % 8 == 0 ? "            " : " ");
+            sb.append(String.format("0x%06x,", table[i]));
+            if (i % 8 == 7 || i == table.length - 1) {
+                sb.append(" // ").append(startYear + i / 8 * 8).append('\n');
+            }
+        }
+        System.out.print(sb);
+    }
+
+    /**
+     * 推算[startYear, endYear]每个农历年的数据，格式见{@link LunarCalendar}
+     */
+    public static int[] generate(int startYear, int endYear) {
+        LunationEngine engine = new LunationEngine();
+        // 所有新月所在的日期（从1970-01-01开始的天数）
+        List<Long> newMoons = new ArrayList<Long>();
+        long k = (long) Math.floor((startYear - 1 - 2000) * 12.3685) - 2;
+        long end = LunarCalendar.toEpochDay(endYear + 2, 3, 1);
+        long day;
+        do {
+            day = toChinaDay(engine.getNewMoonMillis(k++));
+            newMoons.add(day);
+        } while (day < end);
+
+        // 各月的开始日期、月份和是否为闰月
+        List<long[]> months = new ArrayList<long[]>();
+        for (int year = startYear - 1; year <= endYear + 1; year++) {
+            int a = lastNewMoonBefore(newMoons, winterSolstice(year));
+            int b = lastNewMoonBefore(newMoons, winterSolstice(year + 1));
+            int leap = -1;
+            if (b - a == 13) {
+                for (int i = a; i < b; i++) {
+                    if (!hasMajorTerm(newMoons.get(i), newMoons.get(i + 1))) {
+                        leap = i;
+                        break;
+                    }
+                }
+            }
+            int month = 11;
+            for (int i = a; i < b; i++) {
+                boolean isLeap = i == leap;
+                if (i > a && !isLeap) {
+                    month = month % 12 + 1;
+                }
+                months.add(new long[]{newMoons.get(i), month, isLeap ? 1 : 0});
+            }
+        }
+
+        int[] table = new int[endYear - startYear + 1];
+        for (int year = startYear; year <= endYear; year++) {
+            long newYear = LunarCalendar.toEpochDay(year, 1, 1);
+            int first = 0;
+            while (months.get(first)[1] != 1 || months.get(first)[2] != 0 || months.get(first)[0] < newYear) {
+                first++;
+            }
+            int bits = 0;
+            int leapMonth = 0;
+            int i = first;
+            do {
+                if (months.get(i + 1)[0] - months.get(i)[0] == 30) {
+                    bits |= 1 << (i - first);
+                }
+                if (months.get(i)[2] != 0) {
+                    leapMonth = (int) months.get(i)[1];
+                }
+                i++;
+            } while (months.get(i)[1] != 1 || months.get(i)[2] != 0);
+            int offset = (int) (months.get(first)[0] - newYear);
+            table[year - startYear] = bits | leapMonth << 13 | offset << 17;
+        }
+        return table;
+    }
+
+    private static long toChinaDay(long millis) {
+        long shifted = millis + CHINA_OFFSET_MILLIS;
+        return shifted >= 0 ? shifted / MILLIS_PER_DAY : (shifted + 1) / MILLIS_PER_DAY - 1;
+    }
+
+    private static long winterSolstice(int year) {
+        double guess = 2451545.0 + (year - 2000) * 365.2422 + 355;
+        return toChinaDay(LunationEngine.julianDayToMillis(SolarLongitude.findLongitudeJde(270, guess)));
+    }
+
+    private static int lastNewMoonBefore(List<Long> newMoons, long day) {
+        int i = newMoons.size() - 1;
+        while (newMoons.get(i) > day) {
+            i--;
+        }
+        return i;
+    }
+
+    // [start, end)这些天内是否有中气（太阳黄经为30度的整数倍）
+    private static boolean hasMajorTerm(long start, long end) {
+        // 东八区当天0点
+        double jd = start + PrincipalPhaseModel.UNIX_EPOCH_JD - 8 / 24d;
+        double longitude = SolarLongitude.getApparentLongitude(jd);
+        double next = Math.ceil(longitude / 30) * 30;
+        long termDay = toChinaDay(LunationEngine.julianDayToMillis(SolarLongitude.findLongitudeJde(next % 360,
+                jd + (next - longitude) * 365.2422 / 360)));
+        return termDay < end;
+    }
+}
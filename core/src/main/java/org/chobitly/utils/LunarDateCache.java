@@ -0,0 +1,147 @@
+package org.chobitly.utils;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * 缓存农历日期和当前节气的显示文字，如“冬月二十 冬至”。
+ * <p/>
+ * 文字只在跨过午夜或跨过节气的时刻才会变化，在有效期[{@link #getValidFrom()}, {@link #getValidUntil()})内
+ * 直接返回缓存的结果，每分钟的时间刷新不需要重新查表。时区改变时需要调用{@link #invalidate()}。
+ * <p/>
+ * 设置了{@link #setPhaseModel(MoonPhaseModel)}时，新月、上弦、满月、下弦当天在后面加上月相的名字，
+ * 近地点满月显示为“超级月亮”。月相事件由{@link MoonEventIndex}一次算好两个月，跨天时只做二分查找。
+ * <p/>
+ * 农历和节气本身就是中文的概念，文字在任何语言设置下都用中文显示。
+ */
+public final class LunarDateCache {
+
+    private static final String[] PHASE_NAMES = {"新月", "上弦", "满月", "下弦"};
+    private static final String PERIGEE_FULL_MOON_NAME = "超级月亮";
+    // 每次建立的月相事件索引覆盖的时间
+    private static final long EVENT_SPAN_MILLIS = 60 * 24 * 60 * 60 * 1000L;
+
+    private String label;
+    // 有效期，初始为空区间，第一次调用时一定会计算
+    private long validFrom = Long.MAX_VALUE;
+    private long validUntil = Long.MIN_VALUE;
+
+    private PrincipalPhaseModel phaseModel;
+    private MoonEventIndex moonEvents;
+    private long moonEventsFrom;
+    private long moonEventsTo;
+
+    /**
+     * 获取指定时间（默认时区）的农历日期和节气，在有效期内不重新计算
+     *
+     * @param timeMillis epoch毫秒数
+     * @return 显示的文字，超出支持的年份范围时为空字符串
+     */
+    public synchronized String getLabel(long timeMillis) {
+        if (!isValid(timeMillis)) {
+            update(timeMillis);
+        }
+        return label;
+    }
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @return 缓存的文字在指定时间是否仍然有效（时间被往回调时也会失效）
+     */
+    public synchronized boolean isValid(long timeMillis) {
+        return timeMillis >= validFrom && timeMillis < validUntil;
+    }
+
+    /**
+     * @return 缓存的文字开始生效的时间
+     */
+    public synchronized long getValidFrom() {
+        return validFrom;
+    }
+
+    /**
+     * @return 缓存的文字失效（下一个午夜或节气）的时间
+     */
+    public synchronized long getValidUntil() {
+        return validUntil;
+    }
+
+    /**
+     * 设置用于标注月相的模型，模型改变时缓存失效
+     *
+     * @param model 月相模型，如{@link LunationTable}，为null或不是{@link PrincipalPhaseModel}时不标注月相
+     */
+    public synchronized void setPhaseModel(MoonPhaseModel model) {
+        PrincipalPhaseModel principal = model instanceof PrincipalPhaseModel ? (PrincipalPhaseModel) model : null;
+        if (principal == phaseModel) {
+            return;
+        }
+        phaseModel = principal;
+        invalidate();
+    }
+
+    /**
+     * 使缓存失效，下一次调用{@link #getLabel(long)}时重新计算
+     */
+    public synchronized void invalidate() {
+        validFrom = Long.MAX_VALUE;
+        validUntil = Long.MIN_VALUE;
+        // 月相事件索引按天缓存，时区改变后重新建立
+        moonEvents = null;
+    }
+
+    private void update(long timeMillis) {
+        Calendar cal = Calendar.getInstance(TimeZone.getDefault());
+        cal.setTimeInMillis(timeMillis);
+        int year = cal.get(Calendar.YEAR);
+        int month = cal.get(Calendar.MONTH) + 1;
+        int day = cal.get(Calendar.DAY_OF_MONTH);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        long dayStart = cal.getTimeInMillis();
+        cal.add(Calendar.DATE, 1);
+        long dayEnd = cal.getTimeInMillis();
+        validFrom = dayStart;
+        validUntil = dayEnd;
+        if (year < LunarCalendar.MIN_YEAR || year > LunarCalendar.MAX_YEAR
+                || (year == LunarCalendar.MIN_YEAR && month == 1 && day < 31)) {
+            label = "";
+            return;
+        }
+
+        String text = LunarCalendar.format(LunarCalendar.toLunar(year, month, day));
+        int term = SolarTerms.getTermIndex(timeMillis);
+        if (term >= 0) {
+            text += " " + SolarTerms.getName(term);
+            // 一天之内跨过节气时，文字在节气的时刻就要变化
+            validFrom = Math.max(validFrom, SolarTerms.getTermMillis(term));
+            if (term + 1 < SolarTerms.COUNT) {
+                validUntil = Math.min(validUntil, SolarTerms.getTermMillis(term + 1));
+            }
+        }
+        String phase = getPhaseName(dayStart, dayEnd);
+        label = phase == null ? text : text + " " + phase;
+    }
+
+    // 当天有主要月相时返回月相的名字，否则返回null
+    private String getPhaseName(long dayStart, long dayEnd) {
+        if (phaseModel == null) {
+            return null;
+        }
+        if (moonEvents == null || dayStart < moonEventsFrom || dayEnd > moonEventsTo) {
+            moonEventsFrom = dayStart;
+            moonEventsTo = dayStart + EVENT_SPAN_MILLIS;
+            moonEvents = new MoonEventIndex(phaseModel, moonEventsFrom, moonEventsTo, TimeZone.getDefault());
+        }
+        int position = moonEvents.nextEvent(dayStart - 1);
+        if (position < 0 || moonEvents.getEventMillis(position) >= dayEnd) {
+            return null;
+        }
+        if (moonEvents.isPerigeeFullMoon(position)) {
+            return PERIGEE_FULL_MOON_NAME;
+        }
+        return PHASE_NAMES[moonEvents.getEventType(position)];
+    }
+}
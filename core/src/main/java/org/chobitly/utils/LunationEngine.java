@@ -0,0 +1,293 @@
+package org.chobitly.utils;
+
+/**
+ * 按Jean Meeus《Astronomical Algorithms》第49章计算新月、上弦、满月、下弦的时刻，
+ * 与天文年历的误差在一分钟以内，不会像{@link MoonPhase#SIMPLE_MODEL}那样随年份漂移。
+ * <p/>
+ * 计算结果为力学时，再按Espenak和Meeus的ΔT多项式换算为世界时。
+ * 所有计算只使用基本类型，可在任意线程中调用。
+ */
+public class LunationEngine extends PrincipalPhaseModel {
+
+    private static final double DEG = Math.PI / 180;
+
+    // 新月和满月的周期项系数，依次为sin M'、E sin M、sin 2M'、sin 2F、E sin(M'-M)、E sin(M'+M)、
+    // E² sin 2M、sin(M'-2F)、sin(M'+2F)、E sin(2M'+M)、sin 3M'、E sin(M+2F)、E sin(M-2F)、E sin(2M'-M)、sin Ω
+    private static final double[] NEW_MOON_TERMS = {
+            -0.40720, 0.17241, 0.01608, 0.01039, 0.00739, -0.00514, 0.00208,
+            -0.00111, -0.00057, 0.00056, -0.00042, 0.00042, 0.00038, -0.00024, -0.00017};
+    private static final double[] FULL_MOON_TERMS = {
+            -0.40614, 0.17302, 0.01614, 0.01043, 0.00734, -0.00515, 0.00209,
+            -0.00111, -0.00057, 0.00056, -0.00042, 0.00042, 0.00038, -0.00024, -0.00017};
+
+    // 行星摄动的附加项：A1~A14的常数、k的系数和振幅
+    private static final double[] PLANETARY_BASE = {
+            299.77, 251.88, 251.83, 349.42, 84.66, 141.74, 207.14,
+            154.84, 34.52, 207.19, 291.34, 161.72, 239.56, 331.55};
+    private static final double[] PLANETARY_RATE = {
+            0.107408, 0.016321, 26.651886, 36.412478, 18.206239, 53.303771, 2.453732,
+            7.306860, 27.261239, 0.121824, 1.844379, 24.198154, 25.513099, 3.592518};
+    private static final double[] PLANETARY_AMPLITUDE = {
+            0.000325, 0.000165, 0.000164, 0.000126, 0.000110, 0.000062, 0.000060,
+            0.000056, 0.000047, 0.000042, 0.000040, 0.000037, 0.000035, 0.000023};
+
+    // 地月距离的主要周期项（《Astronomical Algorithms》表47.A），依次为D、M、M'、F的倍数和振幅（0.001公里）
+    private static final int[][] DISTANCE_TERMS = {
+            {0, 0, 1, 0, -20905355}, {2, 0, -1, 0, -3699111}, {2, 0, 0, 0, -2955968},
+            {0, 0, 2, 0, -569925}, {0, 1, 0, 0, 48888}, {0, 0, 0, 2, -3149},
+            {2, 0, -2, 0, 246158}, {2, -1, -1, 0, -152138}, {2, 0, 1, 0, -170733},
+            {2, -1, 0, 0, -204586}, {0, 1, -1, 0, -129620}, {1, 0, 0, 0, 108743},
+            {0, 1, 1, 0, 104755}, {2, 0, 0, -2, 10321}, {0, 0, 1, -2, 79661},
+            {4, 0, -1, 0, -34782}, {0, 0, 3, 0, -23210}, {4, 0, -2, 0, -21636},
+            {2, 1, -1, 0, 24208}, {2, 1, 0, 0, 30824}, {1, 0, -1, 0, -8379},
+            {1, 1, 0, 0, -16675}, {2, -1, 1, 0, -12831}, {2, 0, 2, 0, -10445},
+            {4, 0, 0, 0, -11650}, {2, 0, -3, 0, 14403}, {0, 1, -2, 0, -7003},
+            {2, -1, -2, 0, 10056}, {1, 0, 1, 0, 6322}, {2, -2, 0, 0, -9884},
+            {0, 1, 2, 0, 5751}, {2, -2, -1, 0, -4950}, {2, 0, 1, -2, 4130},
+            {4, -1, -1, 0, -3958}, {3, 0, -1, 0, 3258}, {2, 1, 1, 0, 2616},
+            {2, 1, -2, 0, -1897}, {2, -1, 2, 0, -2117}, {0, 2, -1, 0, 2354}};
+
+    @Override
+    public long getPhaseMillis(long index) {
+        long k = index >> 2;
+        int phase = (int) (index & 3);
+        return julianDayToMillis(getPhaseJde(k + phase / 4d));
+    }
+
+    /**
+     * @param k 从2000-01-06的新月开始数的朔望月序号
+     * @return 第k个新月的时刻，epoch毫秒数（世界时）
+     */
+    public long getNewMoonMillis(long k) {
+        return getPhaseMillis(4 * k + NEW_MOON);
+    }
+
+    /**
+     * @param k 从2000-01-06的新月开始数的朔望月序号
+     * @return 第k个朔望月中满月的时刻，epoch毫秒数（世界时）
+     */
+    public long getFullMoonMillis(long k) {
+        return getPhaseMillis(4 * k + FULL_MOON);
+    }
+
+    /**
+     * 计算主要月相的儒略历书日（力学时）
+     *
+     * @param k 朔望月序号，整数为新月，加0.25为上弦，加0.5为满月，加0.75为下弦
+     * @return 儒略历书日
+     */
+    public static double getPhaseJde(double k) {
+        double t = k / 1236.85;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        double t4 = t3 * t;
+
+        double jde = MEAN_NEW_MOON_2000_JDE + SYNODIC_MONTH_DAYS * k
+                + 0.00015437 * t2 - 0.000000150 * t3 + 0.00000000073 * t4;
+
+        double e = 1 - 0.002516 * t - 0.0000074 * t2;
+        double e2 = e * e;
+        // 太阳平近点角
+        double m = (2.5534 + 29.10535670 * k - 0.0000014 * t2 - 0.00000011 * t3) * DEG;
+        // 月亮平近点角
+        double mp = (201.5643 + 385.81693528 * k + 0.0107582 * t2 + 0.00001238 * t3
+                - 0.000000058 * t4) * DEG;
+        // 月亮的纬度参数
+        double f = (160.7108 + 390.67050284 * k - 0.0016118 * t2 - 0.00000227 * t3
+                + 0.000000011 * t4) * DEG;
+        // 月亮轨道升交点黄经
+        double omega = (124.7746 - 1.56375588 * k + 0.0020672 * t2 + 0.00000215 * t3) * DEG;
+
+        double fraction = k - Math.floor(k);
+        double correction;
+        if (fraction < 0.125 || fraction > 0.875 || (fraction > 0.375 && fraction < 0.625)) {
+            double[] c = fraction > 0.375 && fraction < 0.625 ? FULL_MOON_TERMS : NEW_MOON_TERMS;
+            correction = c[0] * Math.sin(mp)
+                    + c[1] * e * Math.sin(m)
+                    + c[2] * Math.sin(2 * mp)
+                    + c[3] * Math.sin(2 * f)
+                    + c[4] * e * Math.sin(mp - m)
+                    + c[5] * e * Math.sin(mp + m)
+                    + c[6] * e2 * Math.sin(2 * m)
+                    + c[7] * Math.sin(mp - 2 * f)
+                    + c[8] * Math.sin(mp + 2 * f)
+                    + c[9] * e * Math.sin(2 * mp + m)
+                    + c[10] * Math.sin(3 * mp)
+                    + c[11] * e * Math.sin(m + 2 * f)
+                    + c[12] * e * Math.sin(m - 2 * f)
+                    + c[13] * e * Math.sin(2 * mp - m)
+                    + c[14] * Math.sin(omega)
+                    - 0.00007 * Math.sin(mp + 2 * m)
+                    + 0.00004 * Math.sin(2 * mp - 2 * f)
+                    + 0.00004 * Math.sin(3 * m)
+                    + 0.00003 * Math.sin(mp + m - 2 * f)
+                    + 0.00003 * Math.sin(2 * mp + 2 * f)
+                    - 0.00003 * Math.sin(mp + m + 2 * f)
+                    + 0.00003 * Math.sin(mp - m + 2 * f)
+                    - 0.00002 * Math.sin(mp - m - 2 * f)
+                    - 0.00002 * Math.sin(3 * mp + m)
+                    + 0.00002 * Math.sin(4 * mp);
+        } else {
+            correction = -0.62801 * Math.sin(mp)
+                    + 0.17172 * e * Math.sin(m)
+                    - 0.01183 * e * Math.sin(mp + m)
+                    + 0.00862 * Math.sin(2 * mp)
+                    + 0.00804 * Math.sin(2 * f)
+                    + 0.00454 * e * Math.sin(mp - m)
+                    + 0.00204 * e2 * Math.sin(2 * m)
+                    - 0.00180 * Math.sin(mp - 2 * f)
+                    - 0.00070 * Math.sin(mp + 2 * f)
+                    - 0.00040 * Math.sin(3 * mp)
+                    - 0.00034 * e * Math.sin(2 * mp - m)
+                    + 0.00032 * e * Math.sin(m + 2 * f)
+                    + 0.00032 * e * Math.sin(m - 2 * f)
+                    - 0.00028 * e2 * Math.sin(mp + 2 * m)
+                    + 0.00027 * e * Math.sin(2 * mp + m)
+                    - 0.00017 * Math.sin(omega)
+                    - 0.00005 * Math.sin(mp - m - 2 * f)
+                    + 0.00004 * Math.sin(2 * mp + 2 * f)
+                    - 0.00004 * Math.sin(mp + m + 2 * f)
+                    + 0.00004 * Math.sin(mp - 2 * m)
+                    + 0.00003 * Math.sin(mp + m - 2 * f)
+                    + 0.00003 * Math.sin(3 * m)
+                    + 0.00002 * Math.sin(2 * mp - 2 * f)
+                    + 0.00002 * Math.sin(mp - m + 2 * f)
+                    - 0.00002 * Math.sin(3 * mp + m);
+            double w = 0.00306 - 0.00038 * e * Math.cos(m) + 0.00026 * Math.cos(mp)
+                    - 0.00002 * Math.cos(mp - m) + 0.00002 * Math.cos(mp + m)
+                    + 0.00002 * Math.cos(2 * f);
+            correction += fraction < 0.5 ? w : -w;
+        }
+
+        double planetary = 0;
+        for (int i = 0; i < PLANETARY_BASE.length; i++) {
+            double a = PLANETARY_BASE[i] + PLANETARY_RATE[i] * k;
+            if (i == 0) {
+                a -= 0.009173 * t2;
+            }
+            planetary += PLANETARY_AMPLITUDE[i] * Math.sin(a * DEG);
+        }
+        return jde + correction + planetary;
+    }
+
+    /**
+     * 按《Astronomical Algorithms》第47章的主要周期项计算地月距离，误差约几十公里，
+     * 足以区分近地点满月（超级月亮）
+     *
+     * @param timeMillis epoch毫秒数（世界时）
+     * @return 地心到月心的距离（公里）
+     */
+    public static double getDistanceKm(long timeMillis) {
+        double jde = millisToJulianDay(timeMillis);
+        double t = (jde - 2451545.0) / 36525;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        double t4 = t3 * t;
+        double d = (297.8501921 + 445267.1114034 * t - 0.0018819 * t2 + t3 / 545868 - t4 / 113065000) * DEG;
+        double m = (357.5291092 + 35999.0502909 * t - 0.0001536 * t2 + t3 / 24490000) * DEG;
+        double mp = (134.9633964 + 477198.8675055 * t + 0.0087414 * t2 + t3 / 69699 - t4 / 14712000) * DEG;
+        double f = (93.2720950 + 483202.0175233 * t - 0.0036539 * t2 - t3 / 3526000 + t4 / 863310000) * DEG;
+        double e = 1 - 0.002516 * t - 0.0000074 * t2;
+
+        double sum = 0;
+        for (int[] term : DISTANCE_TERMS) {
+            double r = term[4] * Math.cos(term[0] * d + term[1] * m + term[2] * mp + term[3] * f);
+            // 含太阳平近点角的项要乘以地球轨道偏心率的修正
+            if (term[1] != 0) {
+                r *= term[1] == 1 || term[1] == -1 ? e : e * e;
+            }
+            sum += r;
+        }
+        return 385000.56 + sum / 1000;
+    }
+
+    /**
+     * 按《Astronomical Algorithms》第48章的简化公式计算月亮被照亮部分的比例，
+     * 相位角误差约0.1度，不依赖主要月相之间的线性插值
+     *
+     * @param timeMillis epoch毫秒数（世界时）
+     * @return 0（新月）~1（满月）
+     */
+    public static double getIlluminatedFraction(long timeMillis) {
+        double t = (millisToJulianDay(timeMillis) - 2451545.0) / 36525;
+        double t2 = t * t;
+        double t3 = t2 * t;
+        double t4 = t3 * t;
+        double d = (297.8501921 + 445267.1114034 * t - 0.0018819 * t2 + t3 / 545868 - t4 / 113065000) * DEG;
+        double m = (357.5291092 + 35999.0502909 * t - 0.0001536 * t2 + t3 / 24490000) * DEG;
+        double mp = (134.9633964 + 477198.8675055 * t + 0.0087414 * t2 + t3 / 69699 - t4 / 14712000) * DEG;
+        // 相位角i，月亮的距角为180° - i
+        double i = 180 - d / DEG
+                - 6.289 * Math.sin(mp)
+                + 2.100 * Math.sin(m)
+                - 1.274 * Math.sin(2 * d - mp)
+                - 0.658 * Math.sin(2 * d)
+                - 0.214 * Math.sin(2 * mp)
+                - 0.110 * Math.sin(d);
+        return (1 + Math.cos(i * DEG)) / 2;
+    }
+
+    /**
+     * 将epoch毫秒数（世界时）换算为儒略历书日（力学时）
+     *
+     * @param timeMillis epoch毫秒数
+     * @return 儒略历书日
+     */
+    public static double millisToJulianDay(long timeMillis) {
+        double year = 1970 + timeMillis / (365.2425 * MILLIS_PER_DAY);
+        return (timeMillis + 1000 * getDeltaT(year)) / MILLIS_PER_DAY + UNIX_EPOCH_JD;
+    }
+
+    /**
+     * 将儒略历书日（力学时）换算为epoch毫秒数（世界时）
+     *
+     * @param jde 儒略历书日
+     * @return epoch毫秒数
+     */
+    public static long julianDayToMillis(double jde) {
+        double millis = (jde - UNIX_EPOCH_JD) * MILLIS_PER_DAY;
+        double year = 1970 + millis / (365.2425 * MILLIS_PER_DAY);
+        return Math.round(millis - 1000 * getDeltaT(year));
+    }
+
+    /**
+     * 力学时与世界时之差ΔT，按Espenak和Meeus（NASA，2006）的多项式估算
+     *
+     * @param year 年份（可带小数）
+     * @return ΔT（秒）
+     */
+    public static double getDeltaT(double year) {
+        double t;
+        if (year < 1860 || year >= 2150) {
+            double u = (year - 1820) / 100;
+            return -20 + 32 * u * u;
+        } else if (year < 1900) {
+            t = year - 1860;
+            return 7.62 + 0.5737 * t - 0.251754 * t * t + 0.01680668 * t * t * t
+                    - 0.0004473624 * t * t * t * t + t * t * t * t * t / 233174;
+        } else if (year < 1920) {
+            t = year - 1900;
+            return -2.79 + 1.494119 * t - 0.0598939 * t * t + 0.0061966 * t * t * t
+                    - 0.000197 * t * t * t * t;
+        } else if (year < 1941) {
+            t = year - 1920;
+            return 21.20 + 0.84493 * t - 0.076100 * t * t + 0.0020936 * t * t * t;
+        } else if (year < 1961) {
+            t = year - 1950;
+            return 29.07 + 0.407 * t - t * t / 233 + t * t * t / 2547;
+        } else if (year < 1986) {
+            t = year - 1975;
+            return 45.45 + 1.067 * t - t * t / 260 - t * t * t / 718;
+        } else if (year < 2005) {
+            t = year - 2000;
+            return 63.86 + 0.3345 * t - 0.060374 * t * t + 0.0017275 * t * t * t
+                    + 0.000651814 * t * t * t * t + 0.00002373599 * t * t * t * t * t;
+        } else if (year < 2050) {
+            t = year - 2000;
+            return 62.92 + 0.32217 * t + 0.005589 * t * t;
+        } else {
+            double u = (year - 1820) / 100;
+            return -20 + 32 * u * u - 0.5628 * (2150 - year);
+        }
+    }
+}
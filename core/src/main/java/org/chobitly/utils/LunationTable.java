@@ -0,0 +1,111 @@
+package org.chobitly.utils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 预先计算好的主要月相时刻表，直接按序号查表，不需要每次计算{@link LunationEngine}的级数。
+ * <p/>
+ * 表中每个主要月相只存一个short，即实际时刻与平均时刻（按平均朔望月推算）之差，单位为{@link #UNIT_MILLIS}毫秒，
+ * 1900~2100年约一万个月相只占20KB。数据可以直接从内存映射的文件中读取，不占用Java堆。
+ * 超出表格范围的时间会退回到{@link LunationEngine}计算。
+ * <pre>
+ * 文件格式（大端）：
+ *   int   MAGIC
+ *   int   VERSION
+ *   int   每个单位的毫秒数
+ *   int   月相个数count
+ *   long  第一个月相的序号
+ *   short[count] 与平均时刻之差
+ * </pre>
+ */
+public class LunationTable extends PrincipalPhaseModel {
+
+    public static final int MAGIC = 0x4D574C54;// "MWLT"
+    public static final int VERSION = 1;
+    /**
+     * 差值的单位，4秒。主要月相与平均时刻最多相差约19.5小时，正好能用short表示
+     */
+    public static final int UNIT_MILLIS = 4000;
+    static final int HEADER_SIZE = 24;
+
+    private final ByteBuffer buffer;
+    private final int unitMillis;
+    private final int count;
+    private final long firstIndex;
+    private final LunationEngine fallback = new LunationEngine();
+
+    /**
+     * @param buffer 表格数据，通常是内存映射的文件
+     * @throws IllegalArgumentException 数据格式不正确
+     */
+    public LunationTable(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (this.buffer.remaining() < HEADER_SIZE
+                || this.buffer.getInt(0) != MAGIC || this.buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a lunation table");
+        }
+        unitMillis = this.buffer.getInt(8);
+        count = this.buffer.getInt(12);
+        firstIndex = this.buffer.getLong(16);
+        if (this.buffer.limit() < HEADER_SIZE + 2 * count) {
+            throw new IllegalArgumentException("Truncated lunation table");
+        }
+    }
+
+    @Override
+    public long getPhaseMillis(long index) {
+        long offset = index - firstIndex;
+        if (offset < 0 || offset >= count) {
+            return fallback.getPhaseMillis(index);
+        }
+        return getMeanPhaseMillis(index) + (long) unitMillis * buffer.getShort(HEADER_SIZE + 2 * (int) offset);
+    }
+
+    /**
+     * @param index 主要月相的序号
+     * @return 是否能直接查表
+     */
+    public boolean contains(long index) {
+        return index >= firstIndex && index < firstIndex + count;
+    }
+
+    /**
+     * 按平均朔望月推算的主要月相时刻
+     *
+     * @param index 主要月相的序号
+     * @return epoch毫秒数
+     */
+    static long getMeanPhaseMillis(long index) {
+        return Math.round((MEAN_NEW_MOON_2000_JDE + SYNODIC_MONTH_DAYS * index / 4 - UNIX_EPOCH_JD) * MILLIS_PER_DAY);
+    }
+
+    /**
+     * 用{@link LunationEngine}计算[firstIndex, firstIndex + count)内的主要月相，按本类的格式写入out
+     *
+     * @param out        输出
+     * @param firstIndex 第一个主要月相的序号
+     * @param count      主要月相的个数
+     * @throws IOException 写入失败
+     */
+    public static void write(OutputStream out, long firstIndex, int count) throws IOException {
+        LunationEngine engine = new LunationEngine();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(UNIT_MILLIS);
+        data.writeInt(count);
+        data.writeLong(firstIndex);
+        for (long index = firstIndex; index < firstIndex + count; index++) {
+            long delta = Math.round((double) (engine.getPhaseMillis(index) - getMeanPhaseMillis(index)) / UNIT_MILLIS);
+            if (delta < Short.MIN_VALUE || delta > Short.MAX_VALUE) {
+                throw new IllegalStateException("The phase " + index + " is too far from its mean time");
+            }
+            data.writeShort((int) delta);
+        }
+        data.flush();
+    }
+}
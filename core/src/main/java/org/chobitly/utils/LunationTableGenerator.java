@@ -0,0 +1,45 @@
+package org.chobitly.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * 命令行工具：生成{@link LunationTable}使用的主要月相时刻表，放到render模块的assets/lunations.bin。
+ * <pre>
+ * 用法：LunationTableGenerator 起始年份 结束年份 输出文件
+ * </pre>
+ */
+public class LunationTableGenerator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: LunationTableGenerator <startYear> <endYear> <outFile>");
+            System.exit(1);
+        }
+        int startYear = Integer.parseInt(args[0]);
+        int endYear = Integer.parseInt(args[1]);
+
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(startYear, Calendar.JANUARY, 1);
+        long start = cal.getTimeInMillis();
+        cal.set(endYear + 1, Calendar.JANUARY, 1);
+        long end = cal.getTimeInMillis();
+
+        // 两端各多留一个月相，保证范围内的任何时间都能在表中找到前后两个节点
+        LunationEngine engine = new LunationEngine();
+        long firstIndex = engine.getPhaseIndex(start) - 1;
+        long lastIndex = engine.getPhaseIndex(end) + 2;
+
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(args[2]));
+        try {
+            LunationTable.write(out, firstIndex, (int) (lastIndex - firstIndex + 1));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.chobitly.utils;
+
+import java.util.Arrays;
+import java.util.TimeZone;
+
+/**
+ * 一段时间内的月相事件索引：新月、上弦、满月、下弦，以及近地点满月（超级月亮）。
+ * <p/>
+ * 事件在创建时一次算好，按时间排序存放在基本类型数组中，
+ * 查询“某时间之后的下一个事件”只需二分查找，不需要再计算月相。
+ * 月亮的照亮比例和月龄按天缓存，同一天内重复查询直接返回缓存的结果。
+ */
+public class MoonEventIndex {
+
+    public static final int NEW_MOON = PrincipalPhaseModel.NEW_MOON;
+    public static final int FIRST_QUARTER = PrincipalPhaseModel.FIRST_QUARTER;
+    public static final int FULL_MOON = PrincipalPhaseModel.FULL_MOON;
+    public static final int LAST_QUARTER = PrincipalPhaseModel.LAST_QUARTER;
+    /**
+     * 近地点满月，同时也是一个{@link #FULL_MOON}
+     */
+    public static final int PERIGEE_FULL_MOON = 4;
+
+    /**
+     * 满月时地月距离小于这个值即认为是近地点满月
+     */
+    public static final double PERIGEE_DISTANCE_KM = 362000;
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    private final PrincipalPhaseModel model;
+    private final TimeZone timeZone;
+    // 按时间排序的事件时刻和类型
+    private final long[] eventMillis;
+    private final byte[] eventTypes;
+    // 近地点满月单独排序存放，保证查询也是O(log n)
+    private final long[] perigeeMillis;
+
+    // 按天缓存的照亮比例和月龄
+    private long cachedDay = Long.MIN_VALUE;
+    private double cachedIllumination;
+    private long cachedAgeMillis;
+
+    /**
+     * 计算[from, to)内的所有月相事件
+     *
+     * @param model    月相模型，如{@link LunationTable}
+     * @param from     开始时间（包含）
+     * @param to       结束时间（不包含）
+     * @param timeZone 按哪个时区的“天”缓存照亮比例和月龄
+     */
+    public MoonEventIndex(PrincipalPhaseModel model, long from, long to, TimeZone timeZone) {
+        this.model = model;
+        this.timeZone = timeZone;
+        long firstIndex = model.getPhaseIndex(from);
+        if (model.getPhaseMillis(firstIndex) < from) {
+            firstIndex++;
+        }
+        int count = Math.max(0, (int) (model.getPhaseIndex(to - 1) - firstIndex + 1));
+        eventMillis = new long[count];
+        eventTypes = new byte[count];
+        long[] perigee = new long[count / 4 + 1];
+        int perigeeCount = 0;
+        for (int i = 0; i < count; i++) {
+            long index = firstIndex + i;
+            eventMillis[i] = model.getPhaseMillis(index);
+            eventTypes[i] = (byte) PrincipalPhaseModel.floorMod(index, 4);
+            if (eventTypes[i] == FULL_MOON
+                    && LunationEngine.getDistanceKm(eventMillis[i]) < PERIGEE_DISTANCE_KM) {
+                perigee[perigeeCount++] = eventMillis[i];
+            }
+        }
+        perigeeMillis = Arrays.copyOf(perigee, perigeeCount);
+    }
+
+    /**
+     * @return 事件个数
+     */
+    public int size() {
+        return eventMillis.length;
+    }
+
+    /**
+     * @param position 事件的位置
+     * @return 事件的时刻
+     */
+    public long getEventMillis(int position) {
+        return eventMillis[position];
+    }
+
+    /**
+     * @param position 事件的位置
+     * @return {@link #NEW_MOON}、{@link #FIRST_QUARTER}、{@link #FULL_MOON}或{@link #LAST_QUARTER}
+     */
+    public int getEventType(int position) {
+        return eventTypes[position];
+    }
+
+    /**
+     * @param position 事件的位置
+     * @return 是否是近地点满月
+     */
+    public boolean isPerigeeFullMoon(int position) {
+        return eventTypes[position] == FULL_MOON && Arrays.binarySearch(perigeeMillis, eventMillis[position]) >= 0;
+    }
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @return 晚于指定时间的第一个事件的位置，没有时返回-1
+     */
+    public int nextEvent(long timeMillis) {
+        int position = upperBound(eventMillis, eventMillis.length, timeMillis);
+        return position < eventMillis.length ? position : -1;
+    }
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @param type       事件类型，可以是{@link #PERIGEE_FULL_MOON}
+     * @return 晚于指定时间的第一个指定类型事件的时刻，索引范围内没有时返回-1
+     */
+    public long getNextEventMillis(long timeMillis, int type) {
+        if (type == PERIGEE_FULL_MOON) {
+            int position = upperBound(perigeeMillis, perigeeMillis.length, timeMillis);
+            return position < perigeeMillis.length ? perigeeMillis[position] : -1;
+        }
+        // 主要月相依次出现，最多往后找四个
+        int position = upperBound(eventMillis, eventMillis.length, timeMillis);
+        for (int end = Math.min(eventMillis.length, position + 4); position < end; position++) {
+            if (eventTypes[position] == type) {
+                return eventMillis[position];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 月亮被照亮部分的比例，按天缓存，取当天正午的值
+     *
+     * @param timeMillis epoch毫秒数
+     * @return 0（新月）~1（满月）
+     */
+    public synchronized double getIllumination(long timeMillis) {
+        updateDay(timeMillis);
+        return cachedIllumination;
+    }
+
+    /**
+     * 月龄，即距上一个新月的时间，按天缓存，取当天正午的值
+     *
+     * @param timeMillis epoch毫秒数
+     * @return 毫秒数
+     */
+    public synchronized long getAgeMillis(long timeMillis) {
+        updateDay(timeMillis);
+        return cachedAgeMillis;
+    }
+
+    private void updateDay(long timeMillis) {
+        long offset = timeZone.getOffset(timeMillis);
+        long day = floorDiv(timeMillis + offset, MILLIS_PER_DAY);
+        if (day == cachedDay) {
+            return;
+        }
+        long noon = day * MILLIS_PER_DAY + MILLIS_PER_DAY / 2 - offset;
+        // 照亮比例由真实的距角计算，主要月相之间的线性插值在上下弦附近会差好几个百分点
+        cachedIllumination = LunationEngine.getIlluminatedFraction(noon);
+        long newMoonIndex = model.getPhaseIndex(noon);
+        newMoonIndex -= PrincipalPhaseModel.floorMod(newMoonIndex, 4);
+        cachedAgeMillis = noon - model.getPhaseMillis(newMoonIndex);
+        cachedDay = day;
+    }
+
+    // 第一个大于key的位置
+    private static int upperBound(long[] array, int length, long key) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        return (x % y != 0 && (x < 0) != (y < 0)) ? q - 1 : q;
+    }
+}
@@ -0,0 +1,113 @@
+package org.chobitly.utils;
+
+/**
+ * 只用long型的epoch毫秒数计算月相，不创建任何对象，可在任意线程中调用。
+ * <p/>
+ * 计算结果与原来基于{@link java.text.SimpleDateFormat}和{@link Arith}的实现一致：
+ * 先将时间差除以{@link #STEP_MILLIS}并四舍五入到小数点后两位，再四舍五入取整，
+ * 最后对{@link #STEPS_PER_CYCLE}取余。
+ */
+public final class MoonPhase {
+
+    /**
+     * 基准时间2015-01-05 04:53（世界时）的epoch毫秒数，此时为满月
+     */
+    public static final long BASE_MILLIS = 1420433580000L;
+    /**
+     * 月相周期为2551443s，即2551443s转180度，42524.05s（11h48m44.05s）转3度
+     */
+    public static final long STEP_MILLIS = 42524050L;
+    /**
+     * 每一步转过的角度
+     */
+    public static final int DEGREE_PER_STEP = 3;
+    /**
+     * 转180度需要的步数
+     */
+    public static final int STEPS_PER_CYCLE = 60;
+
+    /**
+     * 以固定的朔望月周期从基准时间推算的简单月相模型
+     */
+    public static final MoonPhaseModel SIMPLE_MODEL = new MoonPhaseModel() {
+        @Override
+        public int getDegree(long timeMillis) {
+            return MoonPhase.getDegree(timeMillis);
+        }
+
+        @Override
+        public long getDegreeStartMillis(long timeMillis) {
+            return getStepStartMillis(getStepCount(timeMillis));
+        }
+
+        @Override
+        public long getNextDegreeMillis(long timeMillis) {
+            return getNextStepMillis(timeMillis);
+        }
+    };
+
+    // 这个类不能实例化
+    private MoonPhase() {
+    }
+
+    /**
+     * 计算从基准时间到指定时间需要转几个3度（四舍五入，未取余）
+     *
+     * @param timeMillis epoch毫秒数
+     * @return 3度的个数，早于基准时间时为负数
+     */
+    public static long getStepCount(long timeMillis) {
+        long elapsed = timeMillis - BASE_MILLIS;
+        if (elapsed < 0) {
+            // BigDecimal的HALF_UP是远离0方向的舍入，负数与正数对称
+            return -roundedSteps(-elapsed);
+        }
+        return roundedSteps(elapsed);
+    }
+
+    /**
+     * 计算指定时间月亮需要转的角度
+     *
+     * @param timeMillis epoch毫秒数
+     * @return 0~177之间（早于基准时间时为-177~0之间）3的倍数
+     */
+    public static int getDegree(long timeMillis) {
+        return DEGREE_PER_STEP * (int) (getStepCount(timeMillis) % STEPS_PER_CYCLE);
+    }
+
+    /**
+     * 计算转满指定个数的3度的最早时间，即{@link #getStepCount(long)}的结果第一次不小于stepCount的时间
+     *
+     * @param stepCount 3度的个数
+     * @return epoch毫秒数
+     */
+    public static long getStepStartMillis(long stepCount) {
+        if (stepCount > 0) {
+            return BASE_MILLIS + stepThreshold(stepCount);
+        }
+        // 负数一侧与正数对称：getStepCount(t) >= stepCount 即 -getStepCount(t)对应的正数步数 < 1 - stepCount
+        return BASE_MILLIS - stepThreshold(1 - stepCount) + 1;
+    }
+
+    /**
+     * 计算月亮下一次转动（即{@link #getDegree(long)}的结果下一次改变）的时间
+     *
+     * @param timeMillis epoch毫秒数
+     * @return 晚于timeMillis的epoch毫秒数
+     */
+    public static long getNextStepMillis(long timeMillis) {
+        return getStepStartMillis(getStepCount(timeMillis) + 1);
+    }
+
+    // 使roundedSteps(elapsed) >= steps的最小elapsed（steps >= 1），
+    // 即 elapsed >= STEP_MILLIS * (steps - 0.505)，向上取整
+    private static long stepThreshold(long steps) {
+        return (STEP_MILLIS * (200 * steps - 101) + 199) / 200;
+    }
+
+    // elapsed / STEP_MILLIS 先四舍五入到两位小数，再四舍五入到整数
+    private static long roundedSteps(long elapsed) {
+        long hundredths = (200 * elapsed + STEP_MILLIS) / (2 * STEP_MILLIS);
+        return (hundredths + 50) / 100;
+    }
+}
@@ -0,0 +1,255 @@
+package org.chobitly.utils;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 月亮所有旋转状态的图集。
+ * <p/>
+ * 月亮只有{@link MoonPhase#STEPS_PER_CYCLE}个不同的角度（0~177度，每{@link MoonPhase#DEGREE_PER_STEP}度一个），
+ * 每个角度的图片最多只渲染一次，之后直接返回缓存的结果。图片在第一次用到时才渲染，也可以用
+ * {@link #prewarm(Executor)}在后台提前渲染当前角度之后的几帧。最多缓存{@link #getMaxFrames()}帧，
+ * 超出时淘汰离当前角度最远的帧。
+ * <p/>
+ * 一个图集只对应一种输出尺寸，尺寸改变时应当{@link #clear()}并换用新的图集。
+ *
+ * @param <F> 帧的类型，如Android上的Bitmap
+ */
+public abstract class MoonPhaseAtlas<F> {
+
+    private static final int STEPS = MoonPhase.STEPS_PER_CYCLE;
+
+    private final Object[] frames = new Object[STEPS];
+    private int maxFrames;
+    private int frameCount;
+    private int currentStep;
+    // clear()之后递增，丢弃清空前开始渲染的帧
+    private int generation;
+    private boolean prewarming;
+
+    /**
+     * @param maxFrames 最多缓存几帧，限制在1~{@link MoonPhase#STEPS_PER_CYCLE}之间
+     */
+    protected MoonPhaseAtlas(int maxFrames) {
+        this.maxFrames = Math.max(1, Math.min(STEPS, maxFrames));
+    }
+
+    /**
+     * 渲染指定角度的帧，可能在后台线程中调用
+     *
+     * @param degree 顺时针旋转的角度，3的倍数
+     * @return 渲染好的帧
+     */
+    protected abstract F render(int degree);
+
+    /**
+     * 帧被淘汰或丢弃时调用，默认什么都不做
+     *
+     * @param frame 不再使用的帧
+     */
+    protected void recycle(F frame) {
+    }
+
+    /**
+     * 获取指定角度的帧，没有缓存时在当前线程渲染，并将它设为当前角度
+     *
+     * @param degree 顺时针旋转的角度，如{@link MoonPhaseCache#getDegree(long)}的返回值
+     * @return 渲染好的帧，在被淘汰之前一直有效
+     */
+    public F getFrame(int degree) {
+        int step = toStep(degree);
+        int startGeneration;
+        synchronized (this) {
+            currentStep = step;
+            F frame = frameAt(step);
+            if (frame != null) {
+                return frame;
+            }
+            startGeneration = generation;
+        }
+        F frame = render(step * MoonPhase.DEGREE_PER_STEP);
+        synchronized (this) {
+            F existing = frameAt(step);
+            if (existing != null) {
+                // 渲染期间后台已经渲染好了同一帧
+                recycle(frame);
+                return existing;
+            }
+            if (startGeneration == generation) {
+                // 当前角度的帧一定能放进缓存
+                put(step, frame);
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * 在后台渲染当前角度及之后的帧，直到缓存满为止。已经在预热时不重复提交。
+     *
+     * @param executor 执行渲染的线程池
+     */
+    public void prewarm(Executor executor) {
+        final int startGeneration;
+        synchronized (this) {
+            if (prewarming || frameCount >= maxFrames) {
+                return;
+            }
+            prewarming = true;
+            startGeneration = generation;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    prewarmFrames(startGeneration);
+                } finally {
+                    synchronized (MoonPhaseAtlas.this) {
+                        prewarming = false;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @param degree 顺时针旋转的角度
+     * @return 这个角度的帧是否已经缓存
+     */
+    public synchronized boolean contains(int degree) {
+        return frameAt(toStep(degree)) != null;
+    }
+
+    /**
+     * @return 已经缓存的帧数
+     */
+    public synchronized int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * @return 最多缓存几帧
+     */
+    public synchronized int getMaxFrames() {
+        return maxFrames;
+    }
+
+    /**
+     * 修改最多缓存的帧数，缓存的帧超出时立即淘汰离当前角度最远的帧，当前角度的帧始终保留
+     *
+     * @param maxFrames 最多缓存几帧，限制在1~{@link MoonPhase#STEPS_PER_CYCLE}之间
+     */
+    public synchronized void setMaxFrames(int maxFrames) {
+        this.maxFrames = Math.max(1, Math.min(STEPS, maxFrames));
+        while (frameCount > this.maxFrames) {
+            int farthest = findFarthest();
+            if (farthest < 0) {
+                break;
+            }
+            evict(farthest);
+        }
+    }
+
+    /**
+     * 淘汰所有缓存的帧，正在渲染的帧完成后也会被丢弃
+     */
+    public synchronized void clear() {
+        generation++;
+        for (int i = 0; i < STEPS; i++) {
+            F frame = frameAt(i);
+            if (frame != null) {
+                frames[i] = null;
+                recycle(frame);
+            }
+        }
+        frameCount = 0;
+    }
+
+    // 按离当前角度的先后顺序渲染，月亮只会往前转，所以只预热之后的帧
+    private void prewarmFrames(int startGeneration) {
+        for (int i = 0; i < STEPS; i++) {
+            int step;
+            synchronized (this) {
+                if (startGeneration != generation || frameCount >= maxFrames) {
+                    return;
+                }
+                step = (currentStep + i) % STEPS;
+                if (frameAt(step) != null) {
+                    continue;
+                }
+            }
+            F frame = render(step * MoonPhase.DEGREE_PER_STEP);
+            synchronized (this) {
+                if (startGeneration != generation) {
+                    recycle(frame);
+                    return;
+                }
+                if (frameAt(step) != null) {
+                    recycle(frame);
+                } else if (!put(step, frame)) {
+                    recycle(frame);
+                    return;
+                }
+            }
+        }
+    }
+
+    // 缓存满时先淘汰离当前角度最远的帧，距离相同时先淘汰已经转过的帧。新的帧本身最远时不缓存，返回false
+    private boolean put(int step, F frame) {
+        if (frameCount >= maxFrames) {
+            int farthest = findFarthest();
+            if (farthest < 0 || step != currentStep
+                    && distance(farthest, currentStep) <= distance(step, currentStep)) {
+                return false;
+            }
+            evict(farthest);
+        }
+        frames[step] = frame;
+        frameCount++;
+        return true;
+    }
+
+    // 除当前角度外离当前角度最远的帧，距离相同时取已经转过的帧，没有时返回-1
+    private int findFarthest() {
+        int farthest = -1;
+        int farthestDistance = -1;
+        for (int i = 0; i < STEPS; i++) {
+            if (frames[i] == null || i == currentStep) {
+                continue;
+            }
+            int distance = distance(i, currentStep);
+            if (distance > farthestDistance
+                    || distance == farthestDistance && isBehind(i, currentStep)) {
+                farthest = i;
+                farthestDistance = distance;
+            }
+        }
+        return farthest;
+    }
+
+    private void evict(int step) {
+        F evicted = frameAt(step);
+        frames[step] = null;
+        frameCount--;
+        recycle(evicted);
+    }
+
+    @SuppressWarnings("unchecked")
+    private F frameAt(int step) {
+        return (F) frames[step];
+    }
+
+    private static int toStep(int degree) {
+        int step = degree / MoonPhase.DEGREE_PER_STEP % STEPS;
+        return step < 0 ? step + STEPS : step;
+    }
+
+    // 两个角度在环上的距离
+    private static int distance(int step, int other) {
+        int d = Math.abs(step - other);
+        return Math.min(d, STEPS - d);
+    }
+
+    // step是否在other之前（已经转过）
+    private static boolean isBehind(int step, int other) {
+        return (other - step + STEPS) % STEPS <= STEPS / 2;
+    }
+}
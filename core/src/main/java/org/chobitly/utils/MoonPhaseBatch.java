@@ -0,0 +1,113 @@
+package org.chobitly.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 批量计算月相，用于日历、预报和离线月相表。
+ * <p/>
+ * 相邻的时间戳落在同一个3度的有效期内时直接沿用上一个结果，按时间排序的输入几乎不需要调用月相模型；
+ * 计算过程中不创建任何对象。数据量大时可以分段交给线程池并行计算。
+ */
+public class MoonPhaseBatch {
+
+    /**
+     * 超过这个数量才值得分段并行计算
+     */
+    public static final int PARALLEL_THRESHOLD = 8192;
+
+    // 这个类不能实例化
+    private MoonPhaseBatch() {
+    }
+
+    /**
+     * 计算所有时间戳对应的月亮角度
+     *
+     * @param model      月相模型
+     * @param timeMillis epoch毫秒数
+     * @param degrees    输出的角度，长度不小于timeMillis
+     */
+    public static void getDegrees(MoonPhaseModel model, long[] timeMillis, int[] degrees) {
+        getDegrees(model, timeMillis, degrees, 0, timeMillis.length);
+    }
+
+    /**
+     * 计算[from, to)范围内的时间戳对应的月亮角度
+     *
+     * @param model      月相模型
+     * @param timeMillis epoch毫秒数
+     * @param degrees    输出的角度，与timeMillis下标一一对应
+     * @param from       开始下标（包含）
+     * @param to         结束下标（不包含）
+     */
+    public static void getDegrees(MoonPhaseModel model, long[] timeMillis, int[] degrees, int from, int to) {
+        checkRange(timeMillis, degrees, from, to);
+        int degree = 0;
+        long validFrom = Long.MAX_VALUE;
+        long validUntil = Long.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            long t = timeMillis[i];
+            if (t < validFrom || t >= validUntil) {
+                degree = model.getDegree(t);
+                validFrom = model.getDegreeStartMillis(t);
+                validUntil = model.getNextDegreeMillis(t);
+            }
+            degrees[i] = degree;
+        }
+    }
+
+    /**
+     * 分段并行计算所有时间戳对应的月亮角度，数量不超过{@link #PARALLEL_THRESHOLD}时直接在当前线程计算
+     *
+     * @param model       月相模型，需要能在多个线程中同时调用
+     * @param timeMillis  epoch毫秒数
+     * @param degrees     输出的角度，长度不小于timeMillis
+     * @param executor    执行分段计算的线程池
+     * @param parallelism 最多分成几段，一般为线程池的线程数
+     * @throws InterruptedException 等待计算结果时被中断
+     */
+    public static void getDegrees(final MoonPhaseModel model, final long[] timeMillis, final int[] degrees,
+                                  ExecutorService executor, int parallelism) throws InterruptedException {
+        int length = timeMillis.length;
+        checkRange(timeMillis, degrees, 0, length);
+        if (length <= PARALLEL_THRESHOLD || parallelism <= 1) {
+            getDegrees(model, timeMillis, degrees, 0, length);
+            return;
+        }
+        // 每段不少于PARALLEL_THRESHOLD / 2个，保证每段的计算量足以抵消调度的开销
+        int chunkCount = Math.min(parallelism, length / (PARALLEL_THRESHOLD / 2));
+        int chunkSize = (length + chunkCount - 1) / chunkCount;
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(chunkCount);
+        for (int start = 0; start < length; start += chunkSize) {
+            final int from = start;
+            final int to = Math.min(length, start + chunkSize);
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    getDegrees(model, timeMillis, degrees, from, to);
+                    return null;
+                }
+            });
+        }
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Moon phase batch failed", e.getCause());
+            }
+        }
+    }
+
+    private static void checkRange(long[] timeMillis, int[] degrees, int from, int to) {
+        if (from < 0 || to > timeMillis.length || from > to) {
+            throw new IndexOutOfBoundsException("from=" + from + ", to=" + to + ", length=" + timeMillis.length);
+        }
+        if (degrees.length < to) {
+            throw new IllegalArgumentException("The degrees array is shorter than the time array");
+        }
+    }
+}
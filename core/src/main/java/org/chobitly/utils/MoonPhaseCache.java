@@ -0,0 +1,74 @@
+package org.chobitly.utils;
+
+/**
+ * 缓存当前月相的计算结果。
+ * <p/>
+ * 月亮每11h48m44.05s才转动一个3度，在当前这一步的有效期[{@link #getValidFrom()}, {@link #getValidUntil()})内
+ * 直接返回缓存的角度，不再重复计算。
+ */
+public final class MoonPhaseCache {
+
+    private final MoonPhaseModel model;
+    private int degree;
+    // 有效期，初始为空区间，第一次调用时一定会计算
+    private long validFrom = Long.MAX_VALUE;
+    private long validUntil = Long.MIN_VALUE;
+
+    /**
+     * 使用{@link MoonPhase#SIMPLE_MODEL}计算月相
+     */
+    public MoonPhaseCache() {
+        this(MoonPhase.SIMPLE_MODEL);
+    }
+
+    /**
+     * @param model 月相模型
+     */
+    public MoonPhaseCache(MoonPhaseModel model) {
+        this.model = model;
+    }
+
+    /**
+     * 获取指定时间月亮需要转的角度，在有效期内不重新计算
+     *
+     * @param timeMillis epoch毫秒数
+     * @return 3的倍数
+     */
+    public synchronized int getDegree(long timeMillis) {
+        if (!isValid(timeMillis)) {
+            degree = model.getDegree(timeMillis);
+            validFrom = model.getDegreeStartMillis(timeMillis);
+            validUntil = model.getNextDegreeMillis(timeMillis);
+        }
+        return degree;
+    }
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @return 缓存的角度在指定时间是否仍然有效（时间被往回调时也会失效）
+     */
+    public synchronized boolean isValid(long timeMillis) {
+        return timeMillis >= validFrom && timeMillis < validUntil;
+    }
+
+    /**
+     * @return 缓存的角度开始生效的时间
+     */
+    public synchronized long getValidFrom() {
+        return validFrom;
+    }
+
+    /**
+     * @return 缓存的角度失效（月亮下一次转动）的时间
+     */
+    public synchronized long getValidUntil() {
+        return validUntil;
+    }
+
+    /**
+     * @return 使用的月相模型
+     */
+    public MoonPhaseModel getModel() {
+        return model;
+    }
+}
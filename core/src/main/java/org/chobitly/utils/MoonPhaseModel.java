@@ -0,0 +1,27 @@
+package org.chobitly.utils;
+
+/**
+ * 月相模型：根据时间计算月亮需要转的角度。
+ * <p/>
+ * 月亮每次转动3度，一个朔望月转180度，满月时为0度，新月时为90度。
+ */
+public interface MoonPhaseModel {
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @return 月亮需要转的角度，3的倍数
+     */
+    int getDegree(long timeMillis);
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @return 指定时间的角度开始生效的时间，不晚于timeMillis
+     */
+    long getDegreeStartMillis(long timeMillis);
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @return 指定时间之后角度第一次改变的时间，晚于timeMillis
+     */
+    long getNextDegreeMillis(long timeMillis);
+}
@@ -0,0 +1,95 @@
+package org.chobitly.utils;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 命令行工具：生成指定年份范围内按固定间隔采样的月相表（CSV）。
+ * <p/>
+ * 每次只计算一段时间戳并立即写入文件，内存占用与年份范围无关。
+ * <pre>
+ * 用法：MoonPhaseTableGenerator 起始年份 结束年份 间隔分钟数 输出文件 [simple|astro]
+ * 输出：epoch毫秒数,月亮角度
+ * </pre>
+ */
+public class MoonPhaseTableGenerator {
+
+    // 每段计算的时间戳个数
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 4) {
+            System.err.println("Usage: MoonPhaseTableGenerator <startYear> <endYear> <intervalMinutes> <outFile> [simple|astro]");
+            System.exit(1);
+        }
+        int startYear = Integer.parseInt(args[0]);
+        int endYear = Integer.parseInt(args[1]);
+        long intervalMillis = Long.parseLong(args[2]) * 60 * 1000;
+        MoonPhaseModel model = args.length > 4 && "astro".equals(args[4])
+                ? new LunationEngine() : MoonPhase.SIMPLE_MODEL;
+        if (intervalMillis <= 0 || endYear < startYear) {
+            throw new IllegalArgumentException("The interval must be positive and endYear >= startYear");
+        }
+
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(startYear, Calendar.JANUARY, 1);
+        long start = cal.getTimeInMillis();
+        cal.set(endYear + 1, Calendar.JANUARY, 1);
+        long end = cal.getTimeInMillis();
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[3]), "UTF-8"));
+        try {
+            writeTable(writer, model, start, end, intervalMillis, executor, threads);
+        } finally {
+            writer.close();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 将[start, end)内每隔intervalMillis的月相逐段写入writer
+     *
+     * @param writer         输出
+     * @param model          月相模型
+     * @param start          起始时间（包含）
+     * @param end            结束时间（不包含）
+     * @param intervalMillis 采样间隔
+     * @param executor       并行计算用的线程池
+     * @param parallelism    并行的段数
+     */
+    public static void writeTable(Writer writer, MoonPhaseModel model, long start, long end, long intervalMillis,
+                                  ExecutorService executor, int parallelism) throws IOException, InterruptedException {
+        long[] times = new long[CHUNK_SIZE];
+        int[] degrees = new int[CHUNK_SIZE];
+        long t = start;
+        while (t < end) {
+            int count = (int) Math.min(CHUNK_SIZE, (end - t + intervalMillis - 1) / intervalMillis);
+            for (int i = 0; i < count; i++, t += intervalMillis) {
+                times[i] = t;
+            }
+            if (count < CHUNK_SIZE) {
+                // 最后一段不足一整段时只计算有效的部分
+                MoonPhaseBatch.getDegrees(model, times, degrees, 0, count);
+            } else {
+                MoonPhaseBatch.getDegrees(model, times, degrees, executor, parallelism);
+            }
+            for (int i = 0; i < count; i++) {
+                writer.write(Long.toString(times[i]));
+                writer.write(',');
+                writer.write(Integer.toString(degrees[i]));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+}
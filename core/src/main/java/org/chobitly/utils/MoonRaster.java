@@ -0,0 +1,202 @@
+package org.chobitly.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 在int[]像素数组上完成图片的旋转和圆形裁剪，不依赖Android，可以在普通JVM上测试。
+ * <p/>
+ * 像素格式与Bitmap.getPixels()相同，即非预乘的ARGB。输出是边长为min(宽, 高)的正方形，
+ * 每个输出像素按旋转后的位置在原图中双线性插值，同时乘以内切圆的覆盖比例（边缘抗锯齿），
+ * 旋转和裁剪只需遍历一次输出像素。大图可以按行分段交给线程池并行处理，各段互不重叠，不需要同步。
+ */
+public class MoonRaster {
+
+    /**
+     * 输出像素超过这个数量才值得分段并行处理
+     */
+    public static final int PARALLEL_THRESHOLD = 64 * 1024;
+
+    // 坐标用16.16定点数逐像素累加
+    private static final int FIXED_SHIFT = 16;
+    private static final double FIXED_ONE = 1 << FIXED_SHIFT;
+
+    // 这个类不能实例化
+    private MoonRaster() {
+    }
+
+    /**
+     * @param srcWidth  原图宽度
+     * @param srcHeight 原图高度
+     * @return 输出正方形的边长
+     */
+    public static int getOutputSize(int srcWidth, int srcHeight) {
+        return Math.min(srcWidth, srcHeight);
+    }
+
+    /**
+     * 将原图绕中心顺时针旋转degree度，并裁剪成内切圆
+     *
+     * @param src       原图像素，非预乘的ARGB，按行存放
+     * @param srcWidth  原图宽度
+     * @param srcHeight 原图高度
+     * @param degree    顺时针旋转的角度，与Matrix.setRotate()相同
+     * @param dst       输出像素，长度不小于size * size
+     * @param size      输出正方形的边长，见{@link #getOutputSize(int, int)}
+     */
+    public static void rotateRound(int[] src, int srcWidth, int srcHeight, float degree, int[] dst, int size) {
+        rotateRound(src, srcWidth, srcHeight, degree, dst, size, 0, size);
+    }
+
+    /**
+     * 只处理输出的[fromRow, toRow)行，其余参数见{@link #rotateRound(int[], int, int, float, int[], int)}
+     *
+     * @param fromRow 开始行（包含）
+     * @param toRow   结束行（不包含）
+     */
+    public static void rotateRound(int[] src, int srcWidth, int srcHeight, float degree, int[] dst, int size,
+                                   int fromRow, int toRow) {
+        checkArguments(src, srcWidth, srcHeight, dst, size);
+        if (fromRow < 0 || toRow > size || fromRow > toRow) {
+            throw new IndexOutOfBoundsException("fromRow=" + fromRow + ", toRow=" + toRow + ", size=" + size);
+        }
+        double radians = Math.toRadians(degree);
+        double cos = Math.cos(radians);
+        double sin = Math.sin(radians);
+        double center = size / 2.0;
+        // 完全在圆内和完全在圆外的距离平方，两者之间是需要抗锯齿的边缘
+        double radius = size / 2.0;
+        double innerSquare = (radius - 0.5) * (radius - 0.5);
+        double outerSquare = (radius + 0.5) * (radius + 0.5);
+        // 输出每向右移动一个像素，原图坐标的增量
+        int stepX = (int) Math.round(cos * FIXED_ONE);
+        int stepY = (int) Math.round(-sin * FIXED_ONE);
+
+        for (int y = fromRow; y < toRow; y++) {
+            double oy = y + 0.5 - center;
+            double ox = 0.5 - center;
+            // 逆向旋转得到输出像素中心在原图中的位置（以像素中心为整数坐标）
+            int fx = (int) Math.round((cos * ox + sin * oy + srcWidth / 2.0 - 0.5) * FIXED_ONE);
+            int fy = (int) Math.round((-sin * ox + cos * oy + srcHeight / 2.0 - 0.5) * FIXED_ONE);
+            int offset = y * size;
+            for (int x = 0; x < size; x++, ox++, fx += stepX, fy += stepY) {
+                double distanceSquare = ox * ox + oy * oy;
+                if (distanceSquare >= outerSquare) {
+                    dst[offset + x] = 0;
+                    continue;
+                }
+                int coverage = distanceSquare <= innerSquare ? 256
+                        : (int) (Math.max(0, Math.min(1, radius + 0.5 - Math.sqrt(distanceSquare))) * 256);
+                dst[offset + x] = sample(src, srcWidth, srcHeight, fx, fy, coverage);
+            }
+        }
+    }
+
+    /**
+     * 按行分段并行处理，输出像素不超过{@link #PARALLEL_THRESHOLD}时直接在当前线程处理。
+     * 其余参数见{@link #rotateRound(int[], int, int, float, int[], int)}
+     *
+     * @param executor    执行分段处理的线程池，API 21以上或普通JVM上也可以是ForkJoinPool
+     * @param parallelism 最多分成几段，一般为线程池的线程数
+     * @throws InterruptedException 等待处理结果时被中断
+     */
+    public static void rotateRound(final int[] src, final int srcWidth, final int srcHeight, final float degree,
+                                   final int[] dst, final int size, ExecutorService executor, int parallelism)
+            throws InterruptedException {
+        checkArguments(src, srcWidth, srcHeight, dst, size);
+        int pixels = size * size;
+        if (pixels <= PARALLEL_THRESHOLD || parallelism <= 1) {
+            rotateRound(src, srcWidth, srcHeight, degree, dst, size, 0, size);
+            return;
+        }
+        // 每段不少于PARALLEL_THRESHOLD / 2个像素，保证每段的计算量足以抵消调度的开销
+        int chunkCount = Math.min(parallelism, pixels / (PARALLEL_THRESHOLD / 2));
+        int rowsPerChunk = (size + chunkCount - 1) / chunkCount;
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(chunkCount);
+        for (int start = 0; start < size; start += rowsPerChunk) {
+            final int fromRow = start;
+            final int toRow = Math.min(size, start + rowsPerChunk);
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    rotateRound(src, srcWidth, srcHeight, degree, dst, size, fromRow, toRow);
+                    return null;
+                }
+            });
+        }
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Raster rotation failed", e.getCause());
+            }
+        }
+    }
+
+    // 在定点坐标(fx, fy)处双线性插值，再乘以覆盖比例coverage（0~256），返回非预乘的ARGB
+    private static int sample(int[] src, int width, int height, int fx, int fy, int coverage) {
+        int x0 = fx >> FIXED_SHIFT;
+        int y0 = fy >> FIXED_SHIFT;
+        // 8位的插值权重
+        int wx = (fx >> (FIXED_SHIFT - 8)) & 0xff;
+        int wy = (fy >> (FIXED_SHIFT - 8)) & 0xff;
+        int p00 = pixelAt(src, width, height, x0, y0);
+        int p01 = pixelAt(src, width, height, x0 + 1, y0);
+        int p10 = pixelAt(src, width, height, x0, y0 + 1);
+        int p11 = pixelAt(src, width, height, x0 + 1, y0 + 1);
+
+        if ((p00 & p01 & p10 & p11) >>> 24 == 0xff) {
+            // 四个像素都不透明时不需要预乘
+            int r = lerp(p00 >> 16 & 0xff, p01 >> 16 & 0xff, p10 >> 16 & 0xff, p11 >> 16 & 0xff, wx, wy);
+            int g = lerp(p00 >> 8 & 0xff, p01 >> 8 & 0xff, p10 >> 8 & 0xff, p11 >> 8 & 0xff, wx, wy);
+            int b = lerp(p00 & 0xff, p01 & 0xff, p10 & 0xff, p11 & 0xff, wx, wy);
+            int a = coverage == 256 ? 0xff : 0xff * coverage >> 8;
+            return a << 24 | r << 16 | g << 8 | b;
+        }
+
+        // 有透明像素时按预乘的颜色插值，避免透明像素的颜色渗入
+        int a = lerp(p00 >>> 24, p01 >>> 24, p10 >>> 24, p11 >>> 24, wx, wy) * coverage >> 8;
+        if (a == 0) {
+            return 0;
+        }
+        int r = lerp(premultiply(p00, 16), premultiply(p01, 16), premultiply(p10, 16), premultiply(p11, 16),
+                wx, wy) * coverage >> 8;
+        int g = lerp(premultiply(p00, 8), premultiply(p01, 8), premultiply(p10, 8), premultiply(p11, 8),
+                wx, wy) * coverage >> 8;
+        int b = lerp(premultiply(p00, 0), premultiply(p01, 0), premultiply(p10, 0), premultiply(p11, 0),
+                wx, wy) * coverage >> 8;
+        return a << 24 | unpremultiply(r, a) << 16 | unpremultiply(g, a) << 8 | unpremultiply(b, a);
+    }
+
+    // 原图以外的像素是透明的
+    private static int pixelAt(int[] src, int width, int height, int x, int y) {
+        return x < 0 || y < 0 || x >= width || y >= height ? 0 : src[y * width + x];
+    }
+
+    private static int lerp(int c00, int c01, int c10, int c11, int wx, int wy) {
+        int top = c00 * (256 - wx) + c01 * wx;
+        int bottom = c10 * (256 - wx) + c11 * wx;
+        return (top * (256 - wy) + bottom * wy) >> 16;
+    }
+
+    private static int premultiply(int argb, int shift) {
+        return ((argb >> shift & 0xff) * (argb >>> 24) + 127) / 255;
+    }
+
+    private static int unpremultiply(int component, int alpha) {
+        return Math.min(0xff, (component * 0xff + alpha / 2) / alpha);
+    }
+
+    private static void checkArguments(int[] src, int srcWidth, int srcHeight, int[] dst, int size) {
+        if (srcWidth <= 0 || srcHeight <= 0 || src.length < srcWidth * srcHeight) {
+            throw new IllegalArgumentException("The source is smaller than " + srcWidth + "x" + srcHeight);
+        }
+        if (size <= 0 || dst.length < size * size) {
+            throw new IllegalArgumentException("The destination is smaller than " + size + "x" + size);
+        }
+    }
+}
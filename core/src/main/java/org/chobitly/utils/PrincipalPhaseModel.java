@@ -0,0 +1,204 @@
+package org.chobitly.utils;
+
+/**
+ * 以主要月相（新月、上弦、满月、下弦）的时刻为节点的月相模型。
+ * <p/>
+ * 相邻两个主要月相之间月亮转45度（15个3度），在两个节点之间按时间线性分配。
+ * 主要月相的序号index = 4 * k + j，k为从2000-01-06的新月开始数的朔望月序号，
+ * j为0（新月）、1（上弦）、2（满月）、3（下弦）。
+ * <p/>
+ * 每个线程最近一次用到的区间会被缓存，时间落在缓存区间内时不需要重新计算主要月相的时刻；
+ * 跨入下一个区间时只需再计算一个节点，因此每分钟调用一次的开销基本不变。
+ * 缓存按线程分开，{@link MoonPhaseBatch}的多个线程共用一个模型时不会互相覆盖。
+ */
+public abstract class PrincipalPhaseModel implements MoonPhaseModel {
+
+    public static final int NEW_MOON = 0;
+    public static final int FIRST_QUARTER = 1;
+    public static final int FULL_MOON = 2;
+    public static final int LAST_QUARTER = 3;
+
+    /**
+     * 平均朔望月长度（天）
+     */
+    public static final double SYNODIC_MONTH_DAYS = 29.530588861;
+    /**
+     * 2000-01-06 18:14（力学时）平新月的儒略日
+     */
+    static final double MEAN_NEW_MOON_2000_JDE = 2451550.09766;
+    /**
+     * 1970-01-01 00:00（世界时）的儒略日
+     */
+    static final double UNIX_EPOCH_JD = 2440587.5;
+    static final double MILLIS_PER_DAY = 86400000d;
+
+    // 每两个主要月相之间的3度个数
+    private static final int STEPS_PER_QUARTER = 15;
+    // 区间内用半步来定位步数的变化点
+    private static final int HALF_STEPS_PER_QUARTER = 2 * STEPS_PER_QUARTER;
+
+    /**
+     * 缓存的区间[start, end)，以及下一个节点next
+     */
+    private static final class Segment {
+        final long index;
+        final long start;
+        final long end;
+        final long next;
+
+        Segment(long index, long start, long end, long next) {
+            this.index = index;
+            this.start = start;
+            this.end = end;
+            this.next = next;
+        }
+    }
+
+    private final ThreadLocal<Segment> segment = new ThreadLocal<Segment>();
+
+    /**
+     * 计算指定主要月相的时刻
+     *
+     * @param index 主要月相的序号，见类说明
+     * @return epoch毫秒数（世界时）
+     */
+    public abstract long getPhaseMillis(long index);
+
+    /**
+     * 估算指定时间之前最近的主要月相的序号，允许有一两个的误差
+     *
+     * @param timeMillis epoch毫秒数
+     * @return 主要月相的序号
+     */
+    protected long estimatePhaseIndex(long timeMillis) {
+        double days = timeMillis / MILLIS_PER_DAY + UNIX_EPOCH_JD - MEAN_NEW_MOON_2000_JDE;
+        return (long) Math.floor(days * 4 / SYNODIC_MONTH_DAYS);
+    }
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @return 不晚于指定时间的最近的主要月相的序号
+     */
+    public long getPhaseIndex(long timeMillis) {
+        return findSegment(timeMillis).index;
+    }
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @return 晚于指定时间的下一个新月的时刻
+     */
+    public long getNextNewMoonMillis(long timeMillis) {
+        return getNextPhaseMillis(timeMillis, NEW_MOON);
+    }
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @return 晚于指定时间的下一个满月的时刻
+     */
+    public long getNextFullMoonMillis(long timeMillis) {
+        return getNextPhaseMillis(timeMillis, FULL_MOON);
+    }
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @param phase      {@link #NEW_MOON}、{@link #FIRST_QUARTER}、{@link #FULL_MOON}或{@link #LAST_QUARTER}
+     * @return 晚于指定时间的下一个指定月相的时刻
+     */
+    public long getNextPhaseMillis(long timeMillis, int phase) {
+        long index = findSegment(timeMillis).index + 1;
+        index += floorMod(phase - index, 4);
+        return getPhaseMillis(index);
+    }
+
+    /**
+     * 计算月亮与太阳的黄经差（月龄角），在主要月相之间线性插值
+     *
+     * @param timeMillis epoch毫秒数
+     * @return 0~360度，新月为0度，满月为180度
+     */
+    public double getElongation(long timeMillis) {
+        Segment s = findSegment(timeMillis);
+        double fraction = (double) (timeMillis - s.start) / (s.end - s.start);
+        return 90 * (floorMod(s.index, 4) + fraction);
+    }
+
+    @Override
+    public int getDegree(long timeMillis) {
+        Segment s = findSegment(timeMillis);
+        return MoonPhase.DEGREE_PER_STEP * (int) (getStep(s, halfStepOf(s, timeMillis)) % MoonPhase.STEPS_PER_CYCLE);
+    }
+
+    @Override
+    public long getDegreeStartMillis(long timeMillis) {
+        Segment s = findSegment(timeMillis);
+        int halfStep = halfStepOf(s, timeMillis);
+        if (halfStep == 0) {
+            // 区间开头的半步属于上一个区间的最后一步
+            long prevStart = getPhaseMillis(s.index - 1);
+            return halfStepMillis(prevStart, s.start, HALF_STEPS_PER_QUARTER - 1);
+        }
+        // 上一个奇数半步处为本步的开始
+        return halfStepMillis(s.start, s.end, halfStep % 2 == 0 ? halfStep - 1 : halfStep);
+    }
+
+    @Override
+    public long getNextDegreeMillis(long timeMillis) {
+        Segment s = findSegment(timeMillis);
+        int halfStep = halfStepOf(s, timeMillis);
+        int next = halfStep % 2 == 0 ? halfStep + 1 : halfStep + 2;
+        if (next < HALF_STEPS_PER_QUARTER) {
+            return halfStepMillis(s.start, s.end, next);
+        }
+        return halfStepMillis(s.end, s.next, 1);
+    }
+
+    // 从满月开始数的3度个数，满月在区间开头四舍五入为第0步
+    private static long getStep(Segment s, int halfStep) {
+        long quarter = floorMod(s.index - FULL_MOON, 4);
+        return quarter * STEPS_PER_QUARTER + (halfStep + 1) / 2;
+    }
+
+    private static int halfStepOf(Segment s, long timeMillis) {
+        return (int) (HALF_STEPS_PER_QUARTER * (timeMillis - s.start) / (s.end - s.start));
+    }
+
+    // 区间[start, end)内第halfStep个半步的时刻，向上取整
+    private static long halfStepMillis(long start, long end, int halfStep) {
+        long offset = (end - start) * halfStep;
+        return start + (offset + HALF_STEPS_PER_QUARTER - 1) / HALF_STEPS_PER_QUARTER;
+    }
+
+    private Segment findSegment(long timeMillis) {
+        Segment s = segment.get();
+        if (s != null) {
+            if (timeMillis >= s.start && timeMillis < s.end) {
+                return s;
+            }
+            if (timeMillis >= s.end && timeMillis < s.next) {
+                // 进入下一个区间，只需要再计算一个节点
+                s = new Segment(s.index + 1, s.end, s.next, getPhaseMillis(s.index + 3));
+                segment.set(s);
+                return s;
+            }
+        }
+        long index = estimatePhaseIndex(timeMillis);
+        long start = getPhaseMillis(index);
+        while (start > timeMillis) {
+            start = getPhaseMillis(--index);
+        }
+        long end = getPhaseMillis(index + 1);
+        while (end <= timeMillis) {
+            index++;
+            start = end;
+            end = getPhaseMillis(index + 1);
+        }
+        s = new Segment(index, start, end, getPhaseMillis(index + 2));
+        segment.set(s);
+        return s;
+    }
+
+    static long floorMod(long x, long y) {
+        long mod = x % y;
+        return mod < 0 ? mod + y : mod;
+    }
+}
@@ -0,0 +1,515 @@
+package org.chobitly.utils;
+
+/**
+ * 二十四节气，支持1900~2100年，时刻精确到分钟。
+ * <p/>
+ * 每年从小寒开始到冬至共24个节气，按时间先后编号，1900年小寒的序号为0。
+ * 表中每个节气只存一个short，即实际时刻与平均时刻之差（分钟），平均时刻从{@link #BASE_MILLIS}开始
+ * 每隔{@link #TERM_MILLIS}一个，因此按序号或按时间查找节气都只需要查一次表。
+ * 表格由{@link SolarTermsGenerator}生成。
+ */
+public class SolarTerms {
+
+    public static final int MIN_YEAR = 1900;
+    public static final int MAX_YEAR = 2100;
+    public static final int TERMS_PER_YEAR = 24;
+    /**
+     * 节气的总数
+     */
+    public static final int COUNT = (MAX_YEAR - MIN_YEAR + 1) * TERMS_PER_YEAR;
+
+    /**
+     * 序号为0的节气（1900年小寒）的平均时刻，epoch毫秒数
+     */
+    static final long BASE_MILLIS = -2208566640000L;
+    /**
+     * 相邻两个节气平均相隔的毫秒数，即回归年365.2422天的二十四分之一
+     */
+    static final long TERM_MILLIS = 1314871920L;
+
+    private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+
+    private static final String[] NAMES = {
+            "小寒", "大寒", "立春", "雨水", "惊蛰", "春分", "清明", "谷雨", "立夏", "小满", "芒种", "夏至",
+            "小暑", "大暑", "立秋", "处暑", "白露", "秋分", "寒露", "霜降", "立冬", "小雪", "大雪", "冬至"};
+
+    private static final short[] OFFSETS = {
+            -192, -898, -1553, -2098, -2512, -2750, -2810, -2670, -2357, -1870, -1262, -556, // 1900
+            180, 911, 1571, 2126, 2528, 2757, 2796, 2643, 2313, 1827, 1220, 531,
+            -191, -903, -1554, -2103, -2512, -2754, -2807, -2673, -2350, -1871, -1253, -557, // 1901
+            189, 910, 1578, 2125, 2533, 2757, 2800, 2645, 2319, 1831, 1228, 538,
+            -182, -896, -1544, -2097, -2504, -2750, -2803, -2671, -2351, -1871, -1259, -558, // 1902
+            179, 907, 1565, 2122, 2520, 2755, 2790, 2646, 2314, 1837, 1228, 548,
+            -178, -883, -1540, -2085, -2502, -2740, -2804, -2665, -2353, -1868, -1260, -557, // 1903
+            180, 908, 1570, 2121, 2528, 2754, 2798, 2645, 2320, 1834, 1233, 544,
+            -174, -888, -1536, -2090, -2497, -2745, -2799, -2671, -2349, -1873, -1255, -559, // 1904
+            186, 910, 1577, 2127, 2534, 2762, 2803, 2652, 2323, 1840, 1235, 549,
+            -173, -882, -1533, -2082, -2492, -2735, -2792, -2658, -2342, -1859, -1251, -548, // 1905
+            186, 917, 1574, 2131, 2530, 2763, 2798, 2652, 2319, 1840, 1231, 550,
+            -175, -880, -1534, -2078, -2491, -2728, -2788, -2651, -2336, -1854, -1245, -547, // 1906
+            192, 915, 1580, 2127, 2535, 2759, 2805, 2650, 2328, 1840, 1241, 550,
+            -166, -881, -1527, -2082, -2488, -2737, -2790, -2662, -2340, -1865, -1250, -554, // 1907
+            188, 912, 1575, 2128, 2532, 2765, 2804, 2658, 2328, 1850, 1242, 560,
+            -165, -873, -1528, -2076, -2490, -2731, -2793, -2656, -2344, -1859, -1252, -547, // 1908
+            188, 919, 1577, 2133, 2534, 2765, 2803, 2655, 2325, 1843, 1238, 553,
+            -169, -878, -1531, -2080, -2492, -2734, -2792, -2659, -2340, -1860, -1246, -549, // 1909
+            195, 917, 1584, 2131, 2539, 2763, 2807, 2652, 2328, 1840, 1240, 551,
+            -166, -879, -1525, -2079, -2485, -2733, -2788, -2659, -2340, -1864, -1252, -555, // 1910
+            183, 910, 1570, 2126, 2526, 2760, 2796, 2652, 2319, 1842, 1234, 554,
+            -171, -875, -1531, -2076, -2492, -2731, -2795, -2658, -2348, -1864, -1260, -557, // 1911
+            178, 907, 1569, 2123, 2528, 2758, 2801, 2650, 2324, 1838, 1236, 547,
+            -174, -886, -1537, -2089, -2498, -2744, -2800, -2670, -2350, -1875, -1259, -564, // 1912
+            181, 904, 1573, 2122, 2532, 2760, 2804, 2653, 2327, 1842, 1238, 549,
+            -172, -885, -1536, -2089, -2499, -2745, -2801, -2669, -2351, -1871, -1262, -560, // 1913
+            175, 905, 1562, 2120, 2520, 2756, 2792, 2649, 2317, 1840, 1231, 551,
+            -176, -881, -1539, -2084, -2501, -2741, -2804, -2667, -2355, -1872, -1264, -563, // 1914
+            174, 899, 1563, 2113, 2521, 2748, 2795, 2643, 2322, 1837, 1239, 549,
+            -167, -882, -1531, -2088, -2497, -2749, -2805, -2680, -2361, -1888, -1273, -578, // 1915
+            166, 890, 1557, 2110, 2517, 2749, 2792, 2646, 2320, 1841, 1237, 554,
+            -168, -877, -1531, -2082, -2497, -2742, -2805, -2673, -2363, -1881, -1276, -572, // 1916
+            163, 896, 1555, 2114, 2516, 2751, 2790, 2645, 2315, 1836, 1230, 548,
+            -175, -882, -1536, -2084, -2498, -2740, -2802, -2669, -2355, -1877, -1267, -570, // 1917
+            171, 894, 1562, 2111, 2522, 2748, 2796, 2642, 2321, 1835, 1236, 546,
+            -169, -884, -1530, -2085, -2491, -2741, -2796, -2670, -2352, -1879, -1268, -574, // 1918
+            164, 889, 1550, 2105, 2509, 2745, 2785, 2643, 2314, 1839, 1233, 553,
+            -171, -876, -1532, -2079, -2495, -2736, -2801, -2666, -2357, -1874, -1271, -569, // 1919
+            164, 893, 1552, 2108, 2512, 2746, 2789, 2643, 2318, 1837, 1236, 550,
+            -170, -881, -1534, -2086, -2498, -2745, -2803, -2674, -2356, -1880, -1266, -571, // 1920
+            173, 895, 1563, 2112, 2523, 2750, 2796, 2645, 2323, 1839, 1239, 551,
+            -166, -880, -1529, -2084, -2493, -2742, -2798, -2669, -2352, -1874, -1264, -564, // 1921
+            172, 901, 1560, 2117, 2517, 2753, 2789, 2646, 2315, 1839, 1232, 553,
+            -172, -875, -1531, -2076, -2493, -2733, -2798, -2662, -2352, -1869, -1264, -562, // 1922
+            174, 902, 1565, 2117, 2525, 2754, 2799, 2648, 2326, 1841, 1242, 554,
+            -164, -877, -1526, -2081, -2491, -2741, -2799, -2674, -2355, -1883, -1269, -575, // 1923
+            170, 894, 1563, 2116, 2527, 2759, 2804, 2657, 2332, 1851, 1247, 561,
+            -161, -872, -1526, -2078, -2492, -2739, -2800, -2669, -2357, -1877, -1270, -567, // 1924
+            169, 902, 1562, 2124, 2527, 2765, 2804, 2662, 2332, 1855, 1247, 565,
+            -162, -870, -1527, -2076, -2493, -2736, -2800, -2666, -2353, -1873, -1264, -565, // 1925
+            176, 901, 1569, 2120, 2533, 2761, 2811, 2660, 2340, 1855, 1257, 567,
+            -150, -866, -1515, -2073, -2482, -2735, -2793, -2669, -2352, -1880, -1267, -574, // 1926
+            167, 892, 1557, 2112, 2519, 2756, 2799, 2658, 2333, 1858, 1255, 575,
+            -148, -855, -1512, -2062, -2480, -2726, -2794, -2663, -2356, -1875, -1273, -570, // 1927
+            163, 895, 1555, 2115, 2520, 2757, 2801, 2658, 2334, 1856, 1254, 572,
+            -150, -859, -1514, -2066, -2482, -2730, -2794, -2666, -2354, -1880, -1269, -575, // 1928
+            169, 892, 1563, 2114, 2528, 2757, 2807, 2657, 2338, 1854, 1256, 568,
+            -148, -862, -1510, -2067, -2476, -2728, -2786, -2661, -2346, -1873, -1265, -569, // 1929
+            167, 894, 1555, 2113, 2517, 2755, 2795, 2655, 2327, 1853, 1247, 568,
+            -156, -860, -1517, -2063, -2481, -2722, -2789, -2655, -2348, -1868, -1266, -566, // 1930
+            166, 894, 1555, 2109, 2517, 2750, 2797, 2651, 2331, 1850, 1252, 566,
+            -152, -865, -1516, -2071, -2484, -2734, -2794, -2670, -2354, -1883, -1271, -580, // 1931
+            163, 885, 1554, 2105, 2517, 2749, 2798, 2652, 2331, 1852, 1253, 568,
+            -151, -864, -1516, -2072, -2485, -2736, -2797, -2670, -2358, -1881, -1274, -574, // 1932
+            161, 893, 1552, 2112, 2514, 2752, 2792, 2651, 2322, 1848, 1242, 563,
+            -162, -867, -1525, -2073, -2492, -2735, -2802, -2669, -2360, -1879, -1273, -573, // 1933
+            165, 891, 1557, 2109, 2520, 2749, 2797, 2647, 2327, 1843, 1246, 558,
+            -158, -872, -1519, -2076, -2486, -2739, -2798, -2676, -2359, -1890, -1278, -586, // 1934
+            156, 879, 1546, 2100, 2509, 2744, 2789, 2646, 2322, 1845, 1243, 561,
+            -160, -869, -1523, -2074, -2491, -2738, -2804, -2674, -2367, -1889, -1286, -585, // 1935
+            148, 881, 1542, 2103, 2509, 2748, 2791, 2650, 2324, 1847, 1242, 560,
+            -165, -874, -1531, -2082, -2500, -2746, -2812, -2682, -2371, -1895, -1286, -590, // 1936
+            152, 877, 1548, 2101, 2516, 2747, 2799, 2650, 2332, 1848, 1251, 561,
+            -157, -874, -1524, -2083, -2494, -2748, -2806, -2683, -2366, -1894, -1283, -588, // 1937
+            151, 878, 1542, 2099, 2507, 2745, 2789, 2650, 2324, 1851, 1246, 567,
+            -158, -865, -1523, -2073, -2493, -2739, -2808, -2676, -2370, -1890, -1288, -586, // 1938
+            148, 879, 1540, 2099, 2506, 2743, 2791, 2649, 2329, 1852, 1253, 570,
+            -150, -862, -1516, -2072, -2490, -2742, -2808, -2685, -2373, -1902, -1292, -598, // 1939
+            146, 870, 1542, 2095, 2512, 2744, 2797, 2652, 2335, 1855, 1259, 574,
+            -143, -857, -1508, -2067, -2481, -2736, -2799, -2677, -2367, -1894, -1288, -590, // 1940
+            147, 878, 1541, 2104, 2510, 2752, 2794, 2656, 2329, 1857, 1251, 574,
+            -151, -856, -1515, -2063, -2483, -2728, -2798, -2667, -2362, -1883, -1281, -582, // 1941
+            153, 882, 1547, 2103, 2516, 2750, 2801, 2656, 2338, 1857, 1261, 574,
+            -142, -855, -1505, -2061, -2473, -2726, -2787, -2667, -2354, -1886, -1277, -588, // 1942
+            153, 874, 1543, 2096, 2509, 2745, 2796, 2655, 2336, 1861, 1263, 581,
+            -138, -849, -1502, -2056, -2472, -2723, -2789, -2663, -2356, -1881, -1279, -581, // 1943
+            151, 883, 1542, 2104, 2510, 2752, 2796, 2659, 2335, 1863, 1260, 582,
+            -142, -849, -1508, -2058, -2479, -2726, -2795, -2666, -2358, -1882, -1276, -579, // 1944
+            160, 885, 1554, 2107, 2521, 2753, 2805, 2658, 2342, 1861, 1266, 579,
+            -136, -851, -1500, -2059, -2471, -2726, -2786, -2665, -2350, -1881, -1270, -578, // 1945
+            162, 886, 1551, 2107, 2515, 2752, 2797, 2657, 2333, 1859, 1257, 579,
+            -143, -849, -1504, -2054, -2473, -2719, -2788, -2659, -2354, -1876, -1276, -575, // 1946
+            157, 889, 1549, 2109, 2516, 2754, 2800, 2659, 2337, 1862, 1261, 580,
+            -142, -851, -1507, -2060, -2478, -2728, -2795, -2670, -2361, -1890, -1282, -589, // 1947
+            153, 877, 1549, 2103, 2520, 2753, 2808, 2662, 2346, 1864, 1268, 580,
+            -137, -853, -1504, -2064, -2477, -2733, -2795, -2674, -2361, -1890, -1282, -586, // 1948
+            152, 882, 1546, 2108, 2516, 2758, 2802, 2665, 2339, 1867, 1261, 582,
+            -144, -852, -1512, -2062, -2484, -2730, -2801, -2670, -2365, -1886, -1284, -583, // 1949
+            152, 882, 1546, 2105, 2516, 2753, 2804, 2661, 2343, 1865, 1268, 583,
+            -136, -849, -1503, -2060, -2477, -2732, -2797, -2677, -2366, -1898, -1288, -598, // 1950
+            145, 867, 1537, 2091, 2507, 2742, 2796, 2654, 2339, 1863, 1268, 585,
+            -133, -846, -1499, -2057, -2475, -2730, -2798, -2677, -2370, -1898, -1296, -598, // 1951
+            136, 869, 1531, 2095, 2502, 2747, 2792, 2657, 2333, 1863, 1259, 583,
+            -142, -848, -1508, -2059, -2483, -2731, -2804, -2677, -2374, -1899, -1297, -599, // 1952
+            138, 867, 1536, 2093, 2509, 2745, 2799, 2654, 2339, 1859, 1264, 577,
+            -139, -854, -1504, -2063, -2476, -2733, -2795, -2677, -2364, -1899, -1290, -601, // 1953
+            140, 863, 1531, 2087, 2500, 2738, 2788, 2649, 2330, 1856, 1257, 577,
+            -144, -853, -1508, -2061, -2479, -2729, -2797, -2672, -2367, -1893, -1294, -595, // 1954
+            135, 867, 1526, 2089, 2496, 2739, 2786, 2651, 2330, 1860, 1259, 581,
+            -142, -851, -1509, -2063, -2485, -2736, -2806, -2682, -2376, -1905, -1300, -607, // 1955
+            133, 857, 1528, 2083, 2501, 2736, 2792, 2649, 2336, 1857, 1265, 578,
+            -137, -853, -1504, -2066, -2480, -2739, -2803, -2685, -2373, -1905, -1296, -603, // 1956
+            137, 864, 1530, 2090, 2499, 2741, 2787, 2651, 2328, 1858, 1255, 578,
+            -145, -852, -1510, -2061, -2484, -2732, -2804, -2676, -2374, -1896, -1296, -595, // 1957
+            138, 870, 1533, 2094, 2504, 2743, 2793, 2652, 2334, 1858, 1261, 579,
+            -140, -850, -1504, -2060, -2478, -2731, -2799, -2679, -2371, -1904, -1298, -607, // 1958
+            135, 857, 1529, 2083, 2502, 2737, 2793, 2651, 2337, 1859, 1265, 581,
+            -135, -849, -1500, -2059, -2475, -2731, -2797, -2678, -2371, -1902, -1298, -603, // 1959
+            132, 863, 1527, 2092, 2502, 2748, 2795, 2662, 2338, 1868, 1264, 587,
+            -140, -846, -1508, -2059, -2484, -2732, -2806, -2678, -2376, -1899, -1299, -600, // 1960
+            136, 866, 1534, 2094, 2511, 2750, 2805, 2664, 2349, 1871, 1276, 590,
+            -128, -844, -1497, -2058, -2474, -2731, -2796, -2677, -2366, -1899, -1290, -601, // 1961
+            141, 864, 1534, 2090, 2506, 2745, 2799, 2660, 2345, 1872, 1275, 594,
+            -125, -836, -1491, -2049, -2468, -2723, -2792, -2671, -2366, -1894, -1294, -595, // 1962
+            137, 869, 1531, 2095, 2503, 2749, 2797, 2664, 2345, 1877, 1277, 601,
+            -122, -829, -1490, -2043, -2469, -2721, -2797, -2674, -2373, -1901, -1299, -604, // 1963
+            135, 862, 1534, 2091, 2511, 2748, 2806, 2664, 2353, 1876, 1285, 599,
+            -115, -831, -1481, -2043, -2459, -2720, -2786, -2672, -2362, -1898, -1291, -600, // 1964
+            141, 867, 1536, 2096, 2510, 2752, 2803, 2667, 2347, 1876, 1276, 598,
+            -124, -831, -1489, -2042, -2463, -2714, -2786, -2661, -2361, -1886, -1289, -590, // 1965
+            141, 873, 1535, 2099, 2509, 2753, 2804, 2668, 2350, 1878, 1280, 600,
+            -120, -829, -1486, -2040, -2461, -2714, -2785, -2665, -2360, -1893, -1290, -601, // 1966
+            138, 860, 1531, 2085, 2505, 2741, 2800, 2660, 2350, 1874, 1283, 599,
+            -115, -830, -1482, -2043, -2460, -2719, -2786, -2670, -2362, -1896, -1292, -600, // 1967
+            135, 863, 1528, 2091, 2502, 2747, 2796, 2664, 2343, 1876, 1274, 599,
+            -126, -833, -1494, -2047, -2473, -2723, -2798, -2673, -2373, -1897, -1298, -599, // 1968
+            135, 866, 1532, 2093, 2507, 2747, 2801, 2661, 2346, 1871, 1276, 593,
+            -124, -837, -1491, -2050, -2468, -2725, -2793, -2676, -2367, -1902, -1295, -606, // 1969
+            136, 858, 1530, 2084, 2502, 2739, 2794, 2654, 2340, 1865, 1271, 589,
+            -128, -840, -1493, -2051, -2469, -2726, -2795, -2677, -2372, -1903, -1303, -607, // 1970
+            126, 858, 1521, 2086, 2496, 2742, 2790, 2658, 2337, 1870, 1268, 592,
+            -133, -840, -1502, -2055, -2482, -2733, -2810, -2686, -2387, -1914, -1315, -619, // 1971
+            118, 847, 1518, 2079, 2499, 2739, 2799, 2658, 2347, 1870, 1277, 591,
+            -126, -843, -1496, -2059, -2477, -2738, -2806, -2691, -2382, -1918, -1311, -621, // 1972
+            121, 846, 1518, 2078, 2495, 2738, 2793, 2658, 2341, 1870, 1272, 591,
+            -131, -842, -1501, -2058, -2482, -2736, -2809, -2687, -2386, -1913, -1314, -615, // 1973
+            117, 851, 1513, 2079, 2491, 2738, 2789, 2658, 2341, 1873, 1275, 597,
+            -125, -834, -1494, -2050, -2476, -2731, -2807, -2688, -2387, -1919, -1318, -627, // 1974
+            112, 836, 1509, 2066, 2488, 2727, 2788, 2650, 2343, 1868, 1280, 597,
+            -116, -832, -1483, -2047, -2466, -2730, -2799, -2688, -2383, -1921, -1317, -627, // 1975
+            111, 839, 1508, 2072, 2487, 2735, 2787, 2656, 2338, 1872, 1273, 598,
+            -125, -832, -1492, -2046, -2472, -2725, -2803, -2681, -2384, -1912, -1316, -618, // 1976
+            114, 847, 1513, 2078, 2493, 2739, 2794, 2660, 2346, 1874, 1279, 599,
+            -120, -831, -1487, -2044, -2465, -2721, -2792, -2675, -2371, -1907, -1304, -617, // 1977
+            122, 844, 1516, 2071, 2492, 2731, 2791, 2653, 2344, 1871, 1280, 598,
+            -117, -830, -1482, -2043, -2460, -2719, -2788, -2672, -2367, -1902, -1302, -610, // 1978
+            123, 852, 1514, 2079, 2490, 2739, 2789, 2661, 2344, 1879, 1280, 607,
+            -117, -823, -1485, -2039, -2467, -2719, -2798, -2675, -2378, -1906, -1309, -612, // 1979
+            122, 851, 1519, 2080, 2499, 2741, 2800, 2663, 2353, 1880, 1289, 607,
+            -109, -823, -1477, -2039, -2459, -2720, -2790, -2676, -2369, -1906, -1299, -610, // 1980
+            132, 856, 1528, 2085, 2503, 2744, 2800, 2664, 2350, 1879, 1284, 604,
+            -114, -825, -1480, -2038, -2459, -2716, -2788, -2669, -2368, -1897, -1299, -601, // 1981
+            131, 865, 1528, 2094, 2504, 2752, 2802, 2670, 2352, 1885, 1285, 610,
+            -112, -819, -1479, -2032, -2458, -2712, -2789, -2669, -2371, -1903, -1304, -612, // 1982
+            125, 852, 1523, 2082, 2504, 2744, 2806, 2667, 2358, 1883, 1293, 609,
+            -105, -821, -1473, -2037, -2455, -2718, -2787, -2675, -2369, -1908, -1303, -615, // 1983
+            125, 851, 1522, 2086, 2504, 2751, 2806, 2674, 2358, 1889, 1290, 612,
+            -112, -822, -1483, -2040, -2466, -2721, -2797, -2676, -2378, -1906, -1309, -610, // 1984
+            122, 857, 1522, 2090, 2505, 2753, 2808, 2677, 2362, 1893, 1296, 616,
+            -106, -818, -1479, -2037, -2463, -2720, -2795, -2677, -2375, -1909, -1307, -617, // 1985
+            123, 846, 1520, 2076, 2499, 2739, 2802, 2664, 2357, 1884, 1295, 612,
+            -102, -818, -1471, -2036, -2456, -2720, -2791, -2680, -2376, -1913, -1311, -620, // 1986
+            116, 846, 1512, 2078, 2492, 2742, 2795, 2668, 2352, 1889, 1291, 618,
+            -106, -813, -1476, -2032, -2463, -2719, -2802, -2683, -2389, -1919, -1325, -628, // 1987
+            105, 838, 1507, 2073, 2493, 2739, 2799, 2666, 2356, 1885, 1294, 613,
+            -104, -818, -1474, -2036, -2459, -2721, -2795, -2684, -2382, -1921, -1318, -631, // 1988
+            111, 835, 1509, 2068, 2491, 2734, 2795, 2660, 2351, 1879, 1287, 606,
+            -110, -824, -1478, -2039, -2460, -2721, -2794, -2679, -2379, -1913, -1316, -623, // 1989
+            109, 840, 1504, 2072, 2485, 2736, 2789, 2663, 2347, 1883, 1285, 612,
+            -112, -818, -1480, -2035, -2464, -2718, -2799, -2680, -2386, -1918, -1324, -632, // 1990
+            101, 828, 1497, 2058, 2480, 2723, 2787, 2653, 2348, 1877, 1289, 608,
+            -106, -821, -1474, -2039, -2460, -2725, -2796, -2687, -2383, -1924, -1321, -635, // 1991
+            105, 828, 1500, 2061, 2481, 2727, 2786, 2655, 2343, 1877, 1282, 606,
+            -114, -825, -1483, -2043, -2469, -2727, -2805, -2687, -2390, -1921, -1326, -628, // 1992
+            103, 837, 1501, 2069, 2483, 2733, 2787, 2658, 2344, 1878, 1282, 606,
+            -115, -823, -1483, -2040, -2467, -2723, -2801, -2684, -2386, -1920, -1321, -632, // 1993
+            106, 830, 1503, 2061, 2484, 2724, 2787, 2649, 2343, 1870, 1283, 600,
+            -112, -827, -1478, -2042, -2461, -2725, -2795, -2686, -2382, -1923, -1321, -633, // 1994
+            105, 832, 1501, 2065, 2482, 2732, 2787, 2660, 2345, 1880, 1283, 608,
+            -115, -823, -1485, -2042, -2471, -2727, -2808, -2689, -2395, -1925, -1332, -634, // 1995
+            98, 832, 1499, 2068, 2487, 2737, 2797, 2666, 2356, 1887, 1294, 614,
+            -106, -820, -1479, -2040, -2466, -2727, -2803, -2689, -2388, -1925, -1322, -634, // 1996
+            108, 832, 1508, 2067, 2492, 2735, 2799, 2665, 2358, 1887, 1297, 614,
+            -102, -818, -1474, -2039, -2460, -2724, -2797, -2685, -2383, -1919, -1319, -626, // 1997
+            109, 840, 1506, 2075, 2490, 2742, 2797, 2672, 2357, 1896, 1299, 626,
+            -97, -804, -1467, -2024, -2456, -2713, -2797, -2680, -2388, -1921, -1327, -632, // 1998
+            101, 831, 1501, 2066, 2488, 2735, 2799, 2667, 2362, 1894, 1307, 627,
+            -87, -801, -1456, -2021, -2444, -2711, -2786, -2680, -2379, -1922, -1320, -635, // 1999
+            107, 831, 1507, 2069, 2493, 2740, 2803, 2672, 2363, 1896, 1304, 626,
+            -92, -804, -1461, -2023, -2448, -2710, -2788, -2675, -2379, -1914, -1319, -625, // 2000
+            107, 841, 1507, 2078, 2494, 2748, 2804, 2679, 2365, 1901, 1305, 630,
+            -92, -800, -1462, -2018, -2447, -2703, -2784, -2667, -2373, -1908, -1313, -624, // 2001
+            111, 836, 1507, 2068, 2492, 2736, 2802, 2668, 2365, 1894, 1308, 626,
+            -87, -803, -1455, -2020, -2441, -2707, -2779, -2672, -2369, -1912, -1311, -626, // 2002
+            111, 836, 1505, 2069, 2488, 2738, 2797, 2671, 2361, 1898, 1304, 630,
+            -91, -801, -1463, -2022, -2452, -2712, -2794, -2678, -2385, -1917, -1325, -629, // 2003
+            102, 836, 1502, 2071, 2489, 2741, 2800, 2673, 2363, 1899, 1306, 630,
+            -89, -800, -1461, -2021, -2450, -2712, -2792, -2679, -2382, -1919, -1319, -631, // 2004
+            109, 833, 1508, 2067, 2493, 2735, 2800, 2665, 2360, 1889, 1301, 619,
+            -94, -810, -1463, -2028, -2450, -2716, -2789, -2681, -2380, -1920, -1320, -630, // 2005
+            106, 835, 1503, 2071, 2487, 2739, 2795, 2670, 2355, 1893, 1296, 624,
+            -98, -805, -1467, -2024, -2455, -2713, -2797, -2681, -2391, -1925, -1334, -639, // 2006
+            92, 823, 1492, 2059, 2481, 2731, 2794, 2665, 2359, 1891, 1302, 622,
+            -94, -808, -1465, -2029, -2454, -2719, -2797, -2689, -2390, -1933, -1332, -648, // 2007
+            93, 817, 1494, 2056, 2483, 2730, 2796, 2665, 2359, 1891, 1300, 619,
+            -98, -814, -1472, -2037, -2462, -2727, -2804, -2693, -2396, -1933, -1336, -643, // 2008
+            90, 823, 1490, 2061, 2479, 2735, 2792, 2670, 2357, 1896, 1300, 627,
+            -98, -806, -1471, -2029, -2462, -2721, -2805, -2689, -2397, -1931, -1338, -646, // 2009
+            87, 815, 1486, 2049, 2473, 2720, 2787, 2656, 2354, 1886, 1301, 621,
+            -92, -807, -1462, -2028, -2452, -2721, -2797, -2692, -2393, -1937, -1336, -652, // 2010
+            88, 812, 1485, 2048, 2472, 2722, 2785, 2659, 2351, 1889, 1298, 624,
+            -95, -805, -1465, -2027, -2457, -2721, -2804, -2694, -2402, -1939, -1347, -653, // 2011
+            78, 814, 1481, 2053, 2472, 2728, 2788, 2665, 2355, 1893, 1300, 627,
+            -94, -803, -1465, -2024, -2455, -2716, -2800, -2688, -2394, -1933, -1337, -649, // 2012
+            88, 814, 1489, 2051, 2478, 2724, 2792, 2659, 2357, 1887, 1301, 619,
+            -93, -810, -1462, -2029, -2450, -2717, -2791, -2685, -2385, -1928, -1329, -643, // 2013
+            94, 820, 1490, 2057, 2477, 2730, 2790, 2667, 2356, 1896, 1302, 630,
+            -91, -799, -1461, -2020, -2451, -2711, -2796, -2682, -2392, -1927, -1338, -644, // 2014
+            85, 817, 1484, 2052, 2473, 2726, 2790, 2665, 2361, 1897, 1309, 633,
+            -84, -796, -1455, -2018, -2447, -2712, -2792, -2684, -2388, -1930, -1331, -646, // 2015
+            94, 817, 1494, 2055, 2483, 2729, 2797, 2666, 2364, 1896, 1309, 629,
+            -85, -800, -1456, -2023, -2448, -2715, -2793, -2685, -2387, -1927, -1330, -639, // 2016
+            96, 828, 1497, 2067, 2485, 2741, 2799, 2676, 2364, 1904, 1308, 637,
+            -86, -793, -1457, -2014, -2447, -2706, -2792, -2677, -2387, -1922, -1331, -638, // 2017
+            94, 825, 1495, 2060, 2484, 2733, 2799, 2669, 2365, 1898, 1311, 632,
+            -82, -796, -1451, -2016, -2441, -2708, -2785, -2680, -2382, -1927, -1327, -643, // 2018
+            97, 821, 1496, 2060, 2487, 2736, 2803, 2676, 2370, 1905, 1315, 638,
+            -80, -794, -1454, -2019, -2448, -2714, -2795, -2686, -2393, -1931, -1338, -645, // 2019
+            87, 822, 1490, 2065, 2485, 2744, 2805, 2684, 2374, 1914, 1319, 646,
+            -78, -788, -1454, -2015, -2449, -2711, -2797, -2684, -2393, -1930, -1335, -644, // 2020
+            92, 820, 1495, 2059, 2487, 2735, 2805, 2675, 2375, 1906, 1322, 640,
+            -73, -792, -1447, -2017, -2441, -2712, -2789, -2685, -2386, -1931, -1330, -645, // 2021
+            94, 821, 1493, 2060, 2483, 2737, 2800, 2678, 2371, 1912, 1320, 648,
+            -72, -781, -1444, -2006, -2440, -2705, -2793, -2683, -2396, -1934, -1345, -652, // 2022
+            78, 812, 1480, 2052, 2474, 2731, 2795, 2674, 2369, 1910, 1321, 648,
+            -70, -780, -1441, -2004, -2436, -2703, -2789, -2683, -2392, -1936, -1341, -657, // 2023
+            82, 807, 1485, 2049, 2480, 2728, 2800, 2670, 2370, 1903, 1319, 639,
+            -74, -790, -1445, -2014, -2439, -2709, -2788, -2685, -2389, -1934, -1339, -652, // 2024
+            82, 812, 1482, 2054, 2475, 2733, 2795, 2675, 2366, 1908, 1314, 643,
+            -79, -787, -1451, -2009, -2443, -2703, -2791, -2678, -2391, -1928, -1341, -650, // 2025
+            79, 808, 1476, 2044, 2467, 2720, 2787, 2663, 2361, 1898, 1313, 637,
+            -78, -791, -1448, -2013, -2440, -2708, -2788, -2683, -2388, -1935, -1338, -656, // 2026
+            82, 803, 1478, 2040, 2468, 2717, 2787, 2661, 2360, 1897, 1312, 635,
+            -80, -794, -1452, -2020, -2448, -2718, -2799, -2694, -2401, -1942, -1349, -659, // 2027
+            73, 806, 1474, 2047, 2466, 2725, 2786, 2667, 2358, 1901, 1308, 638,
+            -84, -791, -1456, -2016, -2452, -2714, -2803, -2691, -2402, -1939, -1348, -656, // 2028
+            78, 807, 1479, 2044, 2471, 2720, 2788, 2659, 2358, 1891, 1306, 627,
+            -85, -801, -1456, -2023, -2448, -2718, -2796, -2693, -2396, -1942, -1342, -659, // 2029
+            81, 806, 1481, 2046, 2472, 2724, 2789, 2665, 2359, 1897, 1307, 633,
+            -85, -796, -1457, -2020, -2451, -2717, -2802, -2694, -2406, -1946, -1357, -665, // 2030
+            65, 800, 1468, 2042, 2464, 2724, 2788, 2668, 2362, 1903, 1312, 639,
+            -82, -791, -1455, -2017, -2452, -2716, -2804, -2695, -2406, -1948, -1354, -668, // 2031
+            70, 797, 1475, 2040, 2473, 2723, 2797, 2668, 2370, 1903, 1318, 636,
+            -77, -797, -1454, -2025, -2451, -2724, -2803, -2701, -2404, -1949, -1351, -665, // 2032
+            73, 802, 1476, 2047, 2472, 2730, 2795, 2676, 2370, 1912, 1320, 648,
+            -74, -784, -1450, -2012, -2448, -2712, -2801, -2691, -2405, -1942, -1354, -661, // 2033
+            68, 802, 1470, 2042, 2466, 2722, 2790, 2669, 2368, 1908, 1323, 649,
+            -67, -778, -1439, -2004, -2437, -2706, -2792, -2689, -2398, -1945, -1350, -667, // 2034
+            72, 796, 1475, 2039, 2470, 2721, 2794, 2669, 2372, 1909, 1326, 649,
+            -64, -780, -1437, -2007, -2436, -2710, -2793, -2692, -2401, -1947, -1354, -667, // 2035
+            67, 800, 1471, 2046, 2470, 2732, 2796, 2680, 2373, 1918, 1326, 657,
+            -65, -772, -1438, -1998, -2435, -2698, -2790, -2680, -2395, -1934, -1347, -656, // 2036
+            74, 805, 1477, 2046, 2474, 2728, 2799, 2674, 2375, 1912, 1328, 650,
+            -63, -778, -1435, -2002, -2429, -2700, -2781, -2679, -2384, -1933, -1336, -655, // 2037
+            83, 806, 1482, 2047, 2476, 2729, 2799, 2676, 2376, 1916, 1330, 656,
+            -59, -772, -1432, -1998, -2429, -2698, -2784, -2679, -2391, -1934, -1346, -657, // 2038
+            72, 805, 1472, 2046, 2468, 2729, 2794, 2678, 2374, 1920, 1330, 662,
+            -58, -766, -1431, -1993, -2430, -2696, -2786, -2679, -2393, -1935, -1345, -657, // 2039
+            77, 804, 1480, 2046, 2476, 2728, 2801, 2674, 2377, 1912, 1330, 651,
+            -60, -777, -1433, -2004, -2431, -2705, -2785, -2686, -2391, -1939, -1341, -657, // 2040
+            81, 808, 1483, 2052, 2478, 2734, 2800, 2680, 2375, 1917, 1327, 655,
+            -64, -774, -1436, -1999, -2433, -2698, -2787, -2679, -2394, -1934, -1348, -656, // 2041
+            72, 805, 1473, 2046, 2468, 2727, 2793, 2673, 2370, 1911, 1324, 651,
+            -66, -776, -1437, -2000, -2434, -2701, -2788, -2683, -2395, -1941, -1348, -665, // 2042
+            72, 796, 1474, 2039, 2472, 2723, 2798, 2672, 2376, 1911, 1328, 649,
+            -65, -783, -1440, -2012, -2440, -2715, -2797, -2697, -2404, -1952, -1357, -672, // 2043
+            63, 794, 1467, 2042, 2468, 2730, 2796, 2681, 2375, 1920, 1328, 657,
+            -66, -776, -1444, -2007, -2445, -2711, -2803, -2694, -2409, -1948, -1360, -668, // 2044
+            63, 796, 1466, 2038, 2465, 2722, 2793, 2671, 2372, 1911, 1327, 651,
+            -65, -780, -1440, -2009, -2441, -2713, -2797, -2696, -2404, -1952, -1356, -673, // 2045
+            66, 790, 1469, 2034, 2465, 2718, 2791, 2669, 2371, 1911, 1328, 653,
+            -60, -775, -1434, -2004, -2437, -2711, -2799, -2699, -2412, -1959, -1369, -681, // 2046
+            50, 783, 1454, 2030, 2454, 2718, 2785, 2671, 2367, 1915, 1325, 658,
+            -63, -770, -1436, -1998, -2438, -2705, -2800, -2694, -2413, -1956, -1370, -681, // 2047
+            51, 781, 1457, 2028, 2461, 2716, 2791, 2667, 2371, 1908, 1326, 648,
+            -64, -781, -1438, -2009, -2438, -2713, -2796, -2698, -2405, -1957, -1361, -680, // 2048
+            59, 784, 1462, 2031, 2462, 2720, 2791, 2673, 2372, 1914, 1327, 654,
+            -64, -776, -1438, -2004, -2438, -2707, -2795, -2691, -2406, -1950, -1364, -675, // 2049
+            52, 785, 1452, 2027, 2450, 2713, 2781, 2666, 2365, 1911, 1324, 655,
+            -63, -772, -1437, -2000, -2437, -2704, -2795, -2691, -2406, -1951, -1362, -678, // 2050
+            56, 781, 1458, 2023, 2457, 2710, 2787, 2664, 2371, 1910, 1331, 653,
+            -58, -776, -1433, -2006, -2436, -2714, -2798, -2701, -2409, -1960, -1365, -681, // 2051
+            55, 784, 1458, 2031, 2459, 2720, 2789, 2674, 2371, 1917, 1329, 660,
+            -61, -769, -1435, -1999, -2438, -2706, -2799, -2693, -2410, -1951, -1365, -673, // 2052
+            57, 791, 1461, 2034, 2460, 2719, 2789, 2670, 2370, 1912, 1327, 654,
+            -62, -773, -1434, -2000, -2433, -2703, -2790, -2689, -2400, -1949, -1356, -674, // 2053
+            65, 789, 1469, 2034, 2468, 2721, 2797, 2673, 2378, 1916, 1334, 658,
+            -54, -770, -1428, -1999, -2429, -2705, -2791, -2693, -2405, -1954, -1364, -679, // 2054
+            53, 785, 1457, 2034, 2461, 2726, 2794, 2682, 2379, 1927, 1337, 669,
+            -53, -761, -1429, -1992, -2432, -2699, -2794, -2688, -2408, -1950, -1365, -675, // 2055
+            56, 788, 1462, 2035, 2468, 2726, 2802, 2682, 2387, 1926, 1343, 666,
+            -48, -766, -1426, -1998, -2430, -2706, -2791, -2694, -2402, -1953, -1357, -676, // 2056
+            64, 789, 1468, 2037, 2471, 2728, 2803, 2685, 2389, 1931, 1347, 673,
+            -43, -757, -1419, -1989, -2424, -2698, -2787, -2687, -2402, -1948, -1362, -674, // 2057
+            55, 789, 1458, 2034, 2459, 2723, 2792, 2680, 2379, 1929, 1342, 676,
+            -43, -750, -1416, -1980, -2420, -2689, -2785, -2682, -2402, -1948, -1362, -677, // 2058
+            56, 783, 1460, 2029, 2464, 2720, 2798, 2677, 2385, 1924, 1346, 669,
+            -41, -758, -1416, -1989, -2420, -2699, -2785, -2692, -2403, -1956, -1363, -683, // 2059
+            54, 782, 1459, 2032, 2464, 2726, 2799, 2684, 2385, 1930, 1343, 673,
+            -45, -755, -1420, -1985, -2423, -2693, -2787, -2683, -2402, -1946, -1363, -673, // 2060
+            54, 788, 1456, 2032, 2459, 2722, 2793, 2678, 2379, 1924, 1339, 668,
+            -49, -760, -1423, -1988, -2424, -2694, -2785, -2683, -2398, -1946, -1357, -675, // 2061
+            60, 784, 1461, 2027, 2462, 2716, 2795, 2673, 2381, 1921, 1343, 667,
+            -44, -761, -1419, -1992, -2423, -2702, -2789, -2694, -2406, -1958, -1367, -685, // 2062
+            47, 777, 1449, 2024, 2451, 2716, 2786, 2675, 2375, 1925, 1338, 672,
+            -48, -756, -1423, -1988, -2429, -2699, -2796, -2692, -2413, -1957, -1373, -683, // 2063
+            46, 779, 1451, 2025, 2455, 2716, 2790, 2672, 2376, 1918, 1335, 661,
+            -53, -767, -1428, -1999, -2433, -2708, -2797, -2700, -2412, -1963, -1369, -688, // 2064
+            51, 776, 1457, 2024, 2460, 2716, 2792, 2672, 2377, 1917, 1335, 660,
+            -54, -769, -1428, -1999, -2432, -2707, -2796, -2699, -2414, -1963, -1376, -690, // 2065
+            39, 772, 1443, 2020, 2446, 2712, 2781, 2670, 2369, 1918, 1330, 663,
+            -57, -764, -1432, -1995, -2436, -2705, -2801, -2698, -2419, -1965, -1381, -695, // 2066
+            36, 766, 1442, 2014, 2449, 2708, 2787, 2668, 2377, 1917, 1337, 660,
+            -54, -772, -1432, -2007, -2440, -2719, -2807, -2714, -2425, -1978, -1384, -704, // 2067
+            34, 761, 1441, 2014, 2449, 2712, 2789, 2675, 2379, 1925, 1340, 668,
+            -50, -764, -1429, -1999, -2439, -2713, -2807, -2707, -2425, -1970, -1385, -695, // 2068
+            33, 768, 1438, 2017, 2444, 2710, 2782, 2672, 2373, 1923, 1337, 669,
+            -50, -759, -1426, -1993, -2434, -2706, -2801, -2701, -2420, -1968, -1380, -697, // 2069
+            38, 765, 1444, 2013, 2450, 2707, 2787, 2668, 2379, 1920, 1344, 670,
+            -39, -756, -1414, -1989, -2423, -2705, -2794, -2704, -2418, -1974, -1384, -704, // 2070
+            31, 760, 1436, 2012, 2444, 2711, 2785, 2675, 2378, 1929, 1344, 678,
+            -40, -748, -1414, -1980, -2421, -2694, -2792, -2692, -2417, -1964, -1383, -695, // 2071
+            33, 768, 1440, 2018, 2450, 2715, 2791, 2677, 2382, 1928, 1345, 674,
+            -42, -754, -1417, -1985, -2422, -2696, -2788, -2691, -2407, -1960, -1370, -691, // 2072
+            46, 771, 1451, 2020, 2458, 2716, 2797, 2679, 2389, 1931, 1352, 677,
+            -34, -751, -1410, -1982, -2415, -2693, -2781, -2687, -2402, -1954, -1368, -686, // 2073
+            43, 773, 1444, 2020, 2447, 2715, 2786, 2679, 2380, 1933, 1347, 683,
+            -36, -742, -1410, -1974, -2416, -2686, -2784, -2682, -2405, -1951, -1370, -683, // 2074
+            45, 775, 1448, 2020, 2454, 2715, 2794, 2678, 2387, 1931, 1353, 679,
+            -33, -749, -1409, -1982, -2418, -2697, -2787, -2694, -2407, -1962, -1369, -690, // 2075
+            48, 774, 1454, 2024, 2461, 2721, 2799, 2684, 2390, 1935, 1354, 682,
+            -33, -746, -1409, -1980, -2417, -2693, -2786, -2689, -2407, -1956, -1370, -683, // 2076
+            46, 781, 1452, 2030, 2457, 2724, 2794, 2683, 2383, 1933, 1346, 679,
+            -40, -748, -1414, -1979, -2420, -2690, -2787, -2686, -2407, -1954, -1369, -685, // 2077
+            48, 777, 1455, 2025, 2462, 2720, 2801, 2681, 2391, 1932, 1354, 678,
+            -32, -750, -1409, -1984, -2417, -2699, -2788, -2698, -2412, -1968, -1378, -699, // 2078
+            37, 765, 1444, 2019, 2454, 2720, 2797, 2687, 2392, 1941, 1356, 687,
+            -32, -744, -1412, -1981, -2423, -2698, -2796, -2697, -2420, -1967, -1385, -696, // 2079
+            32, 768, 1440, 2020, 2452, 2720, 2796, 2686, 2390, 1939, 1354, 684,
+            -35, -748, -1416, -1986, -2427, -2703, -2799, -2702, -2420, -1971, -1382, -700, // 2080
+            37, 763, 1445, 2015, 2455, 2715, 2798, 2681, 2393, 1936, 1359, 684,
+            -27, -746, -1406, -1983, -2419, -2702, -2793, -2703, -2420, -1975, -1388, -707, // 2081
+            26, 756, 1430, 2008, 2439, 2707, 2782, 2675, 2379, 1933, 1349, 685,
+            -34, -741, -1409, -1975, -2420, -2694, -2796, -2698, -2425, -1974, -1395, -709, // 2082
+            19, 752, 1426, 2003, 2438, 2704, 2784, 2672, 2381, 1928, 1350, 678,
+            -35, -749, -1412, -1984, -2423, -2703, -2798, -2707, -2426, -1983, -1394, -717, // 2083
+            20, 746, 1428, 2000, 2441, 2704, 2787, 2673, 2384, 1929, 1351, 678,
+            -35, -751, -1412, -1986, -2423, -2703, -2796, -2704, -2423, -1976, -1392, -709, // 2084
+            19, 752, 1423, 2003, 2432, 2702, 2776, 2670, 2373, 1927, 1342, 677,
+            -42, -749, -1418, -1983, -2426, -2698, -2797, -2697, -2422, -1970, -1389, -705, // 2085
+            23, 752, 1428, 2000, 2436, 2698, 2780, 2666, 2379, 1924, 1349, 676,
+            -34, -750, -1410, -1985, -2421, -2705, -2797, -2708, -2425, -1983, -1394, -717, // 2086
+            18, 743, 1423, 1996, 2433, 2698, 2778, 2669, 2378, 1929, 1349, 681,
+            -33, -745, -1410, -1981, -2422, -2700, -2799, -2704, -2427, -1978, -1397, -710, // 2087
+            18, 753, 1425, 2006, 2436, 2705, 2780, 2672, 2377, 1928, 1345, 678,
+            -39, -749, -1416, -1983, -2426, -2700, -2799, -2702, -2424, -1975, -1390, -708, // 2088
+            27, 755, 1435, 2007, 2447, 2707, 2790, 2673, 2385, 1928, 1352, 677,
+            -32, -750, -1408, -1983, -2417, -2700, -2790, -2702, -2418, -1976, -1388, -710, // 2089
+            23, 751, 1428, 2004, 2438, 2706, 2783, 2676, 2381, 1933, 1350, 684,
+            -34, -742, -1409, -1976, -2419, -2693, -2793, -2696, -2422, -1971, -1393, -706, // 2090
+            20, 754, 1427, 2007, 2441, 2710, 2790, 2681, 2390, 1938, 1358, 687,
+            -29, -743, -1409, -1982, -2423, -2702, -2798, -2705, -2424, -1979, -1391, -712, // 2091
+            26, 752, 1435, 2007, 2450, 2713, 2799, 2685, 2399, 1944, 1368, 693,
+            -19, -738, -1400, -1977, -2415, -2699, -2792, -2702, -2420, -1974, -1387, -705, // 2092
+            27, 759, 1433, 2013, 2444, 2715, 2790, 2686, 2390, 1945, 1361, 698,
+            -22, -729, -1399, -1966, -2412, -2687, -2790, -2692, -2419, -1967, -1387, -701, // 2093
+            28, 760, 1436, 2012, 2449, 2713, 2796, 2684, 2397, 1944, 1369, 698,
+            -13, -728, -1389, -1965, -2404, -2688, -2785, -2698, -2418, -1978, -1391, -715, // 2094
+            22, 748, 1431, 2005, 2446, 2712, 2796, 2687, 2399, 1948, 1371, 702,
+            -11, -725, -1388, -1962, -2402, -2684, -2782, -2692, -2416, -1971, -1391, -707, // 2095
+            21, 756, 1429, 2012, 2445, 2718, 2795, 2691, 2396, 1950, 1366, 700,
+            -19, -728, -1397, -1965, -2410, -2685, -2786, -2690, -2415, -1967, -1386, -704, // 2096
+            27, 756, 1435, 2009, 2450, 2713, 2799, 2685, 2400, 1945, 1371, 697,
+            -13, -731, -1391, -1968, -2404, -2688, -2781, -2694, -2412, -1972, -1385, -710, // 2097
+            23, 748, 1426, 2001, 2437, 2705, 2786, 2680, 2389, 1944, 1364, 699,
+            -16, -726, -1393, -1963, -2407, -2685, -2786, -2692, -2420, -1972, -1394, -709, // 2098
+            15, 750, 1421, 2001, 2434, 2705, 2784, 2678, 2387, 1940, 1361, 694,
+            -22, -733, -1401, -1972, -2417, -2696, -2797, -2705, -2428, -1984, -1399, -719, // 2099
+            16, 743, 1425, 1998, 2440, 2703, 2789, 2676, 2391, 1936, 1362, 689,
+            -21, -739, -1399, -1976, -2414, -2699, -2793, -2706, -2425, -1983, -1397, -718, // 2100
+            15, 745, 1421, 2000, 2433, 2703, 2780, 2675, 2380, 1934, 1350, 687
+    };
+
+    // 这个类不能实例化
+    private SolarTerms() {
+    }
+
+    /**
+     * @param index 节气的序号，0~{@link #COUNT}-1
+     * @return 节气的时刻，epoch毫秒数
+     */
+    public static long getTermMillis(int index) {
+        return getMeanTermMillis(index) + OFFSETS[index] * MILLIS_PER_MINUTE;
+    }
+
+    /**
+     * @param year 公历年
+     * @param term 0（小寒）~23（冬至）
+     * @return 节气的时刻，epoch毫秒数
+     */
+    public static long getTermMillis(int year, int term) {
+        return getTermMillis((year - MIN_YEAR) * TERMS_PER_YEAR + term);
+    }
+
+    /**
+     * 指定时间所在的节气，即不晚于该时间的最后一个节气
+     *
+     * @param timeMillis epoch毫秒数
+     * @return 节气的序号，早于1900年小寒时返回-1
+     */
+    public static int getTermIndex(long timeMillis) {
+        long elapsed = timeMillis - BASE_MILLIS;
+        // 先按平均时刻估计，实际时刻与平均时刻相差不到半个节气，最多再前后调整一个
+        int index = (int) Math.max(-1, Math.min(COUNT - 1,
+                elapsed >= 0 ? elapsed / TERM_MILLIS : -1));
+        if (index < COUNT - 1 && getTermMillis(index + 1) <= timeMillis) {
+            index++;
+        } else if (index >= 0 && getTermMillis(index) > timeMillis) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * @param timeMillis epoch毫秒数
+     * @return 晚于指定时间的第一个节气的时刻，超出表格范围时返回-1
+     */
+    public static long getNextTermMillis(long timeMillis) {
+        int index = getTermIndex(timeMillis) + 1;
+        return index < COUNT ? getTermMillis(index) : -1;
+    }
+
+    /**
+     * @param index 节气的序号
+     * @return 公历年
+     */
+    public static int getYear(int index) {
+        return MIN_YEAR + index / TERMS_PER_YEAR;
+    }
+
+    /**
+     * @param index 节气的序号
+     * @return 节气的名称，如“冬至”
+     */
+    public static String getName(int index) {
+        return NAMES[index % TERMS_PER_YEAR];
+    }
+
+    /**
+     * 按平均节气长度推算的时刻
+     *
+     * @param index 节气的序号
+     * @return epoch毫秒数
+     */
+    static long getMeanTermMillis(int index) {
+        return BASE_MILLIS + index * TERM_MILLIS;
+    }
+}
@@ -0,0 +1,67 @@
+package org.chobitly.utils;
+
+/**
+ * 命令行工具：按天文算法推算二十四节气的时刻，输出{@link SolarTerms}中的表格。
+ * <p/>
+ * 节气的时刻由{@link SolarLongitude}计算，每个节气只输出它与平均时刻之差（分钟），
+ * 平均时刻从{@link SolarTerms#BASE_MILLIS}开始每隔{@link SolarTerms#TERM_MILLIS}一个。
+ * <pre>
+ * 用法：SolarTermsGenerator [base]
+ *   不带参数时输出表格
+ *   带base参数时输出使差值居中的BASE_MILLIS
+ * </pre>
+ */
+public class SolarTermsGenerator {
+
+    private static final long MILLIS_PER_MINUTE = 60 * 1000L;
+
+    public static void main(String[] args) {
+        long[] millis = computeTermMillis(SolarTerms.MIN_YEAR, SolarTerms.MAX_YEAR);
+        if (args.length > 0 && "base".equals(args[0])) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < millis.length; i++) {
+                long delta = millis[i] - i * SolarTerms.TERM_MILLIS;
+                min = Math.min(min, delta);
+                max = Math.max(max, delta);
+            }
+            long base = (min + max) / 2;
+            System.out.println(base - base % MILLIS_PER_MINUTE);
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < millis.length; i++) {
+            long delta = Math.round((double) (millis[i] - SolarTerms.getMeanTermMillis(i)) / MILLIS_PER_MINUTE);
+            if (delta < Short.MIN_VALUE || delta > Short.MAX_VALUE) {
+                throw new IllegalStateException("The term " + i + " is too far from its mean time");
+            }
+            sb.append(i % 12 == 0 ? "            " : " ");
+            sb.append(delta).append(',');
+            if (i % 24 == 11) {
+                sb.append(" // ").append(SolarTerms.MIN_YEAR + i / 24);
+            }
+            if (i % 12 == 11) {
+                sb.append('\n');
+            }
+        }
+        System.out.print(sb);
+    }
+
+    /**
+     * 推算[startYear, endYear]每年从小寒到冬至的24个节气的时刻
+     *
+     * @return epoch毫秒数，按时间排序
+     */
+    public static long[] computeTermMillis(int startYear, int endYear) {
+        long[] millis = new long[(endYear - startYear + 1) * SolarTerms.TERMS_PER_YEAR];
+        for (int i = 0; i < millis.length; i++) {
+            int year = startYear + i / SolarTerms.TERMS_PER_YEAR;
+            int term = i % SolarTerms.TERMS_PER_YEAR;
+            // 小寒在1月6日前后，之后每个节气相隔约15.2天
+            double guess = 2451545.0 + (year - 2000) * 365.2422 + 5 + term * 365.2422 / 24;
+            millis[i] = LunationEngine.julianDayToMillis(
+                    SolarLongitude.findLongitudeJde((285 + 15 * term) % 360, guess));
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,207 @@
+package org.chobitly.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.zip.CRC32;
+
+/**
+ * 渲染好的图片（旋转后的月亮、指针、合成的表盘等）在磁盘上的缓存文件。
+ * <p/>
+ * 文件中直接存放原始像素（Android上即Bitmap.copyPixelsToBuffer()的结果，预乘的颜色、本机字节序），
+ * 读取时只需要内存映射，不需要解码PNG。头部记录了尺寸、像素格式和生成这张图片的key，
+ * key应当包含原图资源的校验和与应用的版本，任何一项不同时文件都视为过期。
+ * <pre>
+ * 文件格式（大端）：
+ *   int   MAGIC
+ *   int   VERSION
+ *   int   宽度
+ *   int   高度
+ *   int   像素格式，如{@link #CONFIG_ARGB_8888}
+ *   int   像素数据的字节数length
+ *   long  key
+ *   byte[length] 像素数据
+ * </pre>
+ */
+public class SpriteFile {
+
+    public static final int MAGIC = 0x4D575350;// "MWSP"
+    public static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * 每像素4字节，对应Bitmap.Config.ARGB_8888
+     */
+    public static final int CONFIG_ARGB_8888 = 1;
+    /**
+     * 每像素2字节，对应Bitmap.Config.RGB_565
+     */
+    public static final int CONFIG_RGB_565 = 2;
+    /**
+     * 每像素1字节，对应Bitmap.Config.ALPHA_8
+     */
+    public static final int CONFIG_ALPHA_8 = 3;
+
+    private final int width;
+    private final int height;
+    private final int config;
+    private final ByteBuffer pixels;
+
+    private SpriteFile(int width, int height, int config, ByteBuffer pixels) {
+        this.width = width;
+        this.height = height;
+        this.config = config;
+        this.pixels = pixels;
+    }
+
+    /**
+     * 内存映射缓存文件
+     *
+     * @param file 缓存文件
+     * @param key  期望的key，见{@link #getKey(long, int, String)}
+     * @return 文件不存在、格式不正确或key不同时返回null
+     * @throws IOException 读取文件失败
+     */
+    public static SpriteFile open(File file, long key) throws IOException {
+        if (!file.isFile() || file.length() < HEADER_SIZE) {
+            return null;
+        }
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            // 映射在关闭文件之后仍然有效
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.BIG_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(24) != key) {
+                return null;
+            }
+            int width = buffer.getInt(8);
+            int height = buffer.getInt(12);
+            int config = buffer.getInt(16);
+            int length = buffer.getInt(20);
+            if (config < CONFIG_ARGB_8888 || config > CONFIG_ALPHA_8 || width <= 0 || height <= 0
+                    || length != (long) width * height * getBytesPerPixel(config)
+                    || buffer.limit() != HEADER_SIZE + (long) length) {
+                return null;
+            }
+            buffer.position(HEADER_SIZE);
+            return new SpriteFile(width, height, config, buffer.slice());
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * 写入缓存文件。先写临时文件再改名，进程在写入过程中被杀死也不会留下不完整的文件。
+     *
+     * @param file   缓存文件
+     * @param key    生成这张图片的key，见{@link #getKey(long, int, String)}
+     * @param width  宽度
+     * @param height 高度
+     * @param config 像素格式，如{@link #CONFIG_ARGB_8888}
+     * @param pixels 像素数据，从position到limit
+     * @throws IOException 写入文件失败
+     */
+    public static void write(File file, long key, int width, int height, int config, ByteBuffer pixels)
+            throws IOException {
+        int length = pixels.remaining();
+        if (width <= 0 || height <= 0 || length != (long) width * height * getBytesPerPixel(config)) {
+            throw new IllegalArgumentException("Expected " + width + "x" + height + " pixels of config "
+                    + config + ", got " + length + " bytes");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).putInt(config).putInt(length)
+                .putLong(key);
+        header.flip();
+
+        File temp = new File(file.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(temp);
+        try {
+            FileChannel channel = out.getChannel();
+            ByteBuffer data = pixels.duplicate();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        } finally {
+            out.close();
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Failed to rename " + temp + " to " + file);
+        }
+    }
+
+    /**
+     * 计算缓存文件的key
+     *
+     * @param sourceChecksum 原图资源文件的CRC32校验和
+     * @param appVersion     应用的版本号
+     * @param variant        同一张原图的不同渲染结果，如尺寸和旋转角度
+     * @return 高32位为原图的校验和，低32位为版本号和variant的校验和
+     */
+    public static long getKey(long sourceChecksum, int appVersion, String variant) {
+        CRC32 crc = new CRC32();
+        crc.update(appVersion >>> 24);
+        crc.update(appVersion >>> 16);
+        crc.update(appVersion >>> 8);
+        crc.update(appVersion);
+        byte[] bytes = variant.getBytes(UTF_8);
+        crc.update(bytes, 0, bytes.length);
+        return (sourceChecksum & 0xffffffffL) << 32 | crc.getValue();
+    }
+
+    /**
+     * @param config 像素格式，如{@link #CONFIG_ARGB_8888}
+     * @return 每像素的字节数
+     */
+    public static int getBytesPerPixel(int config) {
+        switch (config) {
+            case CONFIG_ARGB_8888:
+                return 4;
+            case CONFIG_RGB_565:
+                return 2;
+            case CONFIG_ALPHA_8:
+                return 1;
+            default:
+                throw new IllegalArgumentException("Unknown config " + config);
+        }
+    }
+
+    /**
+     * @return 宽度
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return 高度
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return 像素格式，如{@link #CONFIG_ARGB_8888}
+     */
+    public int getConfig() {
+        return config;
+    }
+
+    /**
+     * @return 内存映射的像素数据，只读，每次返回独立的position
+     */
+    public ByteBuffer getPixels() {
+        return pixels.duplicate();
+    }
+}
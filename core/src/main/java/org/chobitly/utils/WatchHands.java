@@ -0,0 +1,57 @@
+package org.chobitly.utils;
+
+/**
+ * 表盘指针的角度，从12点方向顺时针计算，单位为度。桌面小部件和手表表盘共用。
+ */
+public class WatchHands {
+
+    /**
+     * 小部件时针和分针的颜色，与watch_hour.png、watch_minute.png相同
+     */
+    public static final int HAND_COLOR = 0xff5e5e5e;
+    /**
+     * 指针的宽度，以下长度都是相对表盘边长的比例，两端为半圆
+     */
+    public static final float HAND_WIDTH = 0.0125f;
+    /**
+     * 分针从中心到针尖圆心的长度
+     */
+    public static final float MINUTE_HAND_LENGTH = 0.2693f;
+    /**
+     * 时针从中心到针尖圆心的长度
+     */
+    public static final float HOUR_HAND_LENGTH = 0.2136f;
+    /**
+     * 指针越过中心的长度（不含半圆）
+     */
+    public static final float HAND_TAIL = 0.0015f;
+
+    // 这个类不能实例化
+    private WatchHands() {
+    }
+
+    /**
+     * @param hour   小时，0~23
+     * @param minute 分钟，0~59
+     * @return 时针的角度，每小时30度，每分钟0.5度
+     */
+    public static float getHourDegree(int hour, int minute) {
+        return (hour % 12) * 30f + minute * 0.5f;
+    }
+
+    /**
+     * @param minute 分钟，0~59
+     * @return 分针的角度，每分钟6度
+     */
+    public static float getMinuteDegree(int minute) {
+        return minute * 6f;
+    }
+
+    /**
+     * @param second 秒，0~59
+     * @return 秒针的角度，每秒6度
+     */
+    public static float getSecondDegree(int second) {
+        return second * 6f;
+    }
+}
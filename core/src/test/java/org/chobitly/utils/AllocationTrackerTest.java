@@ -0,0 +1,152 @@
+package org.chobitly.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 分配、放回池中和释放的统计，以及没有释放就被GC回收的对象记为泄漏
+ */
+public class AllocationTrackerTest {
+
+    /**
+     * 等待GC回收的最长时间
+     */
+    private static final long GC_TIMEOUT_MILLIS = 10000;
+
+    @Test
+    public void disabledTrackerRecordsNothing() {
+        AllocationTracker<Object> tracker = new AllocationTracker<Object>();
+        Object object = new Object();
+        tracker.allocated(object, 100, "object");
+        assertEquals(0, tracker.getLiveCount());
+        tracker.setEnabled(true);
+        tracker.allocated(object, 100, "object");
+        assertEquals(1, tracker.getLiveCount());
+        // 关闭时清空所有记录
+        tracker.setEnabled(false);
+        assertEquals(0, tracker.getLiveCount());
+        assertEquals(0, tracker.getLiveBytes());
+    }
+
+    @Test
+    public void allocatedReleasedAndFreedAreCounted() {
+        AllocationTracker<Object> tracker = new AllocationTracker<Object>();
+        tracker.setEnabled(true);
+        Object first = new Object();
+        Object second = new Object();
+        tracker.allocated(first, 100, "first");
+        tracker.allocated(second, 30, "second");
+        assertEquals(2, tracker.getLiveCount());
+        assertEquals(130, tracker.getLiveBytes());
+        assertEquals(0, tracker.getPooledBytes());
+
+        tracker.released(first);
+        assertEquals(1, tracker.getLiveCount());
+        assertEquals(30, tracker.getLiveBytes());
+        assertEquals(100, tracker.getPooledBytes());
+
+        // 从池中再取出时按新的大小记录，不会重复计数
+        tracker.allocated(first, 120, "first");
+        assertEquals(2, tracker.getLiveCount());
+        assertEquals(150, tracker.getLiveBytes());
+        assertEquals(0, tracker.getPooledBytes());
+
+        tracker.freed(first);
+        tracker.released(second);
+        tracker.freed(second);
+        assertEquals(0, tracker.getLiveCount());
+        assertEquals(0, tracker.getLiveBytes());
+        assertEquals(0, tracker.getPooledBytes());
+        // 没有记录过的对象直接忽略
+        tracker.released(new Object());
+        tracker.freed(new Object());
+        assertEquals(0, tracker.getLiveCount());
+        assertEquals(0, tracker.getLeakCount());
+    }
+
+    @Test
+    public void reportGroupsLiveObjectsByCallSite() {
+        AllocationTracker<Object> tracker = new AllocationTracker<Object>();
+        tracker.setEnabled(true);
+        Object[] objects = {new Object(), new Object()};
+        for (Object object : objects) {
+            tracker.allocated(object, 64, "4x4 ARGB_8888");
+        }
+        String report = tracker.getReport();
+        assertTrue(report, report.startsWith("live=2 (128 bytes), pooled=0 bytes, leaked=0 (0 bytes)"));
+        // 调用位置是这个测试方法，跳过了AllocationTracker本身
+        assertTrue(report, report.contains("\n  live 2 x 4x4 ARGB_8888 at "
+                + AllocationTrackerTest.class.getName() + ".reportGroupsLiveObjectsByCallSite"));
+        assertEquals(2, objects.length);
+    }
+
+    @Test
+    public void collectedLiveObjectIsLeak() throws InterruptedException {
+        AllocationTracker<Object> tracker = new AllocationTracker<Object>();
+        tracker.setEnabled(true);
+        allocate(tracker, 100, "leaked");
+        awaitCollected(tracker);
+        assertEquals(1, tracker.getLeakCount());
+        assertEquals(100, tracker.getLeakedBytes());
+        assertEquals(0, tracker.getLiveCount());
+        String report = tracker.getReport();
+        assertTrue(report, report.contains("\n  leaked leaked at " + AllocationTrackerTest.class.getName()));
+        assertTrue(report, report.contains(", 100 bytes"));
+
+        tracker.reset();
+        assertEquals(0, tracker.getLeakCount());
+        assertEquals(0, tracker.getLeakedBytes());
+    }
+
+    @Test
+    public void collectedPooledObjectIsNotLeak() throws InterruptedException {
+        AllocationTracker<Object> tracker = new AllocationTracker<Object>();
+        tracker.setEnabled(true);
+        Object object = new Object();
+        tracker.allocated(object, 100, "pooled");
+        tracker.released(object);
+        object = null;
+        // 一个泄漏的对象作为GC已经处理过的标志
+        allocate(tracker, 10, "marker");
+        awaitCollected(tracker);
+        assertEquals(1, tracker.getLeakCount());
+        assertEquals(10, tracker.getLeakedBytes());
+        assertEquals(0, tracker.getPooledBytes());
+    }
+
+    @Test
+    public void leakDetailsAreBounded() throws InterruptedException {
+        AllocationTracker<Object> tracker = new AllocationTracker<Object>();
+        tracker.setEnabled(true);
+        int count = AllocationTracker.MAX_LEAK_DETAILS + 8;
+        for (int i = 0; i < count; i++) {
+            allocate(tracker, 1, "leak " + i);
+        }
+        long deadline = System.currentTimeMillis() + GC_TIMEOUT_MILLIS;
+        while (tracker.getLeakCount() < count && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(count, tracker.getLeakCount());
+        assertEquals(count, tracker.getLeakedBytes());
+        String report = tracker.getReport();
+        assertEquals(AllocationTracker.MAX_LEAK_DETAILS, report.split("\n  leaked ", -1).length - 1);
+    }
+
+    // 单独的方法里分配，返回后对象不再可达
+    private static void allocate(AllocationTracker<Object> tracker, long bytes, String description) {
+        tracker.allocated(new Object(), bytes, description);
+    }
+
+    // 反复GC直到所有记录的对象都被回收
+    private static void awaitCollected(AllocationTracker<Object> tracker) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + GC_TIMEOUT_MILLIS;
+        while ((tracker.getLiveCount() > 0 || tracker.getPooledBytes() > 0)
+                && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+}
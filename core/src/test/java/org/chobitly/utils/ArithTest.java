@@ -0,0 +1,234 @@
+package org.chobitly.utils;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 与原来全部经过BigDecimal的实现逐个比较结果和异常
+ */
+public class ArithTest {
+
+    private static final int ROUNDS = 200000;
+    private static final double[] SPECIAL = {
+            0.0, -0.0, 1.0, -1.0, 0.005, -0.005, 0.015, 2.675, 1e-7, 1e15, 4503599627370496.0,
+            Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    private static final RoundingMode[] MODES = RoundingMode.values();
+
+    @Test
+    public void matchesBigDecimalImplementation() {
+        Random random = new Random(20150601);
+        int calls = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            final double a = nextValue(random);
+            final double b = nextValue(random);
+            final double c = nextValue(random);
+            final int scale = random.nextInt(12) - 1;
+            final RoundingMode mode = MODES[random.nextInt(MODES.length)];
+            final MathContext mc = new MathContext(random.nextInt(18), mode);
+
+            check(new Call() {
+                public Object fast() {
+                    return Arith.equals(a, b);
+                }
+
+                public Object legacy() {
+                    return Legacy.toDecimal(a).equals(Legacy.toDecimal(b));
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.equals(a, b, scale);
+                }
+
+                public Object legacy() {
+                    return Legacy.toDecimal(Legacy.scale(a, scale, RoundingMode.HALF_UP))
+                            .equals(Legacy.toDecimal(Legacy.scale(b, scale, RoundingMode.HALF_UP)));
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.compareTo(a, b);
+                }
+
+                public Object legacy() {
+                    return Legacy.toDecimal(a).compareTo(Legacy.toDecimal(b));
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.add(a, b);
+                }
+
+                public Object legacy() {
+                    return Legacy.toDecimal(a).add(Legacy.toDecimal(b)).doubleValue();
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.add(a, b, c);
+                }
+
+                public Object legacy() {
+                    return Legacy.toDecimal(a).add(Legacy.toDecimal(b)).add(Legacy.toDecimal(c)).doubleValue();
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.sub(a, b);
+                }
+
+                public Object legacy() {
+                    return Legacy.toDecimal(a).subtract(Legacy.toDecimal(b)).doubleValue();
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.mul(a, b);
+                }
+
+                public Object legacy() {
+                    return Legacy.toDecimal(a).multiply(Legacy.toDecimal(b)).doubleValue();
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.div(a, b, scale, mode);
+                }
+
+                public Object legacy() {
+                    if (scale < 0) {
+                        throw new IllegalArgumentException();
+                    }
+                    return Legacy.toDecimal(a).divide(Legacy.toDecimal(b), scale, mode).doubleValue();
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.div(a, b, mc);
+                }
+
+                public Object legacy() {
+                    return Legacy.toDecimal(a).divide(Legacy.toDecimal(b), mc).doubleValue();
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.round(a, mc);
+                }
+
+                public Object legacy() {
+                    return Legacy.toDecimal(a).round(mc).doubleValue();
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.round(a, scale);
+                }
+
+                public Object legacy() {
+                    return Legacy.scale(a, scale, RoundingMode.HALF_UP);
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.ceil(a, scale);
+                }
+
+                public Object legacy() {
+                    return Legacy.scale(a, scale, RoundingMode.CEILING);
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.floor(a, scale);
+                }
+
+                public Object legacy() {
+                    return Legacy.scale(a, scale, RoundingMode.FLOOR);
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.roundUp(a, scale);
+                }
+
+                public Object legacy() {
+                    return Legacy.scale(a, scale, RoundingMode.UP);
+                }
+            });
+            check(new Call() {
+                public Object fast() {
+                    return Arith.roundDown(a, scale);
+                }
+
+                public Object legacy() {
+                    return Legacy.scale(a, scale, RoundingMode.DOWN);
+                }
+            });
+            calls += 15;
+        }
+        assertEquals(3000000, calls);
+    }
+
+    // 金额类的短小数、整数、任意double和特殊值混在一起
+    private static double nextValue(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return (random.nextInt(2000001) - 1000000) / 100.0;
+            case 1:
+                return (random.nextLong() >> random.nextInt(64)) / Math.pow(10, random.nextInt(20));
+            case 2:
+                return random.nextInt(2001) - 1000;
+            case 3:
+                return (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20);
+            default:
+                return SPECIAL[random.nextInt(SPECIAL.length)];
+        }
+    }
+
+    private static void check(Call call) {
+        Object expected;
+        try {
+            expected = call.legacy();
+        } catch (RuntimeException e) {
+            expected = e.getClass();
+        }
+        Object actual;
+        try {
+            actual = call.fast();
+        } catch (RuntimeException e) {
+            actual = e.getClass();
+        }
+        // Double.equals区分0.0和-0.0
+        assertEquals(expected, actual);
+    }
+
+    private interface Call {
+        Object fast();
+
+        Object legacy();
+    }
+
+    /**
+     * 原来的实现：每次都先转成BigDecimal
+     */
+    private static final class Legacy {
+
+        static BigDecimal toDecimal(double v) {
+            return new BigDecimal(Double.toString(v));
+        }
+
+        static double scale(double v, int scale, RoundingMode mode) {
+            if (scale < 0) {
+                throw new IllegalArgumentException();
+            }
+            return toDecimal(v).divide(new BigDecimal("1"), scale, mode).doubleValue();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.chobitly.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 已知的农历日期：闰月、春节前后、支持范围的两端，以及整个表格逐日连续
+ */
+public class LunarCalendarTest {
+
+    @Test
+    public void leapMonth2023() {
+        assertEquals(2, LunarCalendar.getLeapMonth(2023));
+        assertLunar(2023, 2, false, 30, "二月三十", 2023, 3, 21);
+        assertLunar(2023, 2, true, 1, "闰二月初一", 2023, 3, 22);
+        assertLunar(2023, 3, false, 1, "三月初一", 2023, 4, 20);
+    }
+
+    @Test
+    public void leapMonth2033() {
+        assertEquals(11, LunarCalendar.getLeapMonth(2033));
+        assertLunar(2033, 11, false, 1, "冬月初一", 2033, 11, 22);
+        assertLunar(2033, 11, true, 1, "闰冬月初一", 2033, 12, 22);
+        assertLunar(2033, 12, false, 1, "腊月初一", 2034, 1, 20);
+    }
+
+    @Test
+    public void leapMonth2020() {
+        assertEquals(4, LunarCalendar.getLeapMonth(2020));
+        assertLunar(2020, 4, false, 1, "四月初一", 2020, 4, 23);
+        assertLunar(2020, 4, true, 1, "闰四月初一", 2020, 5, 23);
+        assertEquals(0, LunarCalendar.getLeapMonth(2024));
+    }
+
+    @Test
+    public void newYearBoundaries() {
+        assertLunar(2022, 12, false, 30, "腊月三十", 2023, 1, 21);
+        assertLunar(2023, 1, false, 1, "正月初一", 2023, 1, 22);
+        assertLunar(2023, 12, false, 30, "腊月三十", 2024, 2, 9);
+        assertLunar(2024, 1, false, 1, "正月初一", 2024, 2, 10);
+        // 2025年的除夕是腊月廿九
+        assertLunar(2024, 12, false, 29, "腊月廿九", 2025, 1, 28);
+        assertLunar(2025, 1, false, 1, "正月初一", 2025, 1, 29);
+        assertEquals(21, LunarCalendar.getNewYearOffset(2023));
+    }
+
+    @Test
+    public void supportedRange() {
+        assertLunar(1900, 1, false, 1, "正月初一", 1900, 1, 31);
+        assertEquals(LunarCalendar.MAX_YEAR, LunarCalendar.getYear(LunarCalendar.toLunar(2100, 12, 31)));
+        assertOutOfRange(1900, 1, 30);
+        assertOutOfRange(1899, 12, 31);
+        assertOutOfRange(2101, 1, 1);
+    }
+
+    @Test
+    public void formatsDayNames() {
+        int date = LunarCalendar.toLunar(2023, 1, 22);
+        assertEquals("正月初十", LunarCalendar.format(date + 9));
+        assertEquals("正月十一", LunarCalendar.format(date + 10));
+        assertEquals("正月二十", LunarCalendar.format(date + 19));
+        assertEquals("正月廿一", LunarCalendar.format(date + 20));
+        assertEquals("正月廿九", LunarCalendar.format(date + 28));
+        assertEquals("腊月初八", LunarCalendar.format(LunarCalendar.toLunar(2024, 1, 18)));
+    }
+
+    @Test
+    public void everyDayFollowsThePreviousOne() {
+        long first = LunarCalendar.toEpochDay(1900, 1, 31);
+        long last = LunarCalendar.toEpochDay(2100, 12, 31);
+        int previous = LunarCalendar.toLunar(1900, 1, 31);
+        int monthDays = 1;
+        int year = 1900;
+        int month = 1;
+        int day = 31;
+        for (long epochDay = first + 1; epochDay <= last; epochDay++) {
+            // 公历日期加一天
+            if (++day > getMonthDays(year, month)) {
+                day = 1;
+                if (++month > 12) {
+                    month = 1;
+                    year++;
+                }
+            }
+            assertEquals(epochDay, LunarCalendar.toEpochDay(year, month, day));
+            int date = LunarCalendar.toLunar(year, month, day);
+            String message = year + "-" + month + "-" + day;
+            if (LunarCalendar.getDay(date) != 1) {
+                assertEquals(message, previous + 1, date);
+                monthDays++;
+                previous = date;
+                continue;
+            }
+            // 新的一个月：上个月是29或30天，闰月紧跟在同名的月份之后
+            assertTrue(message, monthDays == 29 || monthDays == 30);
+            int previousYear = LunarCalendar.getYear(previous);
+            int previousMonth = LunarCalendar.getMonth(previous);
+            if (LunarCalendar.isLeapMonth(date)) {
+                assertEquals(message, previousYear, LunarCalendar.getYear(date));
+                assertEquals(message, previousMonth, LunarCalendar.getMonth(date));
+                assertFalse(message, LunarCalendar.isLeapMonth(previous));
+                assertEquals(message, LunarCalendar.getLeapMonth(previousYear), previousMonth);
+            } else if (previousMonth == 12) {
+                assertEquals(message, previousYear + 1, LunarCalendar.getYear(date));
+                assertEquals(message, 1, LunarCalendar.getMonth(date));
+            } else {
+                assertEquals(message, previousYear, LunarCalendar.getYear(date));
+                assertEquals(message, previousMonth + 1, LunarCalendar.getMonth(date));
+            }
+            monthDays = 1;
+            previous = date;
+        }
+    }
+
+    private static void assertLunar(int lunarYear, int lunarMonth, boolean leap, int lunarDay, String text,
+                                    int year, int month, int day) {
+        int date = LunarCalendar.toLunar(year, month, day);
+        String message = year + "-" + month + "-" + day;
+        assertEquals(message, lunarYear, LunarCalendar.getYear(date));
+        assertEquals(message, lunarMonth, LunarCalendar.getMonth(date));
+        assertEquals(message, leap, LunarCalendar.isLeapMonth(date));
+        assertEquals(message, lunarDay, LunarCalendar.getDay(date));
+        assertEquals(message, text, LunarCalendar.format(date));
+    }
+
+    private static void assertOutOfRange(int year, int month, int day) {
+        try {
+            LunarCalendar.toLunar(year, month, day);
+            fail(year + "-" + month + "-" + day);
+        } catch (IllegalArgumentException e) {
+            // 超出支持的范围
+        }
+    }
+
+    private static int getMonthDays(int year, int month) {
+        if (month == 2) {
+            return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+}
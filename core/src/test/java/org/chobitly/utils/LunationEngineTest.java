@@ -0,0 +1,94 @@
+package org.chobitly.utils;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 与公布的月相时刻（世界时，精确到分钟）比较
+ */
+public class LunationEngineTest {
+
+    /**
+     * 公布的时刻只精确到分钟（±30秒），再加上级数截断的误差
+     */
+    private static final long TOLERANCE_MILLIS = 60 * 1000L;
+    private static final long DAY = 86400000L;
+
+    @Test
+    public void newMoonsMatchPublishedTimes() throws ParseException {
+        assertPhase(PrincipalPhaseModel.NEW_MOON, "2000-01-06 18:14");
+        assertPhase(PrincipalPhaseModel.NEW_MOON, "2015-06-16 14:05");
+    }
+
+    @Test
+    public void fullMoonsMatchPublishedTimes() throws ParseException {
+        assertPhase(PrincipalPhaseModel.FULL_MOON, "2015-01-05 04:53");
+        assertPhase(PrincipalPhaseModel.FULL_MOON, "2024-06-22 01:08");
+    }
+
+    @Test
+    public void segmentCacheMatchesFreshEngine() {
+        LunationEngine cached = new LunationEngine();
+        long time = utc(2024, 1, 1);
+        for (int i = 0; i < 60 * 24 * 60; i++, time += 60 * 1000L) {
+            // 每分钟一次，与小部件相同；对照组每次都用新的引擎，不经过缓存
+            assertEquals(new LunationEngine().getDegree(time), cached.getDegree(time));
+        }
+    }
+
+    @Test
+    public void parallelBatchMatchesSequential() throws Exception {
+        LunationEngine engine = new LunationEngine();
+        long[] times = new long[4 * MoonPhaseBatch.PARALLEL_THRESHOLD];
+        for (int i = 0; i < times.length; i++) {
+            // 时间交错分布，各线程不断跨越区间
+            times[i] = utc(2000, 1, 1) + (long) i * 7 * DAY / 3 + (i % 7) * DAY;
+        }
+        int[] expected = new int[times.length];
+        for (int i = 0; i < times.length; i++) {
+            expected[i] = new LunationEngine().getDegree(times[i]);
+        }
+        int[] degrees = new int[times.length];
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            MoonPhaseBatch.getDegrees(engine, times, degrees, executor, 4);
+        } finally {
+            executor.shutdown();
+        }
+        assertArrayEquals(expected, degrees);
+    }
+
+    private static void assertPhase(int phase, String published) throws ParseException {
+        long expected = parseUtc(published);
+        LunationEngine engine = new LunationEngine();
+        long actual = engine.getNextPhaseMillis(expected - 2 * DAY, phase);
+        assertTrue(published + " was " + (actual - expected) / 1000 + " s off",
+                Math.abs(actual - expected) <= TOLERANCE_MILLIS);
+    }
+
+    private static long parseUtc(String text) throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.UK);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.parse(text).getTime();
+    }
+
+    private static long utc(int year, int month, int day) {
+        try {
+            return parseUtc(String.format(Locale.UK, "%04d-%02d-%02d 00:00", year, month, day));
+        } catch (ParseException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
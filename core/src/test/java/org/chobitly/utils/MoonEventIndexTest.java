@@ -0,0 +1,94 @@
+package org.chobitly.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 月相事件索引、照亮比例和农历文字中的月相标注
+ */
+public class MoonEventIndexTest {
+
+    private static final TimeZone SHANGHAI = TimeZone.getTimeZone("Asia/Shanghai");
+    private static final long DAY = 86400000L;
+
+    private TimeZone defaultTimeZone;
+
+    @Before
+    public void setUp() {
+        defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(SHANGHAI);
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    @Test
+    public void illuminationFollowsRealElongation() throws ParseException {
+        assertEquals(0, LunationEngine.getIlluminatedFraction(parseUtc("2024-06-06 12:38")), 0.001);
+        assertEquals(1, LunationEngine.getIlluminatedFraction(parseUtc("2024-06-22 01:08")), 0.001);
+        // 上下弦时距角为90°，照亮比例接近一半
+        assertEquals(0.5, LunationEngine.getIlluminatedFraction(parseUtc("2024-06-14 05:18")), 0.01);
+        assertEquals(0.5, LunationEngine.getIlluminatedFraction(parseUtc("2024-06-28 21:53")), 0.01);
+    }
+
+    @Test
+    public void nextEventsAreFoundInOrder() throws ParseException {
+        long from = parseUtc("2024-06-01 00:00");
+        MoonEventIndex index = new MoonEventIndex(new LunationEngine(), from, from + 60 * DAY, SHANGHAI);
+        int position = index.nextEvent(from);
+        assertEquals(MoonEventIndex.NEW_MOON, index.getEventType(position));
+        assertNear(parseUtc("2024-06-06 12:38"), index.getEventMillis(position));
+        assertNear(parseUtc("2024-06-22 01:08"), index.getNextEventMillis(from, MoonEventIndex.FULL_MOON));
+        for (int i = 1; i < index.size(); i++) {
+            assertTrue(index.getEventMillis(i) > index.getEventMillis(i - 1));
+            assertEquals((index.getEventType(i - 1) + 1) % 4, index.getEventType(i));
+        }
+        assertEquals(-1, index.nextEvent(from + 60 * DAY));
+    }
+
+    @Test
+    public void perigeeFullMoonIsFound() throws ParseException {
+        // 2025-11-05 13:19的满月距地球约35.7万公里，是当年最大的满月
+        long from = parseUtc("2025-10-15 00:00");
+        MoonEventIndex index = new MoonEventIndex(new LunationEngine(), from, from + 60 * DAY, SHANGHAI);
+        long perigee = index.getNextEventMillis(from, MoonEventIndex.PERIGEE_FULL_MOON);
+        assertNear(parseUtc("2025-11-05 13:19"), perigee);
+        assertTrue(index.isPerigeeFullMoon(index.nextEvent(perigee - 1)));
+        assertFalse(index.isPerigeeFullMoon(index.nextEvent(from)));
+    }
+
+    @Test
+    public void lunarLabelShowsPhaseOnTheDay() throws ParseException {
+        LunarDateCache cache = new LunarDateCache();
+        cache.setPhaseModel(new LunationEngine());
+        // 北京时间2024-06-22 09:08满月，前一天不标注
+        assertFalse(cache.getLabel(parseUtc("2024-06-21 04:00")).endsWith("满月"));
+        assertTrue(cache.getLabel(parseUtc("2024-06-22 04:00")).endsWith(" 满月"));
+        assertTrue(cache.getLabel(parseUtc("2025-11-05 04:00")).endsWith(" 超级月亮"));
+        cache.setPhaseModel(MoonPhase.SIMPLE_MODEL);
+        assertFalse(cache.getLabel(parseUtc("2024-06-22 04:00")).endsWith("满月"));
+    }
+
+    // 不用assertEquals(float, float, float)，毫秒数转成float会损失一分钟以上的精度
+    private static void assertNear(long expected, long actual) {
+        assertTrue(expected + " != " + actual, Math.abs(expected - actual) <= 60 * 1000L);
+    }
+
+    private static long parseUtc(String text) throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.UK);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.parse(text).getTime();
+    }
+}
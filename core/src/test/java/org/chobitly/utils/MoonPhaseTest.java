@@ -0,0 +1,85 @@
+package org.chobitly.utils;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 与最初基于SimpleDateFormat和BigDecimal的实现比较。
+ * 最初的实现按设备时区解析基准时间，这里按注释中写的世界时解析，与{@link MoonPhase#BASE_MILLIS}相同。
+ */
+public class MoonPhaseTest {
+
+    private static final long YEAR_1900 = -2208988800000L;
+    private static final long YEAR_2100 = 4102444800000L;
+
+    @Test
+    public void baseMillisIsTheDocumentedUtcInstant() throws ParseException {
+        assertEquals(legacyBaseMillis(), MoonPhase.BASE_MILLIS);
+    }
+
+    @Test
+    public void randomTimesMatchLegacy() throws ParseException {
+        long base = legacyBaseMillis();
+        Random random = new Random(20150105);
+        for (int i = 0; i < 200000; i++) {
+            long time = YEAR_1900 + (long) (random.nextDouble() * (YEAR_2100 - YEAR_1900));
+            assertMatchesLegacy(base, time);
+        }
+    }
+
+    @Test
+    public void stepBoundariesMatchLegacy() throws ParseException {
+        long base = legacyBaseMillis();
+        // 包括基准时间之前的负数步数
+        for (long step = -2000; step <= 2000; step++) {
+            long start = MoonPhase.getStepStartMillis(step);
+            assertEquals(step, MoonPhase.getStepCount(start));
+            assertEquals(step - 1, MoonPhase.getStepCount(start - 1));
+            assertMatchesLegacy(base, start - 1);
+            assertMatchesLegacy(base, start);
+            assertMatchesLegacy(base, start + 1);
+        }
+    }
+
+    @Test
+    public void nextStepMillisIsTheNextChange() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            long time = MoonPhase.BASE_MILLIS + (long) ((random.nextDouble() - 0.5) * 2 * (YEAR_2100 - YEAR_1900));
+            long next = MoonPhase.getNextStepMillis(time);
+            long step = MoonPhase.getStepCount(time);
+            assertTrue(next > time);
+            assertEquals(step, MoonPhase.getStepCount(next - 1));
+            assertEquals(step + 1, MoonPhase.getStepCount(next));
+        }
+    }
+
+    private static void assertMatchesLegacy(long base, long time) {
+        long legacyCount = legacyStepCount(base, time);
+        assertEquals("steps at " + time, legacyCount, MoonPhase.getStepCount(time));
+        assertEquals("degree at " + time, 3 * (((int) legacyCount) % 60), MoonPhase.getDegree(time));
+    }
+
+    private static long legacyBaseMillis() throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd hh:mm", Locale.UK);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.parse("2015-01-05 04:53").getTime();
+    }
+
+    // 最初的Arith.round(Arith.div(elapsed, 42524050), 0)
+    private static long legacyStepCount(long base, long time) {
+        BigDecimal quotient = new BigDecimal(Double.toString(time - base))
+                .divide(new BigDecimal(Double.toString(42524050)), 2, BigDecimal.ROUND_HALF_UP);
+        return (long) new BigDecimal(Double.toString(quotient.doubleValue()))
+                .divide(new BigDecimal("1"), 0, BigDecimal.ROUND_HALF_UP).doubleValue();
+    }
+}
@@ -0,0 +1,169 @@
+package org.chobitly.utils;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 旋转和圆形裁剪的覆盖范围，以及图集中每个角度只渲染一次
+ */
+public class MoonRasterTest {
+
+    private static final int SIZE = 200;
+
+    @Test
+    public void zeroDegreeKeepsPixelsInsideCircle() {
+        int[] src = createSource(SIZE);
+        int[] dst = new int[SIZE * SIZE];
+        MoonRaster.rotateRound(src, SIZE, SIZE, 0, dst, SIZE);
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                double distance = distance(x, y, SIZE);
+                if (distance <= SIZE / 2.0 - 0.5) {
+                    assertEquals(src[y * SIZE + x], dst[y * SIZE + x]);
+                } else if (distance >= SIZE / 2.0 + 0.5) {
+                    assertEquals(0, dst[y * SIZE + x]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coverageIsTheInscribedCircle() {
+        int[] dst = new int[SIZE * SIZE];
+        MoonRaster.rotateRound(createSource(SIZE), SIZE, SIZE, 45, dst, SIZE);
+        double area = 0;
+        for (int pixel : dst) {
+            area += (pixel >>> 24) / 255.0;
+        }
+        double radius = SIZE / 2.0;
+        assertEquals(Math.PI * radius * radius, area, Math.PI * radius * radius * 0.001);
+    }
+
+    @Test
+    public void quarterTurnMovesPixelsClockwise() {
+        int[] src = createSource(SIZE);
+        int[] dst = new int[SIZE * SIZE];
+        MoonRaster.rotateRound(src, SIZE, SIZE, 90, dst, SIZE);
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                if (distance(x, y, SIZE) <= SIZE / 2.0 - 0.5) {
+                    // 顺时针旋转90度后，输出的(x, y)来自原图的(y, SIZE - 1 - x)
+                    assertEquals(src[(SIZE - 1 - x) * SIZE + y], dst[y * SIZE + x]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void nonSquareSourceIsCroppedToCenter() {
+        int width = SIZE + 40;
+        int[] src = new int[width * SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < width; x++) {
+                // 只有中间的正方形是不透明的
+                src[y * width + x] = x >= 20 && x < 20 + SIZE ? 0xff336699 : 0;
+            }
+        }
+        int size = MoonRaster.getOutputSize(width, SIZE);
+        assertEquals(SIZE, size);
+        int[] dst = new int[size * size];
+        MoonRaster.rotateRound(src, width, SIZE, 0, dst, size);
+        assertEquals(0xff336699, dst[SIZE / 2 * SIZE + 1]);
+        assertEquals(0xff336699, dst[SIZE / 2 * SIZE + SIZE - 2]);
+    }
+
+    @Test
+    public void parallelMatchesSequential() throws InterruptedException {
+        int size = 512;
+        int[] src = createSource(size);
+        int[] expected = new int[size * size];
+        int[] actual = new int[size * size];
+        MoonRaster.rotateRound(src, size, size, 123, expected, size);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            MoonRaster.rotateRound(src, size, size, 123, actual, size, executor, 4);
+        } finally {
+            executor.shutdown();
+        }
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void innerMoonImagesAreAlreadyRound() throws IOException {
+        // 旋转模式不发送图片时直接让桌面旋转资源中的原图，原图必须与裁剪后的0度帧相同
+        for (String density : new String[]{"mdpi", "hdpi", "xhdpi", "xxhdpi"}) {
+            File file = new File("../mobile/src/main/res/drawable-" + density, "watch_inner_moon.png");
+            BufferedImage image = ImageIO.read(file);
+            int size = MoonRaster.getOutputSize(image.getWidth(), image.getHeight());
+            assertEquals(file.getPath(), image.getWidth(), size);
+            int[] src = image.getRGB(0, 0, size, size, null, 0, size);
+            int[] dst = new int[size * size];
+            MoonRaster.rotateRound(src, size, size, 0, dst, size);
+            for (int i = 0; i < src.length; i++) {
+                // 裁剪只改变透明度，半透明像素的颜色经过预乘会有舍入的差别
+                assertEquals(file.getPath() + " pixel " + i, src[i] >>> 24, dst[i] >>> 24);
+                if (src[i] >>> 24 == 0xff) {
+                    assertEquals(file.getPath() + " pixel " + i, src[i], dst[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void atlasRendersEachStepOnce() {
+        final int[] src = createSource(64);
+        final int[] renders = new int[MoonPhase.STEPS_PER_CYCLE];
+        MoonPhaseAtlas<int[]> atlas = new MoonPhaseAtlas<int[]>(MoonPhase.STEPS_PER_CYCLE) {
+            @Override
+            protected int[] render(int degree) {
+                renders[degree / MoonPhase.DEGREE_PER_STEP]++;
+                int[] frame = new int[64 * 64];
+                MoonRaster.rotateRound(src, 64, 64, degree, frame, 64);
+                return frame;
+            }
+        };
+        // 两个完整的周期，角度从0到177，每步3度
+        int[][] first = new int[MoonPhase.STEPS_PER_CYCLE][];
+        for (int i = 0; i < 2 * MoonPhase.STEPS_PER_CYCLE; i++) {
+            int step = i % MoonPhase.STEPS_PER_CYCLE;
+            int[] frame = atlas.getFrame(step * MoonPhase.DEGREE_PER_STEP);
+            if (first[step] == null) {
+                first[step] = frame;
+            } else {
+                assertSame(first[step], frame);
+            }
+        }
+        for (int count : renders) {
+            assertEquals(1, count);
+        }
+        assertEquals(MoonPhase.STEPS_PER_CYCLE, atlas.getFrameCount());
+    }
+
+    // 不透明的渐变，每个像素的颜色都不同
+    private static int[] createSource(int size) {
+        int[] src = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                src[y * size + x] = 0xff000000 | (x & 0xff) << 16 | (y & 0xff) << 8 | ((x + y) & 0xff);
+            }
+        }
+        return src;
+    }
+
+    private static double distance(int x, int y, int size) {
+        double dx = x + 0.5 - size / 2.0;
+        double dy = y + 0.5 - size / 2.0;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,135 @@
+package org.chobitly.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 节气时刻与天文年历比较，节气交界前后的查找，以及农历文字在节气时刻失效
+ */
+public class SolarTermsTest {
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long DAY = 24 * 60 * MINUTE;
+
+    private TimeZone defaultTimeZone;
+
+    @Before
+    public void setUp() {
+        defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    @Test
+    public void matchesPublishedInstants() throws ParseException {
+        // 天文年历公布的时刻（世界时），取整到分钟，表格与它相差不到一分钟
+        assertTerm("2000-03-20 07:35", 2000, 5, "春分");
+        assertTerm("2023-12-22 03:27", 2023, 23, "冬至");
+        assertTerm("2024-02-04 08:27", 2024, 2, "立春");
+        assertTerm("2024-03-20 03:06", 2024, 5, "春分");
+        assertTerm("2024-06-20 20:51", 2024, 11, "夏至");
+        assertTerm("2024-12-21 09:21", 2024, 23, "冬至");
+        assertTerm("2025-02-03 14:10", 2025, 2, "立春");
+    }
+
+    @Test
+    public void termChangesAtTheInstant() {
+        int index = (2024 - SolarTerms.MIN_YEAR) * SolarTerms.TERMS_PER_YEAR + 5;
+        long millis = SolarTerms.getTermMillis(index);
+        assertEquals(index - 1, SolarTerms.getTermIndex(millis - MINUTE));
+        assertEquals(index - 1, SolarTerms.getTermIndex(millis - 1));
+        assertEquals(index, SolarTerms.getTermIndex(millis));
+        assertEquals(index, SolarTerms.getTermIndex(millis + MINUTE));
+        assertEquals(millis, SolarTerms.getNextTermMillis(millis - MINUTE));
+        assertEquals(SolarTerms.getTermMillis(index + 1), SolarTerms.getNextTermMillis(millis));
+    }
+
+    @Test
+    public void everyTermIsFoundAtItsBoundaries() {
+        for (int i = 0; i < SolarTerms.COUNT; i++) {
+            long millis = SolarTerms.getTermMillis(i);
+            assertEquals(i - 1, SolarTerms.getTermIndex(millis - 1));
+            assertEquals(i, SolarTerms.getTermIndex(millis));
+            if (i > 0) {
+                // 相邻节气相隔14~16天
+                long gap = millis - SolarTerms.getTermMillis(i - 1);
+                assertTrue(SolarTerms.getName(i) + " " + SolarTerms.getYear(i), gap > 14 * DAY && gap < 16 * DAY);
+            }
+        }
+    }
+
+    @Test
+    public void firstAndLastEntries() throws ParseException {
+        // 1900年小寒：北京时间1900-01-06 02:04
+        assertEquals("小寒", SolarTerms.getName(0));
+        assertEquals(SolarTerms.MIN_YEAR, SolarTerms.getYear(0));
+        assertNear(parseUtc("1900-01-05 18:04"), SolarTerms.getTermMillis(0));
+        assertEquals(-1, SolarTerms.getTermIndex(SolarTerms.getTermMillis(0) - 1));
+        assertEquals(SolarTerms.getTermMillis(0), SolarTerms.getNextTermMillis(parseUtc("1900-01-01 00:00")));
+
+        // 2100年冬至：北京时间2100-12-22 03:50
+        int last = SolarTerms.COUNT - 1;
+        assertEquals("冬至", SolarTerms.getName(last));
+        assertEquals(SolarTerms.MAX_YEAR, SolarTerms.getYear(last));
+        assertNear(parseUtc("2100-12-21 19:50"), SolarTerms.getTermMillis(last));
+        assertEquals(last, SolarTerms.getTermIndex(parseUtc("2101-06-01 00:00")));
+        assertEquals(-1, SolarTerms.getNextTermMillis(SolarTerms.getTermMillis(last)));
+    }
+
+    @Test
+    public void lunarLabelExpiresAtTheTerm() {
+        // 2024年春分在北京时间11:06，当天上午和下午的文字不同
+        long term = SolarTerms.getTermMillis(2024, 5);
+        LunarDateCache cache = new LunarDateCache();
+        String before = cache.getLabel(term - MINUTE);
+        assertTrue(before, before.endsWith(" 惊蛰"));
+        assertEquals(term, cache.getValidUntil());
+        assertFalse(cache.isValid(term));
+
+        String after = cache.getLabel(term + MINUTE);
+        assertTrue(after, after.endsWith(" 春分"));
+        assertEquals(term, cache.getValidFrom());
+        assertFalse(cache.isValid(term - 1));
+        // 两边是同一个农历日期
+        assertEquals(before.substring(0, before.indexOf(' ')), after.substring(0, after.indexOf(' ')));
+
+        // 没有节气的日子在午夜失效
+        long nextDay = cache.getValidUntil();
+        assertEquals(0, (nextDay + 8 * 60 * MINUTE) % DAY);
+        cache.getLabel(nextDay + MINUTE);
+        assertEquals(nextDay, cache.getValidFrom());
+        assertEquals(nextDay + DAY, cache.getValidUntil());
+    }
+
+    private static void assertTerm(String published, int year, int term, String name) throws ParseException {
+        int index = (year - SolarTerms.MIN_YEAR) * SolarTerms.TERMS_PER_YEAR + term;
+        assertEquals(name, SolarTerms.getName(index));
+        assertNear(parseUtc(published), SolarTerms.getTermMillis(year, term));
+        assertEquals(index, SolarTerms.getTermIndex(parseUtc(published) + MINUTE));
+    }
+
+    // 不用assertEquals(float, float, float)，毫秒数转成float会损失一分钟以上的精度
+    private static void assertNear(long expected, long actual) {
+        assertTrue(expected + " != " + actual, Math.abs(expected - actual) <= MINUTE);
+    }
+
+    private static long parseUtc(String text) throws ParseException {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.UK);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.parse(text).getTime();
+    }
+}
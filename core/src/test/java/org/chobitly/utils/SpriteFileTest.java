@@ -0,0 +1,186 @@
+package org.chobitly.utils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 缓存文件的读写，以及key不同、头部不正确或长度不对的文件都不会被读出
+ */
+public class SpriteFileTest {
+
+    private static final int WIDTH = 3;
+    private static final int HEIGHT = 2;
+    private static final long CHECKSUM = 0x89abcdefL;
+    private static final int APP_VERSION = 7;
+    private static final String VARIANT = "moon_120_45";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private long key;
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(folder.getRoot(), "moon.sprite");
+        key = SpriteFile.getKey(CHECKSUM, APP_VERSION, VARIANT);
+        SpriteFile.write(file, key, WIDTH, HEIGHT, SpriteFile.CONFIG_ARGB_8888, createPixels(4));
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        assertEquals(SpriteFile.HEADER_SIZE + WIDTH * HEIGHT * 4, file.length());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        SpriteFile sprite = SpriteFile.open(file, key);
+        assertNotNull(sprite);
+        assertEquals(WIDTH, sprite.getWidth());
+        assertEquals(HEIGHT, sprite.getHeight());
+        assertEquals(SpriteFile.CONFIG_ARGB_8888, sprite.getConfig());
+        assertEquals(createPixels(4), sprite.getPixels());
+        // 每次取像素都是独立的position
+        sprite.getPixels().get(new byte[8]);
+        assertEquals(WIDTH * HEIGHT * 4, sprite.getPixels().remaining());
+    }
+
+    @Test
+    public void writeUsesRemainingPixelsOnly() throws IOException {
+        ByteBuffer pixels = ByteBuffer.allocate(2 + WIDTH * HEIGHT);
+        pixels.position(2);
+        SpriteFile.write(file, key, WIDTH, HEIGHT, SpriteFile.CONFIG_ALPHA_8, pixels);
+        assertEquals(2, pixels.position());
+        SpriteFile sprite = SpriteFile.open(file, key);
+        assertNotNull(sprite);
+        assertEquals(SpriteFile.CONFIG_ALPHA_8, sprite.getConfig());
+        assertEquals(WIDTH * HEIGHT, sprite.getPixels().remaining());
+    }
+
+    @Test
+    public void differentKeyIsStale() throws IOException {
+        long otherChecksum = SpriteFile.getKey(CHECKSUM + 1, APP_VERSION, VARIANT);
+        long otherVersion = SpriteFile.getKey(CHECKSUM, APP_VERSION + 1, VARIANT);
+        long otherVariant = SpriteFile.getKey(CHECKSUM, APP_VERSION, VARIANT + "0");
+        assertEquals(key, SpriteFile.getKey(CHECKSUM, APP_VERSION, VARIANT));
+        assertTrue(otherChecksum != key && otherVersion != key && otherVariant != key);
+        assertNull(SpriteFile.open(file, otherChecksum));
+        assertNull(SpriteFile.open(file, otherVersion));
+        assertNull(SpriteFile.open(file, otherVariant));
+    }
+
+    @Test
+    public void missingFileIsNull() throws IOException {
+        assertNull(SpriteFile.open(new File(folder.getRoot(), "missing.sprite"), key));
+        assertNull(SpriteFile.open(folder.getRoot(), key));
+    }
+
+    @Test
+    public void badMagicOrVersionIsRejected() throws IOException {
+        patchInt(0, SpriteFile.MAGIC + 1);
+        assertNull(SpriteFile.open(file, key));
+        patchInt(0, SpriteFile.MAGIC);
+        patchInt(4, SpriteFile.VERSION + 1);
+        assertNull(SpriteFile.open(file, key));
+        patchInt(4, SpriteFile.VERSION);
+        assertNotNull(SpriteFile.open(file, key));
+    }
+
+    @Test
+    public void unknownConfigIsRejected() throws IOException {
+        patchInt(16, 0);
+        assertNull(SpriteFile.open(file, key));
+        patchInt(16, SpriteFile.CONFIG_ALPHA_8 + 1);
+        assertNull(SpriteFile.open(file, key));
+    }
+
+    @Test
+    public void sizeMismatchIsRejected() throws IOException {
+        // 长度与宽高不符
+        patchInt(20, WIDTH * HEIGHT * 4 - 1);
+        assertNull(SpriteFile.open(file, key));
+        patchInt(20, WIDTH * HEIGHT * 4);
+        // 宽高与长度不符
+        patchInt(8, WIDTH + 1);
+        assertNull(SpriteFile.open(file, key));
+        patchInt(8, 0);
+        assertNull(SpriteFile.open(file, key));
+        patchInt(8, WIDTH);
+        // 同样的长度，像素格式不同
+        patchInt(16, SpriteFile.CONFIG_RGB_565);
+        assertNull(SpriteFile.open(file, key));
+    }
+
+    @Test
+    public void truncatedFileIsRejected() throws IOException {
+        setLength(file.length() - 1);
+        assertNull(SpriteFile.open(file, key));
+        setLength(SpriteFile.HEADER_SIZE);
+        assertNull(SpriteFile.open(file, key));
+        setLength(SpriteFile.HEADER_SIZE - 1);
+        assertNull(SpriteFile.open(file, key));
+    }
+
+    @Test
+    public void oversizedFileIsRejected() throws IOException {
+        setLength(file.length() + 1);
+        assertNull(SpriteFile.open(file, key));
+    }
+
+    @Test
+    public void writeRejectsWrongPixelCount() throws IOException {
+        try {
+            SpriteFile.write(file, key, WIDTH, HEIGHT, SpriteFile.CONFIG_RGB_565, createPixels(4));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // 像素数据的长度不对
+        }
+        try {
+            SpriteFile.write(file, key, WIDTH, HEIGHT, 0, createPixels(4));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // 未知的像素格式
+        }
+        // 原来的文件不受影响
+        assertNotNull(SpriteFile.open(file, key));
+    }
+
+    private static ByteBuffer createPixels(int bytesPerPixel) {
+        ByteBuffer pixels = ByteBuffer.allocate(WIDTH * HEIGHT * bytesPerPixel);
+        for (int i = 0; i < pixels.capacity(); i++) {
+            pixels.put(i, (byte) (i * 37 + 11));
+        }
+        return pixels;
+    }
+
+    private void patchInt(int offset, int value) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.seek(offset);
+            raf.writeInt(value);
+        } finally {
+            raf.close();
+        }
+    }
+
+    private void setLength(long length) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(length);
+        } finally {
+            raf.close();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.chobitly.utils;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 指针的几何常量与小部件原来的指针图片比较，每种屏幕密度都要一致
+ */
+public class WatchHandsTest {
+
+    private static final String RES = "../mobile/src/main/res/";
+    private static final String[] DENSITIES = {"mdpi", "hdpi", "xhdpi", "xxhdpi"};
+    /**
+     * 图片中的指针有轻微的倾斜，边缘允许一个半像素的误差
+     */
+    private static final double TOLERANCE_PIXELS = 1.5;
+
+    @Test
+    public void minuteHandMatchesImages() throws IOException {
+        for (String density : DENSITIES) {
+            assertHand(density, "watch_minute.png", WatchHands.MINUTE_HAND_LENGTH);
+        }
+    }
+
+    @Test
+    public void hourHandMatchesImages() throws IOException {
+        for (String density : DENSITIES) {
+            assertHand(density, "watch_hour.png", WatchHands.HOUR_HAND_LENGTH);
+        }
+    }
+
+    @Test
+    public void degreesFollowTheClock() {
+        assertEquals(0f, WatchHands.getHourDegree(12, 0), 0);
+        assertEquals(285f, WatchHands.getHourDegree(21, 30), 0);
+        assertEquals(354f, WatchHands.getMinuteDegree(59), 0);
+        assertEquals(90f, WatchHands.getSecondDegree(15), 0);
+    }
+
+    private static void assertHand(String density, String name, float length) throws IOException {
+        File file = new File(RES + "drawable-" + density, name);
+        BufferedImage image = ImageIO.read(file);
+        String message = file.getPath();
+        int size = image.getWidth();
+        assertEquals(message, size, image.getHeight());
+
+        // 指针朝向12点，竖直方向的范围是从针尖的半圆到越过中心的尾部
+        int top = Integer.MAX_VALUE;
+        int bottom = Integer.MIN_VALUE;
+        // 按透明度加权的平均颜色，图片的边缘和高光处颜色略有不同
+        double[] channels = new double[3];
+        double totalAlpha = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int alpha = image.getRGB(x, y) >>> 24;
+                if (alpha > 127) {
+                    top = Math.min(top, y);
+                    bottom = Math.max(bottom, y + 1);
+                }
+                for (int i = 0; i < 3; i++) {
+                    channels[i] += ((image.getRGB(x, y) >> (8 * i)) & 0xff) * alpha;
+                }
+                totalAlpha += alpha;
+            }
+        }
+        double center = size / 2.0;
+        double radius = WatchHands.HAND_WIDTH * size / 2;
+        assertEquals(message, center - length * size - radius, top, TOLERANCE_PIXELS);
+        assertEquals(message, center + WatchHands.HAND_TAIL * size + radius, bottom, TOLERANCE_PIXELS);
+
+        // 针身中段一行的透明度之和就是指针的宽度
+        int row = (int) (center - length * size / 2);
+        double width = 0;
+        for (int x = 0; x < size; x++) {
+            width += (image.getRGB(x, row) >>> 24) / 255.0;
+        }
+        assertEquals(message, WatchHands.HAND_WIDTH * size, width, TOLERANCE_PIXELS);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(message, (WatchHands.HAND_COLOR >> (8 * i)) & 0xff, channels[i] / totalAlpha, 2);
+        }
+    }
+}
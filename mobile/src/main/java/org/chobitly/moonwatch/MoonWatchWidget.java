@@ -1,15 +1,38 @@
 package org.chobitly.moonwatch;
 
+import android.annotation.TargetApi;
 import android.appwidget.AppWidgetManager;
 import android.appwidget.AppWidgetProvider;
 import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+import android.util.SparseIntArray;
 import android.view.View;
+import android.widget.FrameLayout;
 import android.widget.RemoteViews;
 
+import org.chobitly.utils.BitmapPool;
+import org.chobitly.utils.FrameCompositor;
+import org.chobitly.utils.HandRenderer;
+import org.chobitly.utils.LunarDateCache;
+import org.chobitly.utils.MoonPhaseAtlas;
 import org.chobitly.utils.MoonRotateUtil;
+import org.chobitly.utils.RemoteViewsBudget;
+import org.chobitly.utils.RenderProfile;
+import org.chobitly.utils.WatchHands;
 
+import java.io.IOException;
 import java.util.Calendar;
 import java.util.Date;
 
@@ -18,6 +41,8 @@ import java.util.Date;
  */
 public class MoonWatchWidget extends AppWidgetProvider {
 
+    private static final String TAG = "MoonWatchWidget";
+
     private static int[] monthRes = {R.drawable.month_1, R.drawable.month_2, R.drawable.month_3,
             R.drawable.month_4, R.drawable.month_5, R.drawable.month_6,
             R.drawable.month_7, R.drawable.month_8, R.drawable.month_9,
@@ -30,12 +55,53 @@ public class MoonWatchWidget extends AppWidgetProvider {
             R.drawable.date_20, R.drawable.date_21, R.drawable.date_22, R.drawable.date_23,
             R.drawable.date_24, R.drawable.date_25, R.drawable.date_26, R.drawable.date_27,
             R.drawable.date_28, R.drawable.date_29, R.drawable.date_30, R.drawable.date_31};
+    // 农历日期和节气只在午夜或节气交接时变化，每分钟刷新时直接用缓存的文字
+    private static final LunarDateCache lunarDate = new LunarDateCache();
+    // 月亮只有60个角度，每个角度只旋转一次，之后直接用图集中的图片。按帧的边长缓存，0表示原图大小。
+    // 缓存的尺寸由所有小部件当前用到的尺寸决定，不设固定的上限，大小不同的小部件不会互相挤掉对方的图集
+    private static final SparseArray<MoonPhaseAtlas<Bitmap>> moonAtlases = new SparseArray<MoonPhaseAtlas<Bitmap>>();
+    // 每个小部件正在用的图集尺寸，降级到不用图集时删除
+    private static final SparseIntArray atlasSizes = new SparseIntArray();
+    // 时针和分针用Path画在同一张反复使用的遮罩上
+    private static HandRenderer handRenderer;
+    // 合成模式下按小部件的像素大小缓存合成器，同样只保留仍有小部件在用的尺寸
+    private static final SparseArray<FrameCompositor> frameCompositors = new SparseArray<FrameCompositor>();
+    private static final SparseIntArray compositorSizes = new SparseIntArray();
+    // 每次重新渲染所有图片时递增，写入WidgetImageProvider的图片版本中带有它
+    private static volatile int imageGeneration;
+    // 按设备档次或用户设置选择的渲染参数，null表示还没有选择
+    private static RenderProfile renderProfile;
+    // 桌面是否支持通过RemoteViews旋转ImageView，null表示还没有检查
+    private static Boolean rotationSupported;
+    // 旋转模式下已经发送过完整布局和图片的小部件
+    private static final SparseBooleanArray rotatedWidgets = new SparseBooleanArray();
+    // 拖动调整大小时桌面会连续发送很多次options改变，停下来这么久之后才按最后的大小重新渲染
+    private static final long RESIZE_DEBOUNCE_MILLIS = 500;
+    private static final Handler resizeHandler = new Handler(Looper.getMainLooper());
+    // 等待中的大小改变，只在主线程中访问
+    private static final SparseArray<ResizeUpdate> pendingResizes = new SparseArray<ResizeUpdate>();
+
+    // 发送前逐级降低的表示方式
+    private static final int LEVEL_FULL = 0;
+    // 图片缩小一半，由桌面放大
+    private static final int LEVEL_REDUCED = 1;
+    // 图片写成文件，RemoteViews中只有Uri
+    private static final int LEVEL_SHARED = 2;
+    // 只用资源中的图片
+    private static final int LEVEL_NO_BITMAP = 3;
+    private static final String[] LEVEL_NAMES = {"full", "reduced", "shared", "no-bitmap"};
+    // 单个RemoteViews打包后的大小预算
+    private static final RemoteViewsBudget updateBudget = new RemoteViewsBudget(RemoteViewsBudget.DEFAULT_BUDGET);
+    // 每个小部件上次没有超出预算的级别，下次直接从这一级开始，大小或图片改变时重新从头尝试
+    private static final SparseIntArray budgetLevels = new SparseIntArray();
 
     /**
      * @see {moon_watch_widget_info.xml android:updatePeriodMillis="1800000" 半小时触发一次这里的刷新}
      */
     @Override
     public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
+        // 服务启动前也按天文月相表计算角度，时刻表只加载一次
+        MoonRotateUtil.setPhaseModel(MoonRotateUtil.loadLunationTable(context));
         // There may be multiple widgets active, so update all of them
         updateAllWidget(context, appWidgetManager, appWidgetIds);
         if (TimeService.getInstance() != null) {//如果服务已经启动
@@ -45,11 +111,40 @@ public class MoonWatchWidget extends AppWidgetProvider {
         }
     }
 
+    @Override
+    public void onAppWidgetOptionsChanged(Context context, AppWidgetManager appWidgetManager,
+                                          int appWidgetId, Bundle newOptions) {
+        // 大小改变后按新的大小渲染，连续的改变只处理最后一次
+        ResizeUpdate previous = pendingResizes.get(appWidgetId);
+        if (previous != null) {
+            resizeHandler.removeCallbacks(previous);
+            previous.result.finish();
+        }
+        ResizeUpdate update = new ResizeUpdate(context.getApplicationContext(), appWidgetManager,
+                appWidgetId, goAsync());
+        pendingResizes.put(appWidgetId, update);
+        resizeHandler.postDelayed(update, RESIZE_DEBOUNCE_MILLIS);
+    }
+
     @Override
     public void onDeleted(Context context, int[] appWidgetIds) {
         // When the user deletes the widget, delete the preference associated with it.
         for (int appWidgetId : appWidgetIds) {
             MoonWatchWidgetConfigureActivity.deleteShowDatePref(context, appWidgetId);
+            synchronized (MoonWatchWidget.class) {
+                rotatedWidgets.delete(appWidgetId);
+                budgetLevels.delete(appWidgetId);
+                atlasSizes.delete(appWidgetId);
+                compositorSizes.delete(appWidgetId);
+                removeUnusedImages();
+            }
+            WidgetImageProvider.remove(context, appWidgetId);
+            ResizeUpdate pending = pendingResizes.get(appWidgetId);
+            if (pending != null) {
+                resizeHandler.removeCallbacks(pending);
+                pendingResizes.remove(appWidgetId);
+                pending.result.finish();
+            }
         }
     }
 
@@ -81,34 +176,381 @@ public class MoonWatchWidget extends AppWidgetProvider {
     }
 
     /**
+     * 时区改变后农历日期需要重新计算
+     */
+    static void invalidateLunarDate() {
+        lunarDate.invalidate();
+    }
+
+    /**
+     * 屏幕密度等配置改变后月亮和指针图片需要重新渲染
+     */
+    static synchronized void invalidateImages() {
+        imageGeneration++;
+        for (int i = 0; i < moonAtlases.size(); i++) {
+            moonAtlases.valueAt(i).clear();
+        }
+        moonAtlases.clear();
+        atlasSizes.clear();
+        handRenderer = null;
+        frameCompositors.clear();
+        compositorSizes.clear();
+        // 旋转模式下月亮图片也要重新发送
+        rotatedWidgets.clear();
+        budgetLevels.clear();
+    }
+
+    /**
+     * @return 当前的渲染参数，第一次调用时按用户设置或设备档次选择，并按它设置{@link BitmapPool}的大小
+     */
+    static synchronized RenderProfile getRenderProfile(Context context) {
+        if (renderProfile == null) {
+            renderProfile = RenderProfile.forTier(context,
+                    MoonWatchWidgetConfigureActivity.loadRenderTierPref(context));
+            BitmapPool.setMaxSize(renderProfile.getPoolSize());
+            Log.i(TAG, "Render profile tier " + renderProfile.getTier());
+        }
+        return renderProfile;
+    }
+
+    /**
+     * 用户修改渲染档次后重新选择渲染参数，所有图片按新的参数重新渲染
+     */
+    static synchronized void invalidateRenderProfile() {
+        renderProfile = null;
+        invalidateImages();
+    }
+
+    /**
+     * @param appWidgetId 使用图集的小部件，记下它用到的尺寸，它原来用的尺寸没有别的小部件在用时会被释放
+     * @param size        帧的最大边长，小部件较小时原图直接解码到这个大小再旋转；0表示按原图大小
+     */
+    private static synchronized MoonPhaseAtlas<Bitmap> getMoonAtlas(Context context, int appWidgetId, int size) {
+        MoonPhaseAtlas<Bitmap> atlas = moonAtlases.get(size);
+        if (atlas == null) {
+            atlas = size > 0
+                    ? MoonRotateUtil.createPhaseAtlas(context, R.drawable.watch_inner_moon, size)
+                    : MoonRotateUtil.createPhaseAtlas(context, R.drawable.watch_inner_moon);
+            atlas.setMaxFrames(Math.min(atlas.getMaxFrames(), getRenderProfile(context).getMaxAtlasFrames()));
+            moonAtlases.put(size, atlas);
+        }
+        atlasSizes.put(appWidgetId, size);
+        return atlas;
+    }
+
+    private static synchronized HandRenderer getHandRenderer(Context context) {
+        if (handRenderer == null) {
+            // 与原来的指针图片一样大，布局中的缩放不变
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeResource(context.getResources(), R.drawable.watch_minute, options);
+            handRenderer = new HandRenderer(Math.min(options.outWidth, options.outHeight));
+        }
+        return handRenderer;
+    }
+
+    private static synchronized FrameCompositor getFrameCompositor(Context context, int appWidgetId, int size) {
+        FrameCompositor compositor = frameCompositors.get(size);
+        if (compositor == null) {
+            compositor = new FrameCompositor(size, R.drawable.watch_preview, R.drawable.watch_outline);
+            compositor.setFilterBitmap(getRenderProfile(context).isFilterBitmap());
+            frameCompositors.put(size, compositor);
+        }
+        compositorSizes.put(appWidgetId, size);
+        return compositor;
+    }
+
+    // 释放没有任何小部件在用的图集和合成器
+    private static synchronized void removeUnusedImages() {
+        for (int i = moonAtlases.size() - 1; i >= 0; i--) {
+            if (atlasSizes.indexOfValue(moonAtlases.keyAt(i)) < 0) {
+                moonAtlases.valueAt(i).clear();
+                moonAtlases.removeAt(i);
+            }
+        }
+        for (int i = frameCompositors.size() - 1; i >= 0; i--) {
+            if (compositorSizes.indexOfValue(frameCompositors.keyAt(i)) < 0) {
+                frameCompositors.removeAt(i);
+            }
+        }
+    }
+
+    /**
+     * 小部件实际显示的边长（像素），竖屏时取最小宽度和最大高度中较小的一个，横屏时取最大宽度和最小高度中较小的一个
+     *
+     * @return API 16以下或者还不知道大小时返回0
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static int getWidgetSize(Context context, AppWidgetManager appWidgetManager, int appWidgetId) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN) {
+            return 0;
+        }
+        Bundle options = appWidgetManager.getAppWidgetOptions(appWidgetId);
+        boolean landscape = context.getResources().getConfiguration().orientation
+                == Configuration.ORIENTATION_LANDSCAPE;
+        int widthDp = options.getInt(landscape
+                ? AppWidgetManager.OPTION_APPWIDGET_MAX_WIDTH : AppWidgetManager.OPTION_APPWIDGET_MIN_WIDTH);
+        int heightDp = options.getInt(landscape
+                ? AppWidgetManager.OPTION_APPWIDGET_MIN_HEIGHT : AppWidgetManager.OPTION_APPWIDGET_MAX_HEIGHT);
+        return Math.round(Math.min(widthDp, heightDp) * context.getResources().getDisplayMetrics().density);
+    }
+
+    /**
+     * 知道小部件的大小时把所有图层合成为一张实际大小的图片，否则分别设置每个图层。
+     * 打包后的大小超出{@link #updateBudget}时依次降级：缩小图片、通过{@link WidgetImageProvider}共享图片、不发送图片。
+     *
      * @see {moon_watch_widget_info.xml android:updatePeriodMillis="1800000" 半小时刷新一次月相}
      */
     static void updateAppWidget(Context context, AppWidgetManager appWidgetManager,
                                 int appWidgetId) {
-        // Construct the RemoteViews object
-        RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.moon_watch_widget);
-        // 设置Moon图片的旋转角度
-        views.setImageViewBitmap(R.id.imageView_Moon,
-                MoonRotateUtil.getRotateImage(context, R.drawable.watch_inner_moon, MoonRotateUtil.getDegree()));
+        UpdateState state = new UpdateState();
+        state.appWidgetId = appWidgetId;
+        // 设置Moon图片的旋转角度，月相模型在TimeService或onUpdate中设置
+        state.moonDegree = (int) MoonRotateUtil.getDegree();
         // 根据用户设置确定是否显示时间控件
-        boolean showDate = MoonWatchWidgetConfigureActivity.loadShowDatePref(context, appWidgetId);
-        views.setViewVisibility(R.id.imageView_Month, showDate ? View.VISIBLE : View.GONE);
-        views.setViewVisibility(R.id.imageView_Day, showDate ? View.VISIBLE : View.GONE);
+        state.showDate = MoonWatchWidgetConfigureActivity.loadShowDatePref(context, appWidgetId);
         // 根据当前日期和时间设置小部件
         Calendar cal = Calendar.getInstance();
         cal.setTime(new Date(System.currentTimeMillis()));
-        // 获取时间并控制指针
-        views.setImageViewBitmap(R.id.imageView_Minute,
-                MoonRotateUtil.getRotateImage(context, R.drawable.watch_minute,
-                        cal.get(Calendar.MINUTE) * 6f));
-        views.setImageViewBitmap(R.id.imageView_Hour,
-                MoonRotateUtil.getRotateImage(context, R.drawable.watch_hour,
-                        cal.get(Calendar.HOUR) * 30f + cal.get(Calendar.MINUTE) * 0.5f));
-        // 根据当前日期设置小部件
-        views.setImageViewResource(R.id.imageView_Month, monthRes[cal.get(Calendar.MONTH)]);
-        views.setImageViewResource(R.id.imageView_Day, dayRes[cal.get(Calendar.DAY_OF_MONTH) - 1]);
+        state.hourDegree = WatchHands.getHourDegree(cal.get(Calendar.HOUR), cal.get(Calendar.MINUTE));
+        state.minuteDegree = WatchHands.getMinuteDegree(cal.get(Calendar.MINUTE));
+        state.month = monthRes[cal.get(Calendar.MONTH)];
+        state.day = dayRes[cal.get(Calendar.DAY_OF_MONTH) - 1];
+        // 农历日期和节气
+        if (state.showDate) {
+            lunarDate.setPhaseModel(MoonRotateUtil.getPhaseModel());
+            state.lunarLabel = lunarDate.getLabel(cal.getTimeInMillis());
+        }
+
+        state.rotation = isRotationSupported(context);
+        if (state.rotation) {
+            // 图片只在第一次更新时发送，之后每分钟只发送几个旋转角度和资源id
+            synchronized (MoonWatchWidget.class) {
+                state.partial = rotatedWidgets.get(appWidgetId);
+            }
+        }
+        // 月亮等图片按小部件的实际大小渲染，低端设备再按比例缩小，不知道大小时按原图大小，由桌面缩放
+        RenderProfile profile = getRenderProfile(context);
+        state.size = Math.round(getWidgetSize(context, appWidgetManager, appWidgetId) * profile.getRenderScale());
+
+        // 从上次没有超出预算的级别开始
+        int level;
+        synchronized (MoonWatchWidget.class) {
+            level = budgetLevels.get(appWidgetId, LEVEL_FULL);
+        }
+        RemoteViews views = buildViews(context, state, level);
+        while (level < LEVEL_NO_BITMAP && !updateBudget.fits(views, appWidgetId, LEVEL_NAMES[level])) {
+            level++;
+            if (level == LEVEL_REDUCED && state.size == 0) {
+                // 不知道大小时没有更小的尺寸可用
+                level++;
+            }
+            views = buildViews(context, state, level);
+        }
+        synchronized (MoonWatchWidget.class) {
+            budgetLevels.put(appWidgetId, level);
+            // 最后选定的级别没有用到图集或合成器时，这个小部件不再占用它们
+            if (state.atlas == null) {
+                atlasSizes.delete(appWidgetId);
+            }
+            if (!state.composited) {
+                compositorSizes.delete(appWidgetId);
+            }
+            removeUnusedImages();
+        }
+
         // Instruct the widget manager to update the widget
-        appWidgetManager.updateAppWidget(appWidgetId, views);
+        if (state.partial) {
+            // 桌面会把这些改动合并到保存的RemoteViews中，桌面重启后也不会丢失
+            appWidgetManager.partiallyUpdateAppWidget(appWidgetId, views);
+        } else {
+            appWidgetManager.updateAppWidget(appWidgetId, views);
+            if (state.rotation) {
+                synchronized (MoonWatchWidget.class) {
+                    rotatedWidgets.put(appWidgetId, true);
+                }
+            }
+        }
+        if (state.atlas != null && profile.isPrewarm() && !state.rotation) {
+            // 月亮转到下一个角度时不需要在刷新时渲染。旋转模式下只用到0度的帧，由桌面旋转，不需要预热
+            MoonRotateUtil.prewarmPhaseAtlas(state.atlas);
+        }
+    }
+
+    // 按指定的级别生成RemoteViews，用到的月相图集记在state.atlas中
+    private static RemoteViews buildViews(Context context, UpdateState state, int level) {
+        RemoteViews views;
+        int size = level == LEVEL_REDUCED ? state.size / 2 : state.size;
+        boolean shared = level == LEVEL_SHARED;
+        boolean bitmaps = level != LEVEL_NO_BITMAP;
+        state.atlas = null;
+        state.composited = false;
+        if (state.rotation) {
+            views = new RemoteViews(context.getPackageName(), R.layout.moon_watch_widget_rotation);
+            if (!state.partial) {
+                if (bitmaps) {
+                    // 圆形裁剪与旋转无关，可以先裁剪再让桌面旋转
+                    state.atlas = getMoonAtlas(context, state.appWidgetId, size);
+                    setImage(context, views, state, R.id.imageView_Moon, state.atlas.getFrame(0),
+                            "moon", size + "_0", shared);
+                } else {
+                    // 资源中的月亮在内切圆以外已经完全透明，与裁剪后的0度帧相同（见core的MoonRasterTest），
+                    // 旋转时四角不会露出方形的边
+                    views.setImageViewResource(R.id.imageView_Moon, R.drawable.watch_inner_moon);
+                }
+            }
+            views.setFloat(R.id.imageView_Moon, "setRotation", state.moonDegree);
+            views.setFloat(R.id.imageView_Minute, "setRotation", state.minuteDegree);
+            views.setFloat(R.id.imageView_Hour, "setRotation", state.hourDegree);
+            views.setViewVisibility(R.id.imageView_Month, state.showDate ? View.VISIBLE : View.GONE);
+            views.setViewVisibility(R.id.imageView_Day, state.showDate ? View.VISIBLE : View.GONE);
+            views.setImageViewResource(R.id.imageView_Month, state.month);
+            views.setImageViewResource(R.id.imageView_Day, state.day);
+        } else if (size > 0 && bitmaps) {
+            views = new RemoteViews(context.getPackageName(), R.layout.moon_watch_widget_frame);
+            state.atlas = getMoonAtlas(context, state.appWidgetId, size);
+            int month = state.showDate ? state.month : 0;
+            int day = state.showDate ? state.day : 0;
+            // RemoteViews在updateAppWidget()时就把图片复制走了，同一张图片可以给每个小部件反复使用
+            state.composited = true;
+            FrameCompositor compositor = getFrameCompositor(context, state.appWidgetId, size);
+            String version = size + "_" + state.moonDegree + "_" + state.hourDegree + "_" + state.minuteDegree
+                    + "_" + month + "_" + day;
+            // 同一分钟内再次刷新时文件已经是这个内容，不需要重新合成和编码
+            Uri published = shared ? WidgetImageProvider.getPublishedUri(state.appWidgetId, "frame",
+                    getImageVersion(version)) : null;
+            if (published != null) {
+                views.setImageViewUri(R.id.imageView_Frame, published);
+            } else {
+                Bitmap frame = compositor.draw(context.getResources(),
+                        state.atlas.getFrame(state.moonDegree), state.moonDegree,
+                        state.hourDegree, state.minuteDegree, month, day);
+                setImage(context, views, state, R.id.imageView_Frame, frame, "frame", version, shared);
+            }
+        } else {
+            views = new RemoteViews(context.getPackageName(), R.layout.moon_watch_widget);
+            views.setViewVisibility(R.id.imageView_Month, state.showDate ? View.VISIBLE : View.GONE);
+            views.setViewVisibility(R.id.imageView_Day, state.showDate ? View.VISIBLE : View.GONE);
+            if (bitmaps) {
+                state.atlas = getMoonAtlas(context, state.appWidgetId, 0);
+                setImage(context, views, state, R.id.imageView_Moon, state.atlas.getFrame(state.moonDegree),
+                        "moon", "0_" + state.moonDegree, shared);
+                // 获取时间并控制指针
+                // 指针是ALPHA_8的遮罩，只有ARGB_8888的1/4大小，由桌面的ImageView着色
+                HandRenderer hands = getHandRenderer(context);
+                setImage(context, views, state, R.id.imageView_Hands,
+                        hands.drawMask(state.hourDegree, state.minuteDegree),
+                        "hands", hands.getSize() + "_" + state.hourDegree + "_" + state.minuteDegree, shared);
+                views.setInt(R.id.imageView_Hands, "setColorFilter", hands.getColor());
+                views.setViewVisibility(R.id.imageView_Hands, View.VISIBLE);
+            } else {
+                // 不发送图片时月亮不转动，指针无法旋转，只能隐藏
+                views.setImageViewResource(R.id.imageView_Moon, R.drawable.watch_inner_moon);
+                views.setViewVisibility(R.id.imageView_Hands, View.GONE);
+            }
+            // 根据当前日期设置小部件
+            views.setImageViewResource(R.id.imageView_Month, state.month);
+            views.setImageViewResource(R.id.imageView_Day, state.day);
+        }
+        views.setViewVisibility(R.id.textView_Lunar, state.showDate ? View.VISIBLE : View.GONE);
+        if (state.showDate) {
+            views.setTextViewText(R.id.textView_Lunar, state.lunarLabel);
+        }
+        return views;
+    }
+
+    // 直接放入图片，或者写成小部件自己的文件只放Uri。写文件失败时退回直接放入图片，由预算检查决定是否继续降级
+    private static void setImage(Context context, RemoteViews views, UpdateState state, int viewId, Bitmap bitmap,
+                                 String name, String version, boolean shared) {
+        if (shared) {
+            try {
+                views.setImageViewUri(viewId, WidgetImageProvider.publish(context, state.appWidgetId, name,
+                        getImageVersion(version), bitmap));
+                return;
+            } catch (IOException e) {
+                Log.w(TAG, "Failed to publish " + name, e);
+            }
+        }
+        views.setImageViewBitmap(viewId, bitmap);
+    }
+
+    // 图片的版本加上渲染参数的代数，渲染参数改变后内容相同的文件也要重写
+    private static String getImageVersion(String version) {
+        return imageGeneration + "_" + version;
+    }
+
+    /**
+     * 检查ImageView.setRotation()能否通过RemoteViews调用。桌面与本进程运行在同一个系统版本上，
+     * 在本进程中apply一次就能知道桌面是否会拒绝，只检查一次。
+     */
+    private static synchronized boolean isRotationSupported(Context context) {
+        if (rotationSupported == null) {
+            boolean supported = false;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+                RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.moon_watch_widget_rotation);
+                views.setFloat(R.id.imageView_Moon, "setRotation", 0f);
+                try {
+                    views.apply(context, new FrameLayout(context));
+                    supported = true;
+                } catch (RuntimeException e) {
+                    Log.i(TAG, "setRotation is not remotable, falling back to bitmaps", e);
+                }
+            }
+            rotationSupported = supported;
+        }
+        return rotationSupported;
+    }
+
+    // 一次刷新的内容，各个级别共用
+    private static class UpdateState {
+        int appWidgetId;
+        int moonDegree;
+        boolean showDate;
+        float hourDegree;
+        float minuteDegree;
+        int month;
+        int day;
+        String lunarLabel;
+        boolean rotation;
+        // 旋转模式下只发送角度等改动
+        boolean partial;
+        // 渲染尺寸，0表示不知道小部件的大小
+        int size;
+        MoonPhaseAtlas<Bitmap> atlas;
+        // 是否用合成器把所有图层画成了一张图片
+        boolean composited;
+    }
+
+    /**
+     * 大小改变后延迟执行的刷新。用goAsync()保持广播，刷新完或者被新的改变取代时结束。
+     */
+    private static class ResizeUpdate implements Runnable {
+        final Context context;
+        final AppWidgetManager appWidgetManager;
+        final int appWidgetId;
+        final PendingResult result;
+
+        ResizeUpdate(Context context, AppWidgetManager appWidgetManager, int appWidgetId, PendingResult result) {
+            this.context = context;
+            this.appWidgetManager = appWidgetManager;
+            this.appWidgetId = appWidgetId;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            pendingResizes.remove(appWidgetId);
+            // 旋转模式下月亮图片也按大小渲染，需要重新发送完整的布局，新的大小可能不再超出预算
+            synchronized (MoonWatchWidget.class) {
+                rotatedWidgets.delete(appWidgetId);
+                budgetLevels.delete(appWidgetId);
+            }
+            try {
+                updateAppWidget(context, appWidgetManager, appWidgetId);
+            } finally {
+                result.finish();
+            }
+        }
     }
 
 }
\ No newline at end of file
@@ -8,6 +8,9 @@ import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.CheckBox;
+import android.widget.Spinner;
+
+import org.chobitly.utils.RenderProfile;
 
 
 /**
@@ -17,8 +20,11 @@ public class MoonWatchWidgetConfigureActivity extends Activity {
 
     int mAppWidgetId = AppWidgetManager.INVALID_APPWIDGET_ID;
     CheckBox mShowDateCheckBox;
+    Spinner mRenderTierSpinner;
     private static final String PREFS_NAME = "org.chobitly.moonwatch.MoonWatchWidget";
     private static final String PREF_PREFIX_KEY = "moonwatch_widget_";
+    // 所有小部件共用的渲染档次
+    private static final String PREF_RENDER_TIER_KEY = "moonwatch_render_tier";
 
     public MoonWatchWidgetConfigureActivity() {
         super();
@@ -34,6 +40,7 @@ public class MoonWatchWidgetConfigureActivity extends Activity {
 
         setContentView(R.layout.moon_watch_widget_configure);
         mShowDateCheckBox = (CheckBox) findViewById(R.id.checkbox_show_date);
+        mRenderTierSpinner = (Spinner) findViewById(R.id.spinner_render_tier);
         findViewById(R.id.add_button).setOnClickListener(mOnClickListener);
 
         // Find the widget id from the intent.
@@ -51,6 +58,8 @@ public class MoonWatchWidgetConfigureActivity extends Activity {
         }
 
         mShowDateCheckBox.setChecked(loadShowDatePref(MoonWatchWidgetConfigureActivity.this, mAppWidgetId));
+        // 选项的顺序与RenderProfile.TIER_*的值相同
+        mRenderTierSpinner.setSelection(loadRenderTierPref(MoonWatchWidgetConfigureActivity.this));
     }
 
     View.OnClickListener mOnClickListener = new View.OnClickListener() {
@@ -59,6 +68,12 @@ public class MoonWatchWidgetConfigureActivity extends Activity {
 
             // When the button is clicked, store the string locally
             saveShowDatePref(context, mAppWidgetId, mShowDateCheckBox.isChecked());
+            int renderTier = mRenderTierSpinner.getSelectedItemPosition();
+            if (renderTier != loadRenderTierPref(context)) {
+                saveRenderTierPref(context, renderTier);
+                // 其他小部件在下一分钟刷新时按新的档次渲染
+                MoonWatchWidget.invalidateRenderProfile();
+            }
 
             // It is the responsibility of the configuration activity to update the app widget
             MoonWatchWidget.updateAppWidget(context, AppWidgetManager.getInstance(context), mAppWidgetId);
@@ -90,6 +105,18 @@ public class MoonWatchWidgetConfigureActivity extends Activity {
         prefs.remove(PREF_PREFIX_KEY + appWidgetId);
         prefs.commit();
     }
+
+    static void saveRenderTierPref(Context context, int tier) {
+        SharedPreferences.Editor prefs = context.getSharedPreferences(PREFS_NAME, 0).edit();
+        prefs.putInt(PREF_RENDER_TIER_KEY, tier);
+        prefs.commit();
+    }
+
+    // 没有设置时根据设备自动选择
+    static int loadRenderTierPref(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, 0);
+        return prefs.getInt(PREF_RENDER_TIER_KEY, RenderProfile.TIER_AUTO);
+    }
 }
 
 
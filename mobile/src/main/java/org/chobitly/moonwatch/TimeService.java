@@ -10,6 +10,7 @@ import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
+import android.content.res.Configuration;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.net.Uri;
@@ -32,6 +33,9 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.DefaultHttpClient;
 import org.apache.http.params.CoreConnectionPNames;
 import org.apache.http.util.EntityUtils;
+import org.chobitly.utils.BitmapPool;
+import org.chobitly.utils.BitmapTracker;
+import org.chobitly.utils.MoonRotateUtil;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -58,9 +62,14 @@ public class TimeService extends Service {
         instance = this;
         super.onCreate();
         Log.i("service", "--service created--");
+        // 调试版记录绘图产生的图片，内存不足时打印报告
+        BitmapTracker.setEnabled(BuildConfig.DEBUG);
+        // 月亮的角度查预先计算好的天文月相表，只在这里加载一次
+        MoonRotateUtil.setPhaseModel(MoonRotateUtil.loadLunationTable(this));
         IntentFilter intentFilter = new IntentFilter();
         intentFilter.addAction(Intent.ACTION_TIME_TICK); // 时间的流逝
         intentFilter.addAction(Intent.ACTION_TIME_CHANGED); // 时间被改变，人为设置时间
+        intentFilter.addAction(Intent.ACTION_TIMEZONE_CHANGED); // 时区被改变
         registerReceiver(broadcastReceiver, intentFilter);
 
         XGPushConfig.enableDebug(this, false);
@@ -75,6 +84,27 @@ public class TimeService extends Service {
         return START_STICKY;
     }
 
+    // 屏幕密度等配置改变后，缓存的原图可能已经不对应当前的资源
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        MoonRotateUtil.clearSourceCache();
+        MoonWatchWidget.invalidateImages();
+        updateAllWidget();
+    }
+
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        MoonRotateUtil.clearSourceCache();
+        MoonWatchWidget.invalidateImages();
+        Log.i("service", BitmapPool.getStats());
+        if (BitmapTracker.isEnabled()) {
+            Log.i("service", BitmapTracker.getReport());
+        }
+        BitmapPool.clear();
+    }
+
     // 在服务停止时解注册BroadcastReceiver
     @Override
     public void onDestroy() {
@@ -91,6 +121,10 @@ public class TimeService extends Service {
         @Override
         public void onReceive(Context context, Intent intent) {
             Log.i("time received", "--receive--");
+            // 每分钟的ACTION_TIME_TICK不会让农历日期失效，只有时区改变时才需要重新计算
+            if (Intent.ACTION_TIMEZONE_CHANGED.equals(intent.getAction())) {
+                MoonWatchWidget.invalidateLunarDate();
+            }
             updateAllWidget();
         }
     };
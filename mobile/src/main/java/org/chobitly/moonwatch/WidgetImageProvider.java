@@ -0,0 +1,209 @@
+package org.chobitly.moonwatch;
+
+import android.content.ContentProvider;
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ResolveInfo;
+import android.database.Cursor;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 把小部件的图片以PNG文件的形式提供给桌面。RemoteViews中只放图片的Uri，由桌面自己读取和解码，
+ * 图片不经过Binder事务，内容不变时也不重写文件。
+ * <p/>
+ * 每个小部件有自己的文件，大小或显示内容不同的小部件不会互相覆盖。Provider不对外公开，
+ * 每个Uri写入后只临时授权给桌面（处理HOME的应用）读取，同一个文件的旧Uri随即撤销。
+ * 只能读取{@link #publish(Context, int, String, String, Bitmap)}写入的文件。
+ */
+public class WidgetImageProvider extends ContentProvider {
+
+    public static final String AUTHORITY = "org.chobitly.moonwatch.widgetimages";
+    /**
+     * 图片文件在getCacheDir()下的目录
+     */
+    public static final String DIRECTORY = "widget_images";
+    private static final String SUFFIX = ".png";
+
+    // 每个文件当前内容的版本，内容不变时不重写
+    private static final HashMap<String, String> versions = new HashMap<String, String>();
+    // 显示小部件的桌面，第一次授权时查找
+    private static List<String> hostPackages;
+
+    /**
+     * @param appWidgetId 小部件id
+     * @param name        图片的名字，只能包含字母、数字和下划线
+     * @param version     图片内容的版本
+     * @return 这个版本已经写入时返回它的Uri，否则返回null，调用者可以不生成图片
+     */
+    public static Uri getPublishedUri(int appWidgetId, String name, String version) {
+        String file = getFileName(appWidgetId, name);
+        synchronized (versions) {
+            return version.equals(versions.get(file)) ? buildUri(file, version) : null;
+        }
+    }
+
+    /**
+     * 写入图片，返回桌面可以读取的Uri
+     *
+     * @param context
+     * @param appWidgetId 小部件id，每个小部件的图片写在不同的文件中
+     * @param name        图片的名字，只能包含字母、数字和下划线
+     * @param version     图片内容的版本，版本相同时不重写文件。Uri中带有版本，桌面看到Uri改变才会重新读取
+     * @param bitmap      图片
+     * @return content://{@link #AUTHORITY}/name_appWidgetId.png?v=version
+     * @throws IOException 写入失败
+     */
+    public static Uri publish(Context context, int appWidgetId, String name, String version, Bitmap bitmap)
+            throws IOException {
+        String file = getFileName(appWidgetId, name);
+        Uri uri = buildUri(file, version);
+        synchronized (versions) {
+            String previous = versions.get(file);
+            if (version.equals(previous)) {
+                return uri;
+            }
+            File directory = new File(context.getCacheDir(), DIRECTORY);
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Failed to create " + directory);
+            }
+            // 先写临时文件再改名，桌面正在读的旧文件不受影响
+            File temp = new File(directory, file + ".tmp");
+            FileOutputStream out = new FileOutputStream(temp);
+            try {
+                if (!bitmap.compress(Bitmap.CompressFormat.PNG, 100, out)) {
+                    throw new IOException("Failed to compress " + file);
+                }
+            } finally {
+                out.close();
+            }
+            File target = new File(directory, file + SUFFIX);
+            if (!temp.renameTo(target)) {
+                temp.delete();
+                throw new IOException("Failed to rename " + temp + " to " + target);
+            }
+            versions.put(file, version);
+            for (String host : getHostPackages(context)) {
+                context.grantUriPermission(host, uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            }
+            if (previous != null) {
+                // 每个文件只保留当前Uri的授权，授权不会随着每分钟的刷新越积越多
+                context.revokeUriPermission(buildUri(file, previous), Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            }
+        }
+        return uri;
+    }
+
+    /**
+     * 删除小部件的所有图片并撤销授权，在小部件被删除时调用
+     *
+     * @param context
+     * @param appWidgetId 小部件id
+     */
+    public static void remove(Context context, int appWidgetId) {
+        String ending = "_" + appWidgetId;
+        synchronized (versions) {
+            Iterator<Map.Entry<String, String>> iterator = versions.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, String> entry = iterator.next();
+                if (entry.getKey().endsWith(ending)) {
+                    context.revokeUriPermission(buildUri(entry.getKey(), entry.getValue()),
+                            Intent.FLAG_GRANT_READ_URI_PERMISSION);
+                    iterator.remove();
+                }
+            }
+            File[] files = new File(context.getCacheDir(), DIRECTORY).listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    if (file.getName().endsWith(ending + SUFFIX)) {
+                        file.delete();
+                    }
+                }
+            }
+        }
+    }
+
+    private static String getFileName(int appWidgetId, String name) {
+        return name + "_" + appWidgetId;
+    }
+
+    private static Uri buildUri(String file, String version) {
+        return new Uri.Builder().scheme(ContentResolver.SCHEME_CONTENT).authority(AUTHORITY)
+                .appendPath(file + SUFFIX).appendQueryParameter("v", version).build();
+    }
+
+    // 所有处理HOME的应用，小部件由其中之一显示
+    private static List<String> getHostPackages(Context context) {
+        if (hostPackages == null) {
+            Intent home = new Intent(Intent.ACTION_MAIN).addCategory(Intent.CATEGORY_HOME);
+            List<ResolveInfo> infos = context.getPackageManager().queryIntentActivities(home, 0);
+            List<String> packages = new ArrayList<String>(infos.size());
+            for (ResolveInfo info : infos) {
+                packages.add(info.activityInfo.packageName);
+            }
+            hostPackages = packages;
+        }
+        return hostPackages;
+    }
+
+    @Override
+    public boolean onCreate() {
+        return true;
+    }
+
+    @Override
+    public ParcelFileDescriptor openFile(Uri uri, String mode) throws FileNotFoundException {
+        if (!"r".equals(mode)) {
+            throw new SecurityException("Read-only: " + uri);
+        }
+        String name = uri.getLastPathSegment();
+        if (name == null || !name.matches("\\w+\\" + SUFFIX)) {
+            throw new FileNotFoundException(uri.toString());
+        }
+        File file = new File(new File(getContext().getCacheDir(), DIRECTORY), name);
+        if (!file.isFile()) {
+            throw new FileNotFoundException(uri.toString());
+        }
+        return ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY);
+    }
+
+    @Override
+    public String getType(Uri uri) {
+        return "image/png";
+    }
+
+    // 只读的提供者，只能通过openFile读取图片，其余操作都不做任何事
+    @Override
+    public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs,
+                        String sortOrder) {
+        return null;
+    }
+
+    @Override
+    public Uri insert(Uri uri, ContentValues values) {
+        return null;
+    }
+
+    @Override
+    public int delete(Uri uri, String selection, String[] selectionArgs) {
+        return 0;
+    }
+
+    @Override
+    public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
+        return 0;
+    }
+}
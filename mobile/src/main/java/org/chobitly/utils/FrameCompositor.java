@@ -0,0 +1,117 @@
+package org.chobitly.utils;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * 把小部件的表盘、月亮、指针和日期合成为一张图片，RemoteViews中只需要放一张小部件实际大小的图片，
+ * 不再是三张原图大小的图片。
+ * <p/>
+ * 图层从下到上依次为：背景、月亮、外框、分针、时针、月份、日期。背景、月亮和外框合成的表盘只在月亮转动时重画，
+ * 月份和日期只在日期改变时重画，每分钟的刷新只是把这两层和指针画到同一张反复使用的输出图片上。
+ */
+public class FrameCompositor {
+
+    private final int size;
+    private final int backgroundResID;
+    private final int coverResID;
+    private final Rect bounds;
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final HandRenderer hands;
+
+    private final Bitmap frame;
+    private final Canvas frameCanvas;
+    private final Bitmap dial;
+    private final Canvas dialCanvas;
+    private Bitmap date;
+    private Canvas dateCanvas;
+    // 当前表盘和日期层对应的内容，-1表示还没有画过
+    private int dialDegree = -1;
+    private int monthResID = -1;
+    private int dayResID = -1;
+
+    /**
+     * @param size            输出图片的边长，即小部件的实际像素大小
+     * @param backgroundResID 最底层的背景图片
+     * @param coverResID      盖在月亮上的外框图片
+     */
+    public FrameCompositor(int size, int backgroundResID, int coverResID) {
+        this.size = size;
+        this.backgroundResID = backgroundResID;
+        this.coverResID = coverResID;
+        bounds = new Rect(0, 0, size, size);
+        hands = new HandRenderer(size);
+        frame = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        frameCanvas = new Canvas(frame);
+        dial = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        dialCanvas = new Canvas(dial);
+    }
+
+    /**
+     * 合成一帧
+     *
+     * @param resources
+     * @param moon         旋转好的月亮，如{@link MoonPhaseAtlas#getFrame(int)}的结果，会缩放到输出大小
+     * @param moonDegree   月亮的角度，角度不变时不重画表盘
+     * @param hourDegree   时针的角度
+     * @param minuteDegree 分针的角度
+     * @param monthResID   月份图片，0表示不显示日期
+     * @param dayResID     日期图片，0表示不显示日期
+     * @return 输出图片，每次调用都是同一个对象，下次调用时会被覆盖
+     */
+    public synchronized Bitmap draw(Resources resources, Bitmap moon, int moonDegree,
+                                    float hourDegree, float minuteDegree, int monthResID, int dayResID) {
+        if (moonDegree != dialDegree) {
+            dial.eraseColor(Color.TRANSPARENT);
+            drawResource(resources, dialCanvas, backgroundResID);
+            dialCanvas.drawBitmap(moon, null, bounds, bitmapPaint);
+            drawResource(resources, dialCanvas, coverResID);
+            dialDegree = moonDegree;
+        }
+        boolean showDate = monthResID != 0 && dayResID != 0;
+        if (showDate && (monthResID != this.monthResID || dayResID != this.dayResID)) {
+            if (date == null) {
+                date = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+                dateCanvas = new Canvas(date);
+            }
+            date.eraseColor(Color.TRANSPARENT);
+            drawResource(resources, dateCanvas, monthResID);
+            drawResource(resources, dateCanvas, dayResID);
+            this.monthResID = monthResID;
+            this.dayResID = dayResID;
+        }
+
+        frame.eraseColor(Color.TRANSPARENT);
+        frameCanvas.drawBitmap(dial, 0, 0, null);
+        hands.draw(frameCanvas, hourDegree, minuteDegree);
+        if (showDate) {
+            frameCanvas.drawBitmap(date, 0, 0, null);
+        }
+        return frame;
+    }
+
+    /**
+     * @param filter 缩放图层时是否双线性过滤，只影响之后重画的表盘和日期
+     */
+    public synchronized void setFilterBitmap(boolean filter) {
+        bitmapPaint.setFilterBitmap(filter);
+    }
+
+    /**
+     * @return 输出图片的边长
+     */
+    public int getSize() {
+        return size;
+    }
+
+    // 解码图片资源并缩放到整个画布，解码时已经缩小到接近输出大小，只在表盘或日期改变时调用
+    private void drawResource(Resources resources, Canvas canvas, int resID) {
+        Bitmap bitmap = BitmapPool.decodeResource(resources, resID, size, size);
+        canvas.drawBitmap(bitmap, null, bounds, bitmapPaint);
+        BitmapPool.put(bitmap);
+    }
+}
@@ -0,0 +1,115 @@
+package org.chobitly.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+/**
+ * 用Path绘制小部件的时针和分针，代替每分钟解码并旋转watch_hour.png、watch_minute.png。
+ * <p/>
+ * 两根指针的Path只在创建时生成一次，每次刷新用Canvas.rotate()画到同一张输出图片（或调用者的Canvas）上，
+ * 刷新时不分配任何内存。
+ * 指针的形状见{@link WatchHands}中的常量，与原来的图片逐像素比较只在边缘有不超过一个像素的差别。
+ * <p/>
+ * 指针只有一种颜色，输出图片是ALPHA_8格式的遮罩，每像素1字节，显示时再用颜色着色，
+ * 如ImageView.setColorFilter({@link #getColor()})。
+ */
+public class HandRenderer {
+
+    private final int size;
+    // 遮罩在第一次调用drawMask(float, float)时才创建，只画到别的Canvas上时不需要
+    private Bitmap mask;
+    private Canvas maskCanvas;
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    // 画遮罩时只用到透明度，颜色不影响结果
+    private final Paint maskPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path minutePath;
+    private final Path hourPath;
+
+    /**
+     * @param size 输出图片的边长，与表盘图片相同
+     */
+    public HandRenderer(int size) {
+        this.size = size;
+        paint.setColor(WatchHands.HAND_COLOR);
+        paint.setStyle(Paint.Style.FILL);
+        maskPaint.setStyle(Paint.Style.FILL);
+        minutePath = createHandPath(size, WatchHands.MINUTE_HAND_LENGTH);
+        hourPath = createHandPath(size, WatchHands.HOUR_HAND_LENGTH);
+    }
+
+    /**
+     * 在遮罩上重新画两根指针，只有透明度，显示时用{@link #getColor()}着色
+     *
+     * @param hourDegree   时针的角度，见{@link WatchHands#getHourDegree(int, int)}
+     * @param minuteDegree 分针的角度，见{@link WatchHands#getMinuteDegree(int)}
+     * @return ALPHA_8格式的遮罩，每次调用都是同一个对象，下次调用时会被覆盖
+     */
+    public synchronized Bitmap drawMask(float hourDegree, float minuteDegree) {
+        if (mask == null) {
+            mask = Bitmap.createBitmap(size, size, Bitmap.Config.ALPHA_8);
+            maskCanvas = new Canvas(mask);
+        }
+        mask.eraseColor(Color.TRANSPARENT);
+        drawHand(maskCanvas, minutePath, minuteDegree, maskPaint);
+        drawHand(maskCanvas, hourPath, hourDegree, maskPaint);
+        return mask;
+    }
+
+    /**
+     * 在指定的Canvas上画两根指针，分针在下，时针在上
+     *
+     * @param canvas       边长为{@link #getSize()}的画布
+     * @param hourDegree   时针的角度
+     * @param minuteDegree 分针的角度
+     */
+    public synchronized void draw(Canvas canvas, float hourDegree, float minuteDegree) {
+        drawHand(canvas, minutePath, minuteDegree, paint);
+        drawHand(canvas, hourPath, hourDegree, paint);
+    }
+
+    /**
+     * 设置指针的颜色，只影响{@link #draw(Canvas, float, float)}，遮罩在显示时着色
+     *
+     * @param color 不透明的颜色，默认为{@link WatchHands#HAND_COLOR}
+     */
+    public synchronized void setColor(int color) {
+        paint.setColor(color);
+    }
+
+    /**
+     * @return 指针的颜色
+     */
+    public synchronized int getColor() {
+        return paint.getColor();
+    }
+
+    /**
+     * @return 输出图片的边长
+     */
+    public int getSize() {
+        return size;
+    }
+
+    private void drawHand(Canvas canvas, Path path, float degree, Paint paint) {
+        float center = size / 2f;
+        canvas.save();
+        canvas.rotate(degree, center, center);
+        canvas.drawPath(path, paint);
+        canvas.restore();
+    }
+
+    // 指向12点方向的圆头矩形
+    private static Path createHandPath(int size, float length) {
+        float center = size / 2f;
+        float halfWidth = WatchHands.HAND_WIDTH * size / 2f;
+        RectF rect = new RectF(center - halfWidth, center - length * size - halfWidth,
+                center + halfWidth, center + WatchHands.HAND_TAIL * size + halfWidth);
+        Path path = new Path();
+        path.addRoundRect(rect, halfWidth, halfWidth, Path.Direction.CW);
+        return path;
+    }
+}
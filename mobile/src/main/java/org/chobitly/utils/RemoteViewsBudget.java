@@ -0,0 +1,91 @@
+package org.chobitly.utils;
+
+import android.os.Parcel;
+import android.util.Log;
+import android.widget.RemoteViews;
+
+/**
+ * 小部件更新的Binder传输预算。
+ * <p/>
+ * RemoteViews连同其中的图片一起打包发给桌面，一次Binder事务最多1MB，而且这1MB由进程中所有进行中的事务共用，
+ * 超出时更新会失败（TransactionTooLargeException或者桌面上的小部件不再刷新）。
+ * 发送前用{@link #fits(RemoteViews, int, String)}测量打包后的大小，超出预算时由调用者换用更小的表示方式。
+ */
+public class RemoteViewsBudget {
+
+    private static final String TAG = "RemoteViewsBudget";
+    /**
+     * 默认预算为Binder事务上限的一半
+     */
+    public static final int DEFAULT_BUDGET = 512 * 1024;
+
+    private int budget;
+    private int breachCount;
+
+    /**
+     * @param budget 单个RemoteViews打包后最多多少字节
+     */
+    public RemoteViewsBudget(int budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * 测量RemoteViews打包后的大小，包括其中的图片
+     *
+     * @param views
+     * @return 字节数
+     */
+    public static int measure(RemoteViews views) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            views.writeToParcel(parcel, 0);
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    /**
+     * 检查RemoteViews是否在预算之内，超出时打印日志
+     *
+     * @param views       将要发送的RemoteViews
+     * @param appWidgetId 小部件id，用于日志
+     * @param level       当前的表示方式，用于日志
+     * @return 没有超出预算时返回true
+     */
+    public boolean fits(RemoteViews views, int appWidgetId, String level) {
+        int size = measure(views);
+        int budget;
+        synchronized (this) {
+            budget = this.budget;
+            if (size <= budget) {
+                return true;
+            }
+            breachCount++;
+        }
+        Log.w(TAG, "RemoteViews for widget " + appWidgetId + " at level " + level + " is " + size
+                + " bytes, over the budget of " + budget + " bytes");
+        return false;
+    }
+
+    /**
+     * @param budget 单个RemoteViews打包后最多多少字节
+     */
+    public synchronized void setBudget(int budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * @return 单个RemoteViews打包后最多多少字节
+     */
+    public synchronized int getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return 超出预算的次数
+     */
+    public synchronized int getBreachCount() {
+        return breachCount;
+    }
+}
@@ -0,0 +1,130 @@
+package org.chobitly.utils;
+
+import android.annotation.TargetApi;
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Build;
+
+/**
+ * 按设备档次选择的渲染参数，在画质和开销之间取舍。
+ * <p/>
+ * 低端设备（isLowRamDevice()或内存上限不超过32MB）缩小渲染尺寸、不做双线性过滤、只缓存很少的月相帧，
+ * 池中的图片也更少，避免每分钟的刷新都引起GC；高端设备缓存全部月相帧并在后台预热。
+ */
+public class RenderProfile {
+
+    /**
+     * 根据设备自动选择
+     */
+    public static final int TIER_AUTO = 0;
+    public static final int TIER_LOW = 1;
+    public static final int TIER_NORMAL = 2;
+    public static final int TIER_HIGH = 3;
+
+    public static final RenderProfile LOW = new RenderProfile(TIER_LOW, 0.75f, false, 2, false, 2 * 1024 * 1024);
+    public static final RenderProfile NORMAL = new RenderProfile(TIER_NORMAL, 1f, true, 8, false,
+            BitmapPool.DEFAULT_MAX_SIZE);
+    public static final RenderProfile HIGH = new RenderProfile(TIER_HIGH, 1f, true,
+            MoonPhase.STEPS_PER_CYCLE, true, 16 * 1024 * 1024);
+
+    private final int tier;
+    private final float renderScale;
+    private final boolean filterBitmap;
+    private final int maxAtlasFrames;
+    private final boolean prewarm;
+    private final int poolSize;
+
+    private RenderProfile(int tier, float renderScale, boolean filterBitmap, int maxAtlasFrames,
+                          boolean prewarm, int poolSize) {
+        this.tier = tier;
+        this.renderScale = renderScale;
+        this.filterBitmap = filterBitmap;
+        this.maxAtlasFrames = maxAtlasFrames;
+        this.prewarm = prewarm;
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * @param context
+     * @param tier    如{@link #TIER_LOW}，{@link #TIER_AUTO}表示根据设备自动选择
+     * @return 对应的渲染参数
+     */
+    public static RenderProfile forTier(Context context, int tier) {
+        switch (tier) {
+            case TIER_LOW:
+                return LOW;
+            case TIER_NORMAL:
+                return NORMAL;
+            case TIER_HIGH:
+                return HIGH;
+            default:
+                return choose(context);
+        }
+    }
+
+    /**
+     * 根据isLowRamDevice()、应用的内存上限和CPU核数选择渲染参数
+     *
+     * @param context
+     * @return {@link #LOW}、{@link #NORMAL}或{@link #HIGH}
+     */
+    public static RenderProfile choose(Context context) {
+        ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        int memoryClass = am.getMemoryClass();
+        int cores = Runtime.getRuntime().availableProcessors();
+        if (isLowRamDevice(am) || memoryClass <= 32) {
+            return LOW;
+        }
+        if (memoryClass >= 128 && cores >= 4) {
+            return HIGH;
+        }
+        return NORMAL;
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static boolean isLowRamDevice(ActivityManager am) {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT && am.isLowRamDevice();
+    }
+
+    /**
+     * @return 档次，如{@link #TIER_LOW}
+     */
+    public int getTier() {
+        return tier;
+    }
+
+    /**
+     * @return 渲染尺寸相对小部件实际大小的比例，小于1时由桌面放大显示
+     */
+    public float getRenderScale() {
+        return renderScale;
+    }
+
+    /**
+     * @return 缩放图片时是否双线性过滤
+     */
+    public boolean isFilterBitmap() {
+        return filterBitmap;
+    }
+
+    /**
+     * @return 月相图集最多缓存几帧，还受内存上限的限制
+     */
+    public int getMaxAtlasFrames() {
+        return maxAtlasFrames;
+    }
+
+    /**
+     * @return 是否在后台预热月相图集
+     */
+    public boolean isPrewarm() {
+        return prewarm;
+    }
+
+    /**
+     * @return {@link BitmapPool}的大小，字节
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+}
@@ -0,0 +1,702 @@
+package org.chobitly.utils;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Bitmap.Config;
+import android.graphics.BitmapFactory;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.PorterDuff.Mode;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+
+public class BitmapCut {
+
+    private static final int MAX_ROUND_MASKS = 8;
+    // 圆角图片的两步画法共用的画笔，创建后不再修改，可以在多个线程中同时使用。
+    // 先画不透明的圆角矩形，再用SRC_IN只在圆角矩形内画原图，圆角矩形的颜色不影响结果
+    private static final Paint ROUND_RECT_PAINT = createPaint(null);
+    private static final Paint SRC_IN_PAINT = createPaint(new PorterDuffXfermode(Mode.SRC_IN));
+    // 按输出大小缓存的圆形遮罩
+    private static final HashMap<Long, RoundMask> roundMasks = new HashMap<Long, RoundMask>();
+
+    // 并行解码圆边图片的线程池，空闲30秒后线程会退出
+    private static final int DECODE_THREADS = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+    private static ExecutorService decodeExecutor;
+
+    /**
+     * 通过资源id转化成Bitmap
+     *
+     * @param context
+     * @param resId
+     * @return
+     */
+    public static Bitmap ReadBitmapById(Context context, int resId) {
+        BitmapFactory.Options opt = new BitmapFactory.Options();
+        opt.inPreferredConfig = Bitmap.Config.RGB_565;
+        opt.inPurgeable = true;
+        opt.inInputShareable = true;
+
+        InputStream is = context.getResources().openRawResource(resId);
+        return BitmapTracker.track(BitmapFactory.decodeStream(is, null, opt));
+    }
+
+
+    /**
+     * 设置背景为圆角
+     *
+     * @param bitmap
+     * @param pixels
+     * @return
+     */
+    public static Bitmap removeYuanjiao(Bitmap bitmap, int pixels) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+
+        Bitmap creBitmap = BitmapPool.get(width, height, Config.ARGB_8888);
+        Canvas canvas = new Canvas(creBitmap);
+
+        float roundPx = pixels;
+        RectF rectF = new RectF(0, 0, bitmap.getWidth() - pixels,
+                bitmap.getHeight() - pixels);
+
+        canvas.drawARGB(0, 0, 0, 0);
+        canvas.drawRoundRect(rectF, roundPx, roundPx, ROUND_RECT_PAINT);
+
+        canvas.drawBitmap(bitmap, 0, 0, SRC_IN_PAINT);
+        BitmapPool.put(bitmap);
+
+        return creBitmap;
+    }
+
+    /**
+     * 按正方形裁切图片
+     */
+    public static Bitmap ImageCrop(Bitmap bitmap, boolean isRecycled) {
+
+        if (bitmap == null) {
+            return null;
+        }
+
+        int w = bitmap.getWidth(); // 得到图片的宽，高
+        int h = bitmap.getHeight();
+
+        int wh = w > h ? h : w;// 裁切后所取的正方形区域边长
+
+        int retX = w > h ? (w - h) / 2 : 0;// 基于原图，取正方形左上角x坐标
+        int retY = w > h ? 0 : (h - w) / 2;
+
+        Bitmap bmp = BitmapTracker.track(Bitmap.createBitmap(bitmap, retX, retY, wh, wh, null,
+                false));
+        if (isRecycled && bitmap != null && !bitmap.equals(bmp)) {
+            BitmapPool.put(bitmap);
+            bitmap = null;
+        }
+
+        // 下面这句是关键
+        return bmp;// Bitmap.createBitmap(bitmap, retX, retY, wh, wh, null,
+        // false);
+    }
+
+    /**
+     * 按长方形裁切图片
+     *
+     * @param bitmap
+     * @return
+     */
+    public static Bitmap ImageCropWithRect(Bitmap bitmap) {
+        if (bitmap == null) {
+            return null;
+        }
+
+        int w = bitmap.getWidth(); // 得到图片的宽，高
+        int h = bitmap.getHeight();
+
+        int nw, nh, retX, retY;
+        if (w > h) {
+            nw = h / 2;
+            nh = h;
+            retX = (w - nw) / 2;
+            retY = 0;
+        } else {
+            nw = w / 2;
+            nh = w;
+            retX = w / 4;
+            retY = (h - w) / 2;
+        }
+
+        // 下面这句是关键
+        Bitmap bmp = BitmapTracker.track(Bitmap.createBitmap(bitmap, retX, retY, nw, nh, null,
+                false));
+        if (bitmap != null && !bitmap.equals(bmp)) {
+            BitmapPool.put(bitmap);
+            bitmap = null;
+        }
+        return bmp;// Bitmap.createBitmap(bitmap, retX, retY, nw, nh, null,
+        // false);
+    }
+
+    /**
+     * Bitmap --> byte[]
+     *
+     * @param bmp
+     * @return
+     */
+    public static byte[] readBitmap(Bitmap bmp) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        bmp.compress(Bitmap.CompressFormat.JPEG, 60, baos);
+        try {
+            baos.flush();
+            baos.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * 将图像从中心裁剪成圆形
+     *
+     * @param bitmap
+     * @return
+     */
+    public static Bitmap toRoundBitmap(Bitmap bitmap) {
+        if (bitmap == null) {
+            return null;
+        }
+        return toRoundBitmap(bitmap, bitmap.getWidth(), bitmap.getHeight(), true);
+    }
+
+    /**
+     * 将图像裁剪成指定大小的圆形
+     *
+     * @param bitmap
+     * @param width
+     * @param height
+     * @param fromCenter 是否从中心裁剪
+     * @return
+     */
+    public static Bitmap toRoundBitmap(Bitmap bitmap, int width, int height, boolean fromCenter) {
+        if (bitmap == null) {
+            return null;
+        }
+
+        int orgWidth = bitmap.getWidth();
+        int orgHeight = bitmap.getHeight();
+
+        float left, top, right, bottom;
+        if (width <= height) {
+            top = 0;
+            bottom = width;
+            left = 0;
+            right = width;
+            height = width;
+        } else {
+            float clip = (width - height) / 2;
+            left = clip;
+            right = width - clip;
+            top = 0;
+            bottom = height;
+            width = height;
+        }
+        if (fromCenter) {
+            if (orgWidth > width) {
+                float wClip = (orgWidth - width) / 2;
+                left += wClip;
+                right += wClip;
+            }
+            if (orgHeight > height) {
+                float hClip = (orgHeight - height) / 2;
+                top += hClip;
+                bottom += hClip;
+            }
+        }
+
+        Bitmap output = BitmapPool.get(width, height, Config.ARGB_8888);
+        Canvas canvas = new Canvas(output);
+        // 原图中的裁剪区域缩放到整个输出图片，通常大小相同，不需要缩放
+        float scaleX = (float) width / ((int) right - (int) left);
+        float scaleY = (float) height / ((int) bottom - (int) top);
+        RoundMask mask = getRoundMask(width, height, false);
+        mask.draw(canvas, bitmap, scaleX, scaleY, Math.round(-(int) left * scaleX),
+                Math.round(-(int) top * scaleY), 0);
+        BitmapPool.put(bitmap);
+        bitmap = null;
+        return output;
+    }
+
+    // 将图片变成带圆边的圆形图片
+    public static Bitmap getRoundBitmap(Bitmap bitmap, int width, int height) {
+        return getRoundBitmap(bitmap, width, height, 0xffffffff);
+    }
+
+    // 将图片变成带圆边的圆形图片
+    public static Bitmap getRoundBitmap(Bitmap bitmap, int width, int height,
+                                        int color) {
+        if (bitmap == null) {
+            return null;
+        }
+        Bitmap outBitmap = BitmapPool.get(width, height, Config.ARGB_8888);
+        Canvas canvas = new Canvas(outBitmap);
+        // 缩放后的图片只占左上角len x len的区域
+        int len = (width > height) ? height : width;
+        RoundMask mask = getRoundMask(width, height, true);
+        mask.draw(canvas, bitmap, (float) len / bitmap.getWidth(), (float) len / bitmap.getHeight(), 0, 0, color);
+        BitmapPool.put(bitmap);
+        bitmap = null;
+        return outBitmap;
+    }
+
+    /**
+     * function:图片转圆角
+     *
+     * @param bitmap 需要转的bitmap
+     * @param pixels 转圆角的弧度
+     * @return 转圆角的bitmap
+     */
+    public static Bitmap toRoundCorner(Bitmap bitmap, int pixels) {
+        Bitmap output = BitmapPool.get(bitmap.getWidth(), bitmap.getHeight(), Config.ARGB_8888);
+        Canvas canvas = new Canvas(output);
+        final Rect rect = new Rect(0, 0, bitmap.getWidth(), bitmap.getHeight());
+        final RectF rectF = new RectF(rect);
+        final float roundPx = pixels;
+        canvas.drawARGB(0, 0, 0, 0);
+        canvas.drawRoundRect(rectF, roundPx, roundPx, ROUND_RECT_PAINT);
+        canvas.drawBitmap(bitmap, rect, rect, SRC_IN_PAINT);
+        BitmapPool.put(bitmap);
+        return output;
+    }
+
+    /**
+     * 获取指定的圆角图片
+     *
+     * @param bitmap
+     * @return
+     */
+    public static Bitmap getRadiusBitmap(Bitmap bitmap) {
+        Bitmap radiusBitmap = BitmapPool.get(bitmap.getWidth(), bitmap.getHeight(), Config.ARGB_8888);
+        Canvas canvas = new Canvas(radiusBitmap);
+        RectF rectF = new RectF(0, 0, bitmap.getWidth(), bitmap.getHeight());
+        canvas.drawRoundRect(rectF, 7, 7, ROUND_RECT_PAINT);
+        canvas.drawBitmap(bitmap, 0, 0, SRC_IN_PAINT);
+        BitmapPool.put(bitmap);
+        return radiusBitmap;
+    }
+
+    // 获得指定大小的圆边的bitmap数组
+    public static ArrayList<Bitmap> getRadiusBitmapList(String[] pathArray,
+                                                        int size, int len, float radius, int color) {
+        ArrayList<Bitmap> list = new ArrayList<Bitmap>();
+        for (int i = 0; i < pathArray.length && list.size() < size; i++) {
+            Bitmap bitmap = decodeRadiusBitmap(pathArray[i], len, radius, color,
+                    new BitmapFactory.Options());
+            if (bitmap != null) {
+                list.add(bitmap);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 并行解码{@link #getRadiusBitmapList(String[], int, int, float, int)}，每张图片完成后立即交给callback，
+     * 得到size张后取消其余的解码。图片先按inJustDecodeBounds读出大小，再用inSampleSize直接解码到接近len的大小。
+     *
+     * @param pathArray 图片文件路径，不存在或解码失败的文件跳过
+     * @param size      最多需要几张
+     * @param len       输出图片的边长
+     * @param radius    圆角半径
+     * @param color     只使用其透明度a，输出的透明度为原图的(a/255)²倍，与同步的版本相同
+     * @param callback  在解码线程中调用，同一个任务的回调不会同时进行
+     * @return 可以用来取消的任务
+     */
+    public static RadiusBitmapTask getRadiusBitmapList(String[] pathArray, int size, int len,
+                                                       float radius, int color,
+                                                       RadiusBitmapCallback callback) {
+        RadiusBitmapTask task = new RadiusBitmapTask(pathArray, size, len, radius, color, callback);
+        task.start(getDecodeExecutor());
+        return task;
+    }
+
+    // 按len解码文件并画成圆边图片，文件不存在、解码失败或被取消时返回null
+    private static Bitmap decodeRadiusBitmap(String path, int len, float radius, int color,
+                                             BitmapFactory.Options options) {
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(path, options);
+        int width = options.outWidth;
+        int height = options.outHeight;
+        if (width <= 0 || height <= 0 || options.mCancel) {
+            return null;
+        }
+        // 两边都不小于len的最大的2的幂
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= len && height / (sampleSize * 2) >= len) {
+            sampleSize *= 2;
+        }
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        Bitmap bitmap = BitmapTracker.track(BitmapFactory.decodeFile(path, options));
+        if (bitmap == null) {
+            return null;
+        }
+        // 原图缩放到len x len，圆角矩形和图片一次画完。原来先用color填充再以SRC_IN画图片，
+        // 两次都乘了color的透明度，这里也乘两次，半透明的color得到的结果不变
+        Matrix matrix = new Matrix();
+        matrix.setScale((float) len / bitmap.getWidth(), (float) len / bitmap.getHeight());
+        BitmapShader shader = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        shader.setLocalMatrix(matrix);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+        paint.setShader(shader);
+        int alpha = Color.alpha(color);
+        paint.setAlpha(alpha * alpha / 255);
+        Bitmap canvasBitmap = BitmapPool.get(len, len, Config.ARGB_8888);
+        new Canvas(canvasBitmap).drawRoundRect(new RectF(0, 0, len - radius, len - radius),
+                radius, radius, paint);
+        BitmapPool.put(bitmap);
+        return canvasBitmap;
+    }
+
+    private static synchronized ExecutorService getDecodeExecutor() {
+        if (decodeExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(DECODE_THREADS, DECODE_THREADS,
+                    30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+            executor.allowCoreThreadTimeOut(true);
+            decodeExecutor = executor;
+        }
+        return decodeExecutor;
+    }
+
+    /**
+     * 接收并行解码的圆边图片
+     */
+    public interface RadiusBitmapCallback {
+        /**
+         * 一张图片完成，按完成的先后而不是文件的顺序
+         *
+         * @param index  文件在pathArray中的位置
+         * @param bitmap 圆边图片，用完后可以放回{@link BitmapPool}
+         */
+        void onRadiusBitmap(int index, Bitmap bitmap);
+
+        /**
+         * 得到了需要的张数，或者所有文件都已处理。调用{@link RadiusBitmapTask#cancel()}后不会再调用
+         *
+         * @param count 得到的张数
+         */
+        void onComplete(int count);
+    }
+
+    /**
+     * 正在进行的并行解码。结果在锁中按顺序排队，再由一个解码线程在锁外依次交给callback，
+     * 回调不会阻塞其他解码线程，在回调中或其他线程中调用{@link #cancel()}也不会等待回调结束。
+     */
+    public static class RadiusBitmapTask {
+        private final String[] pathArray;
+        private final int size;
+        private final int len;
+        private final float radius;
+        private final int color;
+        private final RadiusBitmapCallback callback;
+        private final BitmapFactory.Options[] options;
+        private final ArrayList<Future<?>> futures = new ArrayList<Future<?>>();
+        // 等待交给callback的结果，按产生的先后排列
+        private final ArrayDeque<Delivery> deliveries = new ArrayDeque<Delivery>();
+        // 是否已经有线程在交付deliveries中的结果
+        private boolean delivering;
+        private int delivered;
+        private int remaining;
+        private boolean finished;
+        private boolean cancelled;
+
+        RadiusBitmapTask(String[] pathArray, int size, int len, float radius, int color,
+                         RadiusBitmapCallback callback) {
+            this.pathArray = pathArray;
+            this.size = size;
+            this.len = len;
+            this.radius = radius;
+            this.color = color;
+            this.callback = callback;
+            this.options = new BitmapFactory.Options[pathArray.length];
+        }
+
+        synchronized void start(ExecutorService executor) {
+            remaining = pathArray.length;
+            if (remaining == 0 || size <= 0) {
+                // 与有文件时一样在解码线程中回调，不在调用者的线程中、也不在返回之前调用onComplete
+                finish();
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliver();
+                    }
+                }));
+                return;
+            }
+            for (int i = 0; i < pathArray.length; i++) {
+                options[i] = new BitmapFactory.Options();
+                final int index = i;
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        decode(index);
+                    }
+                }));
+            }
+        }
+
+        /**
+         * 取消还没有完成的解码，之后不会再有回调（正在进行的回调会正常结束）
+         */
+        public synchronized void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (!finished) {
+                finished = true;
+                cancelOutstanding();
+            }
+            // 还没交给callback的图片放回图片池
+            for (Delivery delivery : deliveries) {
+                BitmapPool.put(delivery.bitmap);
+            }
+            deliveries.clear();
+        }
+
+        /**
+         * @return 已经完成或取消
+         */
+        public synchronized boolean isFinished() {
+            return finished;
+        }
+
+        private void decode(int index) {
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+            }
+            Bitmap bitmap = decodeRadiusBitmap(pathArray[index], len, radius, color, options[index]);
+            synchronized (this) {
+                remaining--;
+                if (finished) {
+                    // 已经够了或被取消，多出的图片不需要
+                    BitmapPool.put(bitmap);
+                    return;
+                }
+                if (bitmap != null) {
+                    delivered++;
+                    deliveries.add(new Delivery(index, bitmap));
+                }
+                if (delivered >= size || remaining == 0) {
+                    finish();
+                }
+            }
+            deliver();
+        }
+
+        // 在锁中调用，不再接受新的结果，onComplete排在已有结果的后面
+        private void finish() {
+            finished = true;
+            cancelOutstanding();
+            deliveries.add(new Delivery(delivered, null));
+        }
+
+        // 在锁外依次交付排队的结果，已经有线程在交付时直接返回，由那个线程交付
+        private void deliver() {
+            synchronized (this) {
+                if (delivering) {
+                    return;
+                }
+                delivering = true;
+            }
+            while (true) {
+                Delivery delivery;
+                synchronized (this) {
+                    delivery = deliveries.poll();
+                    if (delivery == null || cancelled) {
+                        delivering = false;
+                        return;
+                    }
+                }
+                if (delivery.bitmap != null) {
+                    callback.onRadiusBitmap(delivery.value, delivery.bitmap);
+                } else {
+                    callback.onComplete(delivery.value);
+                }
+            }
+        }
+
+        // 还没开始的不再执行，正在解码的尽快停止
+        private void cancelOutstanding() {
+            for (Future<?> future : futures) {
+                future.cancel(false);
+            }
+            for (BitmapFactory.Options option : options) {
+                if (option != null) {
+                    option.requestCancelDecode();
+                }
+            }
+        }
+
+        // 一个排队的回调：bitmap不为null时是onRadiusBitmap(value, bitmap)，否则是onComplete(value)
+        private static class Delivery {
+            final int value;
+            final Bitmap bitmap;
+
+            Delivery(int value, Bitmap bitmap) {
+                this.value = value;
+                this.bitmap = bitmap;
+            }
+        }
+    }
+
+
+    /**
+     * 按照一定的宽高比例裁剪图片
+     *
+     * @param bitmap
+     * @param num1   长边的比例
+     * @param num2   短边的比例
+     * @return
+     */
+    public static Bitmap ImageCrop(Bitmap bitmap, int num1, int num2,
+                                   boolean isRecycled) {
+        if (bitmap == null) {
+            return null;
+        }
+        int w = bitmap.getWidth(); // 得到图片的宽，高
+        int h = bitmap.getHeight();
+        int retX, retY;
+        int nw, nh;
+        if (w > h) {
+            if (h > w * num2 / num1) {
+                nw = w;
+                nh = w * num2 / num1;
+                retX = 0;
+                retY = (h - nh) / 2;
+            } else {
+                nw = h * num1 / num2;
+                nh = h;
+                retX = (w - nw) / 2;
+                retY = 0;
+            }
+        } else {
+            if (w > h * num2 / num1) {
+                nh = h;
+                nw = h * num2 / num1;
+                retY = 0;
+                retX = (w - nw) / 2;
+            } else {
+                nh = w * num1 / num2;
+                nw = w;
+                retY = (h - nh) / 2;
+                retX = 0;
+            }
+        }
+        Bitmap bmp = BitmapTracker.track(Bitmap.createBitmap(bitmap, retX, retY, nw, nh, null,
+                false));
+        if (isRecycled && bitmap != null && !bitmap.equals(bmp)) {
+            BitmapPool.put(bitmap);
+            bitmap = null;
+        }
+        return bmp;// Bitmap.createBitmap(bitmap, retX, retY, nw, nh, null,
+        // false);
+    }
+
+    private static Paint createPaint(PorterDuffXfermode xfermode) {
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(Color.WHITE);
+        paint.setXfermode(xfermode);
+        return paint;
+    }
+
+    // 取输出大小对应的圆形遮罩，只保留最近用过的几个
+    private static synchronized RoundMask getRoundMask(int width, int height, boolean bordered) {
+        long key = (long) width << 32 | (long) height << 1 | (bordered ? 1 : 0);
+        RoundMask mask = roundMasks.get(key);
+        if (mask == null) {
+            if (roundMasks.size() >= MAX_ROUND_MASKS) {
+                roundMasks.clear();
+            }
+            mask = new RoundMask(width, height, bordered);
+            roundMasks.put(key, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * 圆形裁剪的几何参数和画笔。原图通过BitmapShader只画一次，直接填充圆形，
+     * 不再先画遮罩再用PorterDuff.Mode.SRC_IN合成，也不需要中间图片。
+     */
+    private static class RoundMask {
+        final float centerX;
+        final float centerY;
+        final float radius;
+        // 圆边的半径，0表示没有圆边
+        final float borderRadius;
+        final Paint borderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        final Paint shaderPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+        final Matrix matrix = new Matrix();
+
+        RoundMask(int width, int height, boolean bordered) {
+            if (bordered) {
+                // 与getRoundBitmap()原来的画法相同：圆心取整，圆边宽4像素，图片再往里缩4像素
+                int len = (width > height) ? height : width;
+                centerX = width / 2;
+                centerY = height / 2;
+                radius = len / 2 - 8;
+                borderRadius = len / 2 - 4;
+            } else {
+                // 与toRoundBitmap()原来的画法相同：内切于输出图片的圆
+                centerX = width / 2f;
+                centerY = height / 2f;
+                radius = width / 2;
+                borderRadius = 0;
+            }
+        }
+
+        /**
+         * 先画圆边，再把缩放、平移后的原图填充到圆形中
+         *
+         * @param borderColor 圆边的颜色，没有圆边时忽略
+         */
+        synchronized void draw(Canvas canvas, Bitmap bitmap, float scaleX, float scaleY,
+                               int dx, int dy, int borderColor) {
+            if (borderRadius > 0) {
+                borderPaint.setColor(borderColor);
+                canvas.drawCircle(centerX, centerY, borderRadius, borderPaint);
+            }
+            // 原图范围之外不画，与原来drawBitmap(bitmap, src, dst, paint)的结果一样，而不是CLAMP拉伸的边缘
+            canvas.save();
+            canvas.clipRect(dx, dy, dx + Math.round(bitmap.getWidth() * scaleX),
+                    dy + Math.round(bitmap.getHeight() * scaleY));
+            BitmapShader shader = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+            matrix.setScale(scaleX, scaleY);
+            matrix.postTranslate(dx, dy);
+            shader.setLocalMatrix(matrix);
+            shaderPaint.setShader(shader);
+            canvas.drawCircle(centerX, centerY, radius, shaderPaint);
+            canvas.restore();
+            // 不持有原图，原图马上会放回BitmapPool
+            shaderPaint.setShader(null);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,297 @@
+package org.chobitly.utils;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.os.Build;
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * 按尺寸和格式分桶的Bitmap池，用完的中间图片放回池中，下次需要同样大小的图片时直接复用，
+ * 解码资源时也通过BitmapFactory.Options.inBitmap复用池中的图片，减少每次刷新时的内存分配和GC。
+ * <p/>
+ * 池中的图片总大小不超过{@link #getMaxSize()}字节，超出时回收最早放入的图片。
+ * 放回池中的图片不能再被别处使用，已经在池中的图片再次放回时忽略。
+ */
+public class BitmapPool {
+
+    private static final String TAG = "BitmapPool";
+    /**
+     * 默认最多缓存8MB
+     */
+    public static final int DEFAULT_MAX_SIZE = 8 * 1024 * 1024;
+
+    // 尺寸和格式相同的图片放在同一个桶里
+    private static final HashMap<Long, ArrayDeque<Bitmap>> buckets = new HashMap<Long, ArrayDeque<Bitmap>>();
+    // 所有图片按放入的先后排列，超出大小时从头回收
+    private static final ArrayDeque<Bitmap> order = new ArrayDeque<Bitmap>();
+    // 池中所有的图片，按对象判断，防止同一张图片放回两次后被两处同时取出
+    private static final Set<Bitmap> pooled = Collections.newSetFromMap(new IdentityHashMap<Bitmap, Boolean>());
+    private static int maxSize = DEFAULT_MAX_SIZE;
+    private static int size;
+
+    private static int hitCount;
+    private static int missCount;
+    private static int putCount;
+    private static int evictionCount;
+
+    // 这个类不能实例化
+    private BitmapPool() {
+    }
+
+    /**
+     * 取一张全透明的可修改图片，池中没有时新建
+     *
+     * @param width  宽度
+     * @param height 高度
+     * @param config 格式
+     * @return 可修改的图片
+     */
+    public static Bitmap get(int width, int height, Bitmap.Config config) {
+        Bitmap bitmap = take(width, height, config);
+        if (bitmap == null) {
+            return BitmapTracker.track(Bitmap.createBitmap(width, height, config));
+        }
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return BitmapTracker.track(bitmap);
+    }
+
+    /**
+     * 放回不再使用的图片，不可修改或已经回收的图片直接回收，已经在池中的图片忽略
+     *
+     * @param bitmap 可以为null
+     */
+    public static void put(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        synchronized (BitmapPool.class) {
+            if (pooled.contains(bitmap)) {
+                Log.w(TAG, "Bitmap " + bitmap.getWidth() + "x" + bitmap.getHeight() + " is already in the pool");
+                return;
+            }
+            if (!bitmap.isMutable() || getByteCount(bitmap) > maxSize) {
+                BitmapTracker.onRecycle(bitmap);
+                bitmap.recycle();
+                return;
+            }
+            BitmapTracker.onRelease(bitmap);
+            pooled.add(bitmap);
+            long key = getKey(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+            ArrayDeque<Bitmap> bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = new ArrayDeque<Bitmap>();
+                buckets.put(key, bucket);
+            }
+            bucket.addLast(bitmap);
+            order.addLast(bitmap);
+            size += getByteCount(bitmap);
+            putCount++;
+            trimToSize(maxSize);
+        }
+    }
+
+    /**
+     * 解码图片资源，尽量复用池中同样大小的图片。解码结果是可修改的，用完后可以{@link #put(Bitmap)}。
+     *
+     * @param resources
+     * @param resID     图片资源id
+     * @return 解码失败时返回null
+     */
+    public static Bitmap decodeResource(Resources resources, int resID) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, resID, options);
+        return decode(resources, resID, options, options.outWidth, options.outHeight);
+    }
+
+    /**
+     * 解码图片资源并直接缩小到指定大小：先用inSampleSize按2的幂缩小，再用inDensity/inTargetDensity
+     * 缩放到刚好的大小，不需要先按原图大小解码再缩放。宽高比不变，解码结果覆盖指定的大小。
+     * 指定的大小不小于{@link #decodeResource(Resources, int)}的结果时与它相同，不会放大。
+     *
+     * @param resources
+     * @param resID     图片资源id
+     * @param reqWidth  需要的宽度
+     * @param reqHeight 需要的高度
+     * @return 解码失败时返回null
+     */
+    public static Bitmap decodeResource(Resources resources, int resID, int reqWidth, int reqHeight) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(resources, resID, options);
+        int scaledWidth = options.outWidth;
+        int scaledHeight = options.outHeight;
+        if (scaledWidth <= 0 || scaledHeight <= 0
+                || (reqWidth >= scaledWidth && reqHeight >= scaledHeight)) {
+            return decode(resources, resID, options, scaledWidth, scaledHeight);
+        }
+        // 资源文件本身的大小，不按屏幕密度缩放
+        options.inScaled = false;
+        BitmapFactory.decodeResource(resources, resID, options);
+        int rawWidth = options.outWidth;
+        int rawHeight = options.outHeight;
+        // 按比例较大的一边计算，保证两边都不小于需要的大小
+        int raw, target;
+        if ((long) reqWidth * rawHeight >= (long) reqHeight * rawWidth) {
+            raw = rawWidth;
+            target = reqWidth;
+        } else {
+            raw = rawHeight;
+            target = reqHeight;
+        }
+        int sampleSize = 1;
+        while (raw / (sampleSize * 2) >= target) {
+            sampleSize *= 2;
+        }
+        options.inSampleSize = sampleSize;
+        options.inScaled = true;
+        options.inDensity = raw / sampleSize;
+        options.inTargetDensity = target;
+        return decode(resources, resID, options,
+                Math.round((float) rawWidth * target / raw), Math.round((float) rawHeight * target / raw));
+    }
+
+    // 按options解码，尽量复用池中大小为width x height的图片
+    private static Bitmap decode(Resources resources, int resID, BitmapFactory.Options options,
+                                 int width, int height) {
+        options.inJustDecodeBounds = false;
+        options.inMutable = true;
+        Bitmap reusable = take(width, height, Bitmap.Config.ARGB_8888);
+        if (reusable != null) {
+            options.inBitmap = reusable;
+            try {
+                Bitmap bitmap = BitmapFactory.decodeResource(resources, resID, options);
+                if (bitmap != reusable) {
+                    // 解码失败或没有用上池中的图片时放回去，不能丢掉
+                    put(reusable);
+                }
+                return BitmapTracker.track(bitmap);
+            } catch (IllegalArgumentException e) {
+                // API 19以下缩放后的图片不能复用，放回去正常解码
+                if (Log.isLoggable(TAG, Log.DEBUG)) {
+                    Log.d(TAG, "inBitmap rejected for " + width + "x" + height, e);
+                }
+                options.inBitmap = null;
+                put(reusable);
+            }
+        }
+        return BitmapTracker.track(BitmapFactory.decodeResource(resources, resID, options));
+    }
+
+    /**
+     * 设置池的大小，超出部分立即回收
+     *
+     * @param bytes 最多缓存的字节数
+     */
+    public static synchronized void setMaxSize(int bytes) {
+        maxSize = bytes;
+        trimToSize(maxSize);
+    }
+
+    /**
+     * @return 最多缓存的字节数
+     */
+    public static synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return 当前缓存的字节数
+     */
+    public static synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * 回收池中所有图片，内存不足时调用
+     */
+    public static synchronized void clear() {
+        trimToSize(0);
+    }
+
+    /**
+     * @return 从池中取到图片的次数，包括解码时的复用
+     */
+    public static synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return 池中没有合适的图片、只能新建的次数
+     */
+    public static synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return 放回池中的次数
+     */
+    public static synchronized int getPutCount() {
+        return putCount;
+    }
+
+    /**
+     * @return 因为超出大小而回收的次数
+     */
+    public static synchronized int getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return 统计信息，用于日志
+     */
+    public static synchronized String getStats() {
+        int accesses = hitCount + missCount;
+        int hitPercent = accesses != 0 ? 100 * hitCount / accesses : 0;
+        return "BitmapPool[size=" + size + "/" + maxSize + ",hits=" + hitCount + ",misses=" + missCount
+                + ",hitRate=" + hitPercent + "%,puts=" + putCount + ",evictions=" + evictionCount + "]";
+    }
+
+    private static synchronized Bitmap take(int width, int height, Bitmap.Config config) {
+        ArrayDeque<Bitmap> bucket = buckets.get(getKey(width, height, config));
+        Bitmap bitmap = bucket != null ? bucket.pollLast() : null;
+        if (bitmap == null) {
+            missCount++;
+            return null;
+        }
+        order.remove(bitmap);
+        pooled.remove(bitmap);
+        size -= getByteCount(bitmap);
+        hitCount++;
+        return bitmap;
+    }
+
+    private static void trimToSize(int maxSize) {
+        Iterator<Bitmap> iterator = order.iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            iterator.remove();
+            buckets.get(getKey(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig())).remove(bitmap);
+            pooled.remove(bitmap);
+            size -= getByteCount(bitmap);
+            evictionCount++;
+            BitmapTracker.onRecycle(bitmap);
+            bitmap.recycle();
+        }
+    }
+
+    private static long getKey(int width, int height, Bitmap.Config config) {
+        return (long) width << 40 | (long) height << 16 | (config != null ? config.ordinal() : 0xffff);
+    }
+
+    static int getByteCount(Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB_MR1) {
+            return bitmap.getByteCount();
+        }
+        return bitmap.getRowBytes() * bitmap.getHeight();
+    }
+}
@@ -0,0 +1,98 @@
+package org.chobitly.utils;
+
+import android.graphics.Bitmap;
+
+/**
+ * 记录绘图工具类产生的Bitmap：大小、创建它的调用位置、是否已经回收或放回池中，
+ * 用于查看当前占用的图片内存和发现没有回收就被丢弃的图片。
+ * <p/>
+ * 默认关闭，关闭时各方法直接返回，不影响性能。调试时{@link #setEnabled(boolean)}打开，
+ * 需要时打印{@link #getReport()}。
+ */
+public class BitmapTracker {
+
+    private static final AllocationTracker<Bitmap> tracker = new AllocationTracker<Bitmap>(
+            BitmapTracker.class.getName(), BitmapPool.class.getName());
+
+    // 这个类不能实例化
+    private BitmapTracker() {
+    }
+
+    /**
+     * @param enabled 是否记录，关闭时清空所有记录
+     */
+    public static void setEnabled(boolean enabled) {
+        tracker.setEnabled(enabled);
+    }
+
+    /**
+     * @return 是否正在记录
+     */
+    public static boolean isEnabled() {
+        return tracker.isEnabled();
+    }
+
+    /**
+     * 记录新产生的或从池中取出的图片
+     *
+     * @param bitmap 可以为null
+     * @return bitmap本身
+     */
+    public static Bitmap track(Bitmap bitmap) {
+        if (bitmap != null && tracker.isEnabled()) {
+            tracker.allocated(bitmap, BitmapPool.getByteCount(bitmap),
+                    bitmap.getWidth() + "x" + bitmap.getHeight() + " " + bitmap.getConfig());
+        }
+        return bitmap;
+    }
+
+    /**
+     * 图片被放回{@link BitmapPool}
+     *
+     * @param bitmap
+     */
+    public static void onRelease(Bitmap bitmap) {
+        if (tracker.isEnabled()) {
+            tracker.released(bitmap);
+        }
+    }
+
+    /**
+     * 图片将被回收
+     *
+     * @param bitmap
+     */
+    public static void onRecycle(Bitmap bitmap) {
+        if (tracker.isEnabled()) {
+            tracker.freed(bitmap);
+        }
+    }
+
+    /**
+     * @return 使用中（没有回收也没有放回池中）的图片的字节数
+     */
+    public static long getLiveBytes() {
+        return tracker.getLiveBytes();
+    }
+
+    /**
+     * @return 没有回收就被GC回收的图片个数
+     */
+    public static int getLeakCount() {
+        return tracker.getLeakCount();
+    }
+
+    /**
+     * @return 报告，按调用位置列出使用中的图片和最近的泄漏，用于日志
+     */
+    public static String getReport() {
+        return "BitmapTracker[" + tracker.getReport() + "]";
+    }
+
+    /**
+     * 清空所有记录和泄漏统计
+     */
+    public static void reset() {
+        tracker.reset();
+    }
+}
@@ -0,0 +1,339 @@
+package org.chobitly.utils;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.Log;
+import android.util.LruCache;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by SilverXia on 1/6/15.
+ */
+public class MoonRotateUtil {
+
+    private static final String TAG = "MoonRotateUtil";
+    /**
+     * 预先计算好的1900~2100年主要月相时刻表，见{@link LunationTable}
+     */
+    public static final String LUNATION_TABLE_ASSET = "lunations.bin";
+
+    // 映射好的月相时刻表，读取失败时为SIMPLE_MODEL，不再重试
+    private static MoonPhaseModel lunationModel;
+
+    // 月亮每11h48m44.05s才转动一次，缓存当前的角度
+    private static volatile MoonPhaseCache phaseCache = new MoonPhaseCache();
+
+    // 旋转图片用的线程池，空闲30秒后线程会退出
+    private static final int RASTER_THREADS = Runtime.getRuntime().availableProcessors();
+    private static ExecutorService rasterExecutor;
+
+    // 解码后的原图像素，按资源id、解码大小和屏幕密度缓存，每分钟刷新时不需要再解码PNG
+    private static LruCache<Long, SourceImage> sourceCache;
+    private static int sourceDensity;
+
+    // 渲染好的月亮在磁盘上的缓存，进程重启后不需要重新旋转
+    private static SpriteStore spriteStore;
+
+    // 在后台预热月相图集的线程，空闲30秒后退出
+    private static ExecutorService prewarmExecutor;
+
+    /**
+     * 将图片绕中心顺时针旋转degree度，并裁剪成内切圆。
+     * 旋转和裁剪由{@link MoonRaster}在一次双线性插值中完成，大图按行分段并行处理。
+     *
+     * @param context
+     * @param imageResID 图片资源id
+     * @param degree     顺时针旋转的角度
+     * @return 边长为min(宽, 高)的圆形图片
+     */
+    public static Bitmap getRotateImage(Context context, int imageResID, float degree) {
+        return getRotateImage(context, imageResID, degree, 0);
+    }
+
+    /**
+     * 与{@link #getRotateImage(Context, int, float)}相同，但原图解码时直接缩小到边长不小于size，
+     * 只需要小图时不用解码和旋转整张原图
+     *
+     * @param context
+     * @param imageResID 图片资源id
+     * @param degree     顺时针旋转的角度
+     * @param size       需要的边长，0表示按原图大小
+     * @return 边长为min(宽, 高)的圆形图片，原图比size大时约等于size
+     */
+    public static Bitmap getRotateImage(Context context, int imageResID, float degree, int size) {
+        SourceImage source = getSourceImage(context, imageResID, size);
+        int[] pixels = source.pixels;
+        int width = source.width;
+        int height = source.height;
+
+        int outputSize = MoonRaster.getOutputSize(width, height);
+        int[] output = new int[outputSize * outputSize];
+        try {
+            MoonRaster.rotateRound(pixels, width, height, degree, output, outputSize,
+                    getRasterExecutor(), RASTER_THREADS);
+        } catch (InterruptedException e) {
+            // 被中断时在当前线程处理完
+            Thread.currentThread().interrupt();
+            MoonRaster.rotateRound(pixels, width, height, degree, output, outputSize);
+        }
+        Bitmap bitmap = BitmapPool.get(outputSize, outputSize, Bitmap.Config.ARGB_8888);
+        bitmap.setPixels(output, 0, outputSize, 0, 0, outputSize, outputSize);
+        return bitmap;
+    }
+
+    /**
+     * 创建月亮旋转状态的图集，帧的尺寸与{@link #getRotateImage(Context, int, float)}的结果相同
+     *
+     * @param context
+     * @param imageResID 图片资源id
+     * @return 空的图集，帧在第一次用到时才渲染
+     */
+    public static MoonPhaseAtlas<Bitmap> createPhaseAtlas(Context context, int imageResID) {
+        // 只读取尺寸，帧已经在SpriteStore中时不需要解码原图
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(context.getResources(), imageResID, options);
+        int size = MoonRaster.getOutputSize(options.outWidth, options.outHeight);
+        return createPhaseAtlas(context, imageResID, size, size);
+    }
+
+    /**
+     * 创建月亮旋转状态的图集，帧的边长不超过maxSize，用于只显示小图的地方，如小尺寸的桌面小部件
+     *
+     * @param context
+     * @param imageResID 图片资源id
+     * @param maxSize    帧的最大边长，比原图大时按原图大小
+     * @return 空的图集，帧在第一次用到时才渲染
+     */
+    public static MoonPhaseAtlas<Bitmap> createPhaseAtlas(Context context, int imageResID, int maxSize) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeResource(context.getResources(), imageResID, options);
+        int size = Math.min(maxSize, MoonRaster.getOutputSize(options.outWidth, options.outHeight));
+        return createPhaseAtlas(context, imageResID, size, size);
+    }
+
+    /**
+     * 创建月亮旋转状态的图集，每帧是{@link #getRotateImage(Context, int, float)}的结果缩放到指定尺寸。
+     * 缓存的帧数按应用内存上限的1/16计算。渲染好的帧同时保存在{@link SpriteStore}中，进程重启后直接读取。
+     *
+     * @param context
+     * @param imageResID 图片资源id
+     * @param width      帧的宽度
+     * @param height     帧的高度
+     * @return 空的图集，帧在第一次用到时才渲染
+     */
+    public static MoonPhaseAtlas<Bitmap> createPhaseAtlas(Context context, final int imageResID,
+                                                          final int width, final int height) {
+        // 图集可能比调用者活得更久，不持有Activity或Service
+        final Context appContext = context.getApplicationContext();
+        ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        long maxBytes = am.getMemoryClass() * 1024L * 1024L / 16;
+        int maxFrames = (int) Math.min(Integer.MAX_VALUE, maxBytes / ((long) width * height * 4));
+        return new MoonPhaseAtlas<Bitmap>(maxFrames) {
+            @Override
+            protected Bitmap render(int degree) {
+                SpriteStore store = getSpriteStore(appContext);
+                String name = "moon_" + Integer.toHexString(imageResID) + "_" + width + "x" + height + "_" + degree;
+                long key;
+                try {
+                    key = store.getKey(imageResID, name);
+                } catch (IOException e) {
+                    Log.w(TAG, "Failed to checksum " + name, e);
+                    return renderPhase(appContext, imageResID, width, height, degree);
+                }
+                Bitmap bitmap = store.load(name, key);
+                if (bitmap == null) {
+                    bitmap = renderPhase(appContext, imageResID, width, height, degree);
+                    store.save(name, key, bitmap);
+                }
+                return bitmap;
+            }
+
+            @Override
+            protected void recycle(Bitmap frame) {
+                // 淘汰的帧离当前角度很远，已经不在界面上
+                BitmapPool.put(frame);
+            }
+        };
+    }
+
+    // 旋转、裁剪并缩放到指定尺寸，原图解码时已经缩小到接近这个尺寸
+    private static Bitmap renderPhase(Context context, int imageResID, int width, int height, int degree) {
+        Bitmap bitmap = getRotateImage(context, imageResID, degree, Math.max(width, height));
+        if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
+            return bitmap;
+        }
+        Bitmap scaled = BitmapPool.get(width, height, Bitmap.Config.ARGB_8888);
+        new Canvas(scaled).drawBitmap(bitmap, null, new Rect(0, 0, width, height),
+                new Paint(Paint.FILTER_BITMAP_FLAG));
+        BitmapPool.put(bitmap);
+        return scaled;
+    }
+
+    /**
+     * @param context
+     * @return 应用共用的磁盘图片缓存
+     */
+    public static synchronized SpriteStore getSpriteStore(Context context) {
+        if (spriteStore == null) {
+            spriteStore = new SpriteStore(context.getApplicationContext());
+        }
+        return spriteStore;
+    }
+
+    /**
+     * 在后台线程中预热图集，见{@link MoonPhaseAtlas#prewarm(java.util.concurrent.Executor)}
+     *
+     * @param atlas {@link #createPhaseAtlas(Context, int, int, int)}创建的图集
+     */
+    public static void prewarmPhaseAtlas(MoonPhaseAtlas<Bitmap> atlas) {
+        atlas.prewarm(getPrewarmExecutor());
+    }
+
+    /**
+     * 清空解码后的原图缓存，在配置（屏幕密度、夜间模式等）改变或内存不足时调用
+     */
+    public static synchronized void clearSourceCache() {
+        if (sourceCache != null) {
+            sourceCache.evictAll();
+        }
+    }
+
+    // 读取缓存的原图像素，没有时解码资源，size不为0时直接解码到这个大小。像素数组只读，可以在多个线程中共用
+    private static synchronized SourceImage getSourceImage(Context context, int imageResID, int size) {
+        int density = context.getResources().getDisplayMetrics().densityDpi;
+        if (sourceCache == null) {
+            ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+            // 最多占用应用内存上限的1/8
+            int maxBytes = am.getMemoryClass() * 1024 * 1024 / 8;
+            sourceCache = new LruCache<Long, SourceImage>(maxBytes) {
+                @Override
+                protected int sizeOf(Long key, SourceImage value) {
+                    return value.pixels.length * 4;
+                }
+            };
+        } else if (density != sourceDensity) {
+            // 密度变了，旧密度的图片不会再用到
+            sourceCache.evictAll();
+        }
+        sourceDensity = density;
+
+        // 同一张图的不同大小分开缓存，密度改变时已经全部清空，不需要放在key中
+        Long key = (long) size << 32 | (imageResID & 0xffffffffL);
+        SourceImage image = sourceCache.get(key);
+        if (image == null) {
+            Bitmap bitmap = size > 0
+                    ? BitmapPool.decodeResource(context.getResources(), imageResID, size, size)
+                    : BitmapPool.decodeResource(context.getResources(), imageResID);
+            int width = bitmap.getWidth();
+            int height = bitmap.getHeight();
+            int[] pixels = new int[width * height];
+            bitmap.getPixels(pixels, 0, width, 0, 0, width, height);
+            BitmapPool.put(bitmap);
+            image = new SourceImage(width, height, pixels);
+            sourceCache.put(key, image);
+        }
+        return image;
+    }
+
+    private static final class SourceImage {
+        final int width;
+        final int height;
+        final int[] pixels;
+
+        SourceImage(int width, int height, int[] pixels) {
+            this.width = width;
+            this.height = height;
+            this.pixels = pixels;
+        }
+    }
+
+    // 不能与rasterExecutor共用，预热任务会在rasterExecutor上等待分段旋转的结果
+    private static synchronized ExecutorService getPrewarmExecutor() {
+        if (prewarmExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1,
+                    30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+            executor.allowCoreThreadTimeOut(true);
+            prewarmExecutor = executor;
+        }
+        return prewarmExecutor;
+    }
+
+    private static synchronized ExecutorService getRasterExecutor() {
+        if (rasterExecutor == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(RASTER_THREADS, RASTER_THREADS,
+                    30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+            executor.allowCoreThreadTimeOut(true);
+            rasterExecutor = executor;
+        }
+        return rasterExecutor;
+    }
+
+
+    //月相周期为2551443s，即2551443s转180度，850481s转60度，212620.25s转15度，42524.05s（11h48m44.05s）转3度
+    //与2015-01-05 04:53（世界时）比较，计算需要转几个3度
+    public static float getDegree() {
+        return phaseCache.getDegree(System.currentTimeMillis());
+    }
+
+    /**
+     * 切换{@link #getDegree()}使用的月相模型，默认为{@link MoonPhase#SIMPLE_MODEL}
+     *
+     * @param model 如{@link LunationEngine}
+     */
+    public static void setPhaseModel(MoonPhaseModel model) {
+        if (phaseCache.getModel() != model) {
+            phaseCache = new MoonPhaseCache(model);
+        }
+    }
+
+    /**
+     * @return {@link #getDegree()}当前使用的月相模型
+     */
+    public static MoonPhaseModel getPhaseModel() {
+        return phaseCache.getModel();
+    }
+
+    /**
+     * 内存映射assets中的月相时刻表，只映射一次，数据不占用Java堆。
+     * 读取失败也只尝试一次，之后一直返回{@link MoonPhase#SIMPLE_MODEL}
+     *
+     * @param context
+     * @return 月相时刻表，读取失败时返回{@link MoonPhase#SIMPLE_MODEL}
+     */
+    public static synchronized MoonPhaseModel loadLunationTable(Context context) {
+        if (lunationModel == null) {
+            try {
+                AssetFileDescriptor afd = context.getAssets().openFd(LUNATION_TABLE_ASSET);
+                FileInputStream fis = afd.createInputStream();
+                try {
+                    // 映射在关闭文件之后仍然有效
+                    ByteBuffer buffer = fis.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                            afd.getStartOffset(), afd.getLength());
+                    lunationModel = new LunationTable(buffer);
+                } finally {
+                    fis.close();
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                Log.w(TAG, "Failed to map " + LUNATION_TABLE_ASSET, e);
+                lunationModel = MoonPhase.SIMPLE_MODEL;
+            }
+        }
+        return lunationModel;
+    }
+}
@@ -0,0 +1,164 @@
+package org.chobitly.utils;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.util.Log;
+import android.util.SparseArray;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * 渲染好的图片在磁盘上的缓存，进程被杀死后重新启动也不需要再解码和旋转。
+ * <p/>
+ * 每张图片存为一个{@link SpriteFile}，读取时内存映射后用Bitmap.copyPixelsFromBuffer()复制像素，不解码PNG。
+ * key由原图资源文件的校验和、应用的versionCode和图片的名字组成，资源或应用更新后旧文件不会再被读取，
+ * 下次保存时直接覆盖。
+ */
+public class SpriteStore {
+
+    private static final String TAG = "SpriteStore";
+    /**
+     * 缓存文件在getCacheDir()下的目录
+     */
+    public static final String DIRECTORY = "sprites";
+    private static final String SUFFIX = ".sprite";
+
+    private final File directory;
+    private final Resources resources;
+    private final int appVersion;
+    // 资源id对应的原图校验和，每个资源只读一次
+    private final SparseArray<Long> checksums = new SparseArray<Long>();
+
+    /**
+     * @param context
+     */
+    public SpriteStore(Context context) {
+        directory = new File(context.getCacheDir(), DIRECTORY);
+        resources = context.getResources();
+        int version = 0;
+        try {
+            version = context.getPackageManager().getPackageInfo(context.getPackageName(), 0).versionCode;
+        } catch (PackageManager.NameNotFoundException e) {
+            Log.w(TAG, "Failed to get the version code", e);
+        }
+        appVersion = version;
+    }
+
+    /**
+     * 计算图片的key
+     *
+     * @param imageResID 原图资源id，当前屏幕密度下实际使用的资源文件参与校验
+     * @param name       图片的名字，包含尺寸、角度等渲染参数
+     * @return 见{@link SpriteFile#getKey(long, int, String)}
+     * @throws IOException 读取资源失败
+     */
+    public synchronized long getKey(int imageResID, String name) throws IOException {
+        Long checksum = checksums.get(imageResID);
+        if (checksum == null) {
+            CRC32 crc = new CRC32();
+            InputStream in = resources.openRawResource(imageResID);
+            try {
+                byte[] buffer = new byte[8192];
+                int count;
+                while ((count = in.read(buffer)) != -1) {
+                    crc.update(buffer, 0, count);
+                }
+            } finally {
+                in.close();
+            }
+            checksum = crc.getValue();
+            checksums.put(imageResID, checksum);
+        }
+        return SpriteFile.getKey(checksum, appVersion, name);
+    }
+
+    /**
+     * 读取缓存的图片
+     *
+     * @param name 图片的名字
+     * @param key  见{@link #getKey(int, String)}
+     * @return 没有缓存、缓存已过期或读取失败时返回null
+     */
+    public synchronized Bitmap load(String name, long key) {
+        try {
+            SpriteFile file = SpriteFile.open(new File(directory, name + SUFFIX), key);
+            if (file == null) {
+                return null;
+            }
+            Bitmap bitmap = BitmapPool.get(file.getWidth(), file.getHeight(), toBitmapConfig(file.getConfig()));
+            bitmap.copyPixelsFromBuffer(file.getPixels());
+            return bitmap;
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to load " + name, e);
+            return null;
+        }
+    }
+
+    /**
+     * 保存图片，失败时只打印日志
+     *
+     * @param name   图片的名字，只能包含文件名中允许的字符
+     * @param key    见{@link #getKey(int, String)}
+     * @param bitmap ARGB_8888、RGB_565或ALPHA_8格式的图片
+     */
+    public synchronized void save(String name, long key, Bitmap bitmap) {
+        int config = toSpriteConfig(bitmap.getConfig());
+        // 行末有对齐用的填充时不能直接保存
+        if (config == 0 || bitmap.getRowBytes() != bitmap.getWidth() * SpriteFile.getBytesPerPixel(config)) {
+            return;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.w(TAG, "Failed to create " + directory);
+            return;
+        }
+        ByteBuffer pixels = ByteBuffer.allocate(bitmap.getRowBytes() * bitmap.getHeight());
+        bitmap.copyPixelsToBuffer(pixels);
+        pixels.flip();
+        try {
+            SpriteFile.write(new File(directory, name + SUFFIX), key,
+                    bitmap.getWidth(), bitmap.getHeight(), config, pixels);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to save " + name, e);
+        }
+    }
+
+    /**
+     * 删除所有缓存文件
+     */
+    public synchronized void clear() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    private static int toSpriteConfig(Bitmap.Config config) {
+        if (config == Bitmap.Config.ARGB_8888) {
+            return SpriteFile.CONFIG_ARGB_8888;
+        } else if (config == Bitmap.Config.RGB_565) {
+            return SpriteFile.CONFIG_RGB_565;
+        } else if (config == Bitmap.Config.ALPHA_8) {
+            return SpriteFile.CONFIG_ALPHA_8;
+        }
+        return 0;
+    }
+
+    private static Bitmap.Config toBitmapConfig(int config) {
+        switch (config) {
+            case SpriteFile.CONFIG_RGB_565:
+                return Bitmap.Config.RGB_565;
+            case SpriteFile.CONFIG_ALPHA_8:
+                return Bitmap.Config.ALPHA_8;
+            default:
+                return Bitmap.Config.ARGB_8888;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
+import android.content.res.Configuration;
 import android.content.res.Resources;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
@@ -21,7 +22,14 @@ import android.util.Log;
 import android.view.Gravity;
 import android.view.SurfaceHolder;
 
-import com.chobitly.utils.MoonRotateUtil;
+import org.chobitly.utils.BitmapPool;
+import org.chobitly.utils.BitmapTracker;
+import org.chobitly.utils.LunarDateCache;
+import org.chobitly.utils.MoonPhaseAtlas;
+import org.chobitly.utils.MoonPhaseCache;
+import org.chobitly.utils.MoonPhaseModel;
+import org.chobitly.utils.MoonRotateUtil;
+import org.chobitly.utils.WatchHands;
 
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
@@ -36,17 +44,47 @@ public class AnalogWatchFaceService extends CanvasWatchFaceService {
      */
     private static final long INTERACTIVE_UPDATE_RATE_MS = TimeUnit.SECONDS.toMillis(1);
 
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // Debug builds record every bitmap the render helpers hand out, so leaks show up in the
+        // low-memory report.
+        BitmapTracker.setEnabled(BuildConfig.DEBUG);
+    }
+
     @Override
     public Engine onCreateEngine() {
         return new Engine();
     }
 
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        // Decoded moon pixels are keyed by density; drop them so they are decoded again for the
+        // new configuration.
+        MoonRotateUtil.clearSourceCache();
+    }
+
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        MoonRotateUtil.clearSourceCache();
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, "onLowMemory: " + BitmapPool.getStats());
+            if (BitmapTracker.isEnabled()) {
+                Log.d(TAG, "onLowMemory: " + BitmapTracker.getReport());
+            }
+        }
+        BitmapPool.clear();
+    }
+
     private class Engine extends CanvasWatchFaceService.Engine {
         static final int MSG_UPDATE_TIME = 0;
 
         Paint mHourPaint;
         Paint mMinutePaint;
         Paint mSecondPaint;
+        Paint mDatePaint;
         boolean mMute;
         Time mTime;
 
@@ -78,6 +116,7 @@ public class AnalogWatchFaceService extends CanvasWatchFaceService {
             public void onReceive(Context context, Intent intent) {
                 mTime.clear(intent.getStringExtra("time-zone"));
                 mTime.setToNow();
+                mLunarDate.invalidate();
             }
         };
         boolean mRegisteredTimeZoneReceiver = false;
@@ -88,11 +127,26 @@ public class AnalogWatchFaceService extends CanvasWatchFaceService {
          */
         boolean mLowBitAmbient;
 
-        float mMoonDegree = 0;
-        Bitmap mMoonBitmap;
-        Bitmap mMoonScaledBitmap;
+        int mMoonDegree = 0;
+        /**
+         * The moon only turns one 3° step every 11h48m, so the degree is recomputed only when the
+         * cached step expires. The steps come from the memory-mapped lunation table.
+         */
+        MoonPhaseCache mMoonPhase;
+        /**
+         * The moon has only 60 distinct rotations, so each one is rotated, cropped and scaled to
+         * the screen at most once and then drawn from the atlas.
+         */
+        MoonPhaseAtlas<Bitmap> mMoonAtlas;
+        int mMoonAtlasWidth;
+        int mMoonAtlasHeight;
         Bitmap mOutlineBitmap;
         Bitmap mOutlineScaledBitmap;
+        /**
+         * The lunar date and solar term only change at midnight or at a term boundary, so the
+         * label is looked up again only when the cached one expires, not on every tick.
+         */
+        final LunarDateCache mLunarDate = new LunarDateCache();
 
         @Override
         public void onCreate(SurfaceHolder holder) {
@@ -111,8 +165,9 @@ public class AnalogWatchFaceService extends CanvasWatchFaceService {
                     .build());
 
             Resources resources = AnalogWatchFaceService.this.getResources();
-            mMoonDegree = MoonRotateUtil.getDegree();
-            mMoonBitmap = MoonRotateUtil.getRotateImage(AnalogWatchFaceService.this, R.drawable.wear_watch_inner_moon, mMoonDegree);
+            MoonPhaseModel phaseModel = MoonRotateUtil.loadLunationTable(AnalogWatchFaceService.this);
+            mMoonPhase = new MoonPhaseCache(phaseModel);
+            mLunarDate.setPhaseModel(phaseModel);
             mOutlineBitmap = ((BitmapDrawable) resources.getDrawable(R.drawable.wear_watch_outline)).getBitmap();
 
             mHourPaint = new Paint();
@@ -133,12 +188,21 @@ public class AnalogWatchFaceService extends CanvasWatchFaceService {
             mSecondPaint.setAntiAlias(true);
             mSecondPaint.setStrokeCap(Paint.Cap.ROUND);
 
+            mDatePaint = new Paint();
+            mDatePaint.setARGB(255, 94, 94, 94);
+            mDatePaint.setTextSize(resources.getDisplayMetrics().scaledDensity * 14);
+            mDatePaint.setTextAlign(Paint.Align.CENTER);
+            mDatePaint.setAntiAlias(true);
+
             mTime = new Time();
         }
 
         @Override
         public void onDestroy() {
             mUpdateTimeHandler.removeMessages(MSG_UPDATE_TIME);
+            if (mMoonAtlas != null) {
+                mMoonAtlas.clear();
+            }
             super.onDestroy();
         }
 
@@ -171,6 +235,7 @@ public class AnalogWatchFaceService extends CanvasWatchFaceService {
                 mHourPaint.setAntiAlias(antiAlias);
                 mMinutePaint.setAntiAlias(antiAlias);
                 mSecondPaint.setAntiAlias(antiAlias);
+                mDatePaint.setAntiAlias(antiAlias);
             }
             invalidate();
 
@@ -188,6 +253,7 @@ public class AnalogWatchFaceService extends CanvasWatchFaceService {
                 mHourPaint.setAlpha(inMuteMode ? 100 : 255);
                 mMinutePaint.setAlpha(inMuteMode ? 100 : 255);
                 mSecondPaint.setAlpha(inMuteMode ? 80 : 255);
+                mDatePaint.setAlpha(inMuteMode ? 100 : 255);
                 invalidate();
             }
         }
@@ -202,25 +268,24 @@ public class AnalogWatchFaceService extends CanvasWatchFaceService {
             // Draw the background
             canvas.drawARGB(255, 255, 255, 144);
             // Draw the moon, scaled to fit.
-            if (mMoonDegree != MoonRotateUtil.getDegree()
-                    || mMoonScaledBitmap == null
-                    || mMoonScaledBitmap.getWidth() != width
-                    || mMoonScaledBitmap.getHeight() != height) {
-                mMoonDegree = MoonRotateUtil.getDegree();
-                Bitmap bitmap = mMoonBitmap;
-                mMoonBitmap = MoonRotateUtil.getRotateImage(AnalogWatchFaceService.this,
-                        R.drawable.wear_watch_inner_moon, mMoonDegree);
-                if (bitmap != null && !bitmap.isRecycled()) {
-                    bitmap.recycle();
-                }
-                bitmap = mMoonScaledBitmap;
-                mMoonScaledBitmap = Bitmap.createScaledBitmap(mMoonBitmap,
-                        width, height, true /* filter */);
-                if (bitmap != null && !bitmap.isRecycled()) {
-                    bitmap.recycle();
+            long now = System.currentTimeMillis();
+            boolean moonMoved = !mMoonPhase.isValid(now);
+            if (mMoonAtlas == null || mMoonAtlasWidth != width || mMoonAtlasHeight != height) {
+                if (mMoonAtlas != null) {
+                    mMoonAtlas.clear();
                 }
+                mMoonAtlas = MoonRotateUtil.createPhaseAtlas(AnalogWatchFaceService.this,
+                        R.drawable.wear_watch_inner_moon, width, height);
+                mMoonAtlasWidth = width;
+                mMoonAtlasHeight = height;
+                moonMoved = true;
+            }
+            mMoonDegree = mMoonPhase.getDegree(now);
+            canvas.drawBitmap(mMoonAtlas.getFrame(mMoonDegree), 0, 0, null);
+            if (moonMoved) {
+                // Render the next rotations in the background so that the next step is ready.
+                MoonRotateUtil.prewarmPhaseAtlas(mMoonAtlas);
             }
-            canvas.drawBitmap(mMoonScaledBitmap, 0, 0, null);
             // Draw the cover, scaled to fit.
             if (mOutlineScaledBitmap == null
                     || mOutlineScaledBitmap.getWidth() != width
@@ -236,10 +301,12 @@ public class AnalogWatchFaceService extends CanvasWatchFaceService {
             float centerX = width / 2f;
             float centerY = height / 2f;
 
-            float secRot = mTime.second / 30f * (float) Math.PI;
-            int minutes = mTime.minute;
-            float minRot = minutes / 30f * (float) Math.PI;
-            float hrRot = ((mTime.hour + (minutes / 60f)) / 6f) * (float) Math.PI;
+            // Draw the lunar date and solar term below the center.
+            canvas.drawText(mLunarDate.getLabel(now), centerX, centerY + height / 4f, mDatePaint);
+
+            float secRot = (float) Math.toRadians(WatchHands.getSecondDegree(mTime.second));
+            float minRot = (float) Math.toRadians(WatchHands.getMinuteDegree(mTime.minute));
+            float hrRot = (float) Math.toRadians(WatchHands.getHourDegree(mTime.hour, mTime.minute));
 
             float secLength = centerX - 32;
             float minLength = centerX - 48;
@@ -273,6 +340,7 @@ public class AnalogWatchFaceService extends CanvasWatchFaceService {
                 // Update time zone in case it changed while we weren't visible.
                 mTime.clear(TimeZone.getDefault().getID());
                 mTime.setToNow();
+                mLunarDate.invalidate();
             } else {
                 unregisterReceiver();
             }